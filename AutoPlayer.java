@@ -0,0 +1,486 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * AutoPlayer plays Tetris by itself.  For each new tetrad it tries every
+ * rotation and every column the tetrad can reach, drops it, scores the
+ * resulting board with a Heuristic, and then presses the arrow keys that
+ * take the tetrad to the best placement.  The keys go to an ArrowListener,
+ * so the player can drive a TetrisGame directly or fill a CommandQueue.
+ *
+ * The placements are searched on a BitBoard copy of the grid.  When the
+ * player has a ForkJoinPool, each rotation is searched by its own task
+ * with its own copy of the board.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class AutoPlayer
+{
+    /**
+     * The most rows a new tetrad is moved down before it is rotated.
+     */
+    public static final int CLEARANCE = 2;
+
+    private Heuristic heuristic;
+    private ForkJoinPool pool;
+    private Tetrad planned;
+
+    /**
+     * Constructs a player that searches on the calling thread.
+     *
+     * @param h  the heuristic that scores the placements
+     */
+    public AutoPlayer(Heuristic h)
+    {
+        this(h, null);
+    }
+
+    /**
+     * Constructs a player that searches in parallel.
+     *
+     * @param h  the heuristic that scores the placements
+     * @param p  the pool the search runs in, or null to search
+     *           on the calling thread
+     */
+    public AutoPlayer(Heuristic h, ForkJoinPool p)
+    {
+        heuristic = h;
+        pool = p;
+    }
+
+    /**
+     * Retrieves the heuristic.
+     *
+     * @return the heuristic that scores the placements
+     */
+    public Heuristic getHeuristic()
+    {
+        return heuristic;
+    }
+
+    /**
+     * Retrieves the pool the search runs in.
+     *
+     * @return the pool, or null if the search runs on the calling thread
+     */
+    public ForkJoinPool getPool()
+    {
+        return pool;
+    }
+
+    /**
+     * Retrieves the number of tetrads the search looks at, counting
+     * the one being placed.  This player only looks at that one.
+     *
+     * @return the depth of the search
+     */
+    public int getDepth()
+    {
+        return 1;
+    }
+
+    /**
+     * Presses the keys that take the game's active tetrad to its best
+     * placement.  Nothing is pressed if the game is over or the keys for
+     * the active tetrad have already been pressed, so this may be called
+     * on every tick.
+     *
+     * @param game    the game being played
+     * @param target  the listener that receives the key presses, for
+     *                example the game itself or a CommandQueue
+     *
+     * @return true if keys were pressed; otherwise,
+     *         false
+     */
+    public boolean move(TetrisGame game, ArrowListener target)
+    {
+        Tetrad tetrad = game.getActiveTetrad();
+        if (game.isGameOver() || tetrad == planned)
+        {
+            return false;
+        }
+        planned = tetrad;
+        // the search only reads the board, and copies it to try placements
+        BitBoard board = game.getBoard();
+        int shape = tetrad.getShapeIndex();
+        int row = clearRow(board, shape, tetrad.getRotation(),
+                           tetrad.getPivotRow(), tetrad.getPivotCol());
+        Placement best = findBest(board, shape, tetrad.getRotation(),
+                                  row, tetrad.getPivotCol());
+        if (best == null)
+        {
+            return false;
+        }
+        for (int r = tetrad.getPivotRow(); r < row; r++)
+        {
+            target.downPressed();
+        }
+        int turns = (best.getRotation() - tetrad.getRotation() + TetradTable.ROTATIONS)
+                    % TetradTable.ROTATIONS;
+        for (int i = 0; i < turns; i++)
+        {
+            target.upPressed();
+        }
+        for (int c = tetrad.getPivotCol(); c > best.getCol(); c--)
+        {
+            target.leftPressed();
+        }
+        for (int c = tetrad.getPivotCol(); c < best.getCol(); c++)
+        {
+            target.rightPressed();
+        }
+        for (int r = row; r < best.getRow(); r++)
+        {
+            target.downPressed();
+        }
+        return true;
+    }
+
+    /**
+     * Finds the best placement for a game's active tetrad.
+     *
+     * @param game  the game being played
+     *
+     * @return the best placement, or null if the tetrad cannot move
+     */
+    public Placement findBest(TetrisGame game)
+    {
+        Tetrad tetrad = game.getActiveTetrad();
+        BitBoard board = game.getBoard();
+        int shape = tetrad.getShapeIndex();
+        int row = clearRow(board, shape, tetrad.getRotation(),
+                           tetrad.getPivotRow(), tetrad.getPivotCol());
+        return findBest(board, shape, tetrad.getRotation(), row, tetrad.getPivotCol());
+    }
+
+    /**
+     * Finds the row a tetrad is moved down to before it is rotated.
+     * A tetrad that has just appeared is at the top of the grid, where
+     * most rotations would take it outside the grid, so it is first
+     * moved down by up to CLEARANCE rows.
+     *
+     * @param board     the board, without the tetrad on it
+     * @param shape     the index of the tetrad's shape in TetradTable.SHAPES
+     * @param rotation  the tetrad's current rotation
+     * @param row       the row of the tetrad's first block
+     * @param col       the column of the tetrad's first block
+     *
+     * @return the row the tetrad is rotated in
+     */
+    private static int clearRow(BitBoard board, int shape, int rotation, int row, int col)
+    {
+        int lowest = row + CLEARANCE;
+        while (row < lowest && board.fits(shape, rotation, row + 1, col))
+        {
+            row++;
+        }
+        return row;
+    }
+
+    /**
+     * Finds the best placement for a tetrad on a board.
+     *
+     * @param board     the board, without the tetrad on it
+     * @param shape     the index of the tetrad's shape in TetradTable.SHAPES
+     * @param rotation  the tetrad's current rotation
+     * @param row       the row of the tetrad's first block
+     * @param col       the column of the tetrad's first block
+     *
+     * @return the best placement, or null if the tetrad cannot move
+     */
+    public Placement findBest(BitBoard board, int shape, int rotation, int row, int col)
+    {
+        return search(board, shape, rotation, row, col, getDepth());
+    }
+
+    /**
+     * Finds the best placement for a tetrad that has just appeared
+     * at the top of a board.
+     *
+     * @param board  the board
+     * @param shape  the index of the tetrad's shape in TetradTable.SHAPES
+     *
+     * @return the best placement, or null if there is no room for
+     *         the tetrad, which ends the game
+     */
+    public Placement findBestNew(BitBoard board, int shape)
+    {
+        return searchNew(board, shape, getDepth());
+    }
+
+    /**
+     * Finds the best placement for a tetrad, scoring each placement
+     * with score.
+     *
+     * @param board     the board, without the tetrad on it
+     * @param shape     the index of the tetrad's shape in TetradTable.SHAPES
+     * @param rotation  the tetrad's current rotation
+     * @param row       the row of the tetrad's first block
+     * @param col       the column of the tetrad's first block
+     * @param depth     the number of tetrads left to look at, counting
+     *                  this one
+     *
+     * @return the best placement, or null if the tetrad cannot move
+     */
+    protected Placement search(BitBoard board, int shape, int rotation,
+                               int row, int col, int depth)
+    {
+        return invoke(new SearchTask(board, shape, rotation, row, col, depth,
+                                     0, TetradTable.ROTATIONS));
+    }
+
+    /**
+     * Runs a task in this player's pool and waits for its result.
+     * Tasks only split into subtasks when the player has a pool, so
+     * without one the task simply runs on the calling thread.
+     *
+     * @param task  the task to run
+     * @param <T>   the type of the task's result
+     *
+     * @return the result of the task
+     */
+    protected <T> T invoke(ForkJoinTask<T> task)
+    {
+        if (pool == null || ForkJoinTask.getPool() == pool)
+        {
+            // already in one of the pool's threads, so its subtasks go there too
+            return task.invoke();
+        }
+        return pool.invoke(task);
+    }
+
+    /**
+     * Finds the best placement for a tetrad that has just appeared
+     * at the top of a board.
+     *
+     * @param board  the board
+     * @param shape  the index of the tetrad's shape in TetradTable.SHAPES
+     * @param depth  the number of tetrads left to look at, counting
+     *               this one
+     *
+     * @return the best placement, or null if there is no room for
+     *         the tetrad, which ends the game
+     */
+    protected Placement searchNew(BitBoard board, int shape, int depth)
+    {
+        int row = TetradTable.getStartRow(shape);
+        int col = TetradTable.getStartCol(shape, board.getNumCols());
+        if (!board.fits(shape, 0, row, col))
+        {
+            return null;
+        }
+        return search(board, shape, 0, clearRow(board, shape, 0, row, col), col, depth);
+    }
+
+    /**
+     * Scores a placement.  This player scores the board with its
+     * heuristic; players that look further ahead override this.
+     *
+     * @param board        the board after the tetrad was placed and
+     *                     the full rows were cleared
+     * @param rowsCleared  the number of rows the placement cleared
+     * @param depth        the number of tetrads left to look at,
+     *                     counting the one that was just placed
+     *
+     * @return the score of the placement; higher is better
+     */
+    protected double score(BitBoard board, int rowsCleared, int depth)
+    {
+        return heuristic.evaluate(board, rowsCleared);
+    }
+
+    /**
+     * Finds the best placement for a tetrad that is turned a given
+     * number of times before it is moved sideways and dropped.
+     *
+     * @param board     the board, without the tetrad on it
+     * @param scratch   a board with the same dimensions to try placements on
+     * @param shape     the index of the tetrad's shape in TetradTable.SHAPES
+     * @param rotation  the tetrad's current rotation
+     * @param row       the row of the tetrad's first block
+     * @param col       the column of the tetrad's first block
+     * @param turns     the number of times the tetrad is rotated
+     * @param depth     the number of tetrads left to look at
+     *
+     * @return the best placement, or null if the tetrad cannot be
+     *         rotated that many times
+     */
+    private Placement searchRotation(BitBoard board, BitBoard scratch, int shape,
+                                     int rotation, int row, int col, int turns,
+                                     int depth)
+    {
+        int rot = turn(board, shape, rotation, row, col, turns);
+        if (rot < 0)
+        {
+            return null;
+        }
+        int left = col;
+        while (board.fits(shape, rot, row, left - 1))
+        {
+            left--;
+        }
+        Placement best = null;
+        for (int c = left; board.fits(shape, rot, row, c); c++)
+        {
+            int landed = board.dropRow(shape, rot, row, c);
+            scratch.copyFrom(board);
+            scratch.place(shape, rot, landed, c, shape);
+            int cleared = scratch.clearFullRows();
+            double score = score(scratch, cleared, depth);
+            best = Placement.better(best, new Placement(rot, landed, c, cleared, score));
+        }
+        return best;
+    }
+
+    /**
+     * Lists every placement a tetrad can reach, each scored by the
+     * heuristic alone.
+     *
+     * @param board     the board, without the tetrad on it
+     * @param shape     the index of the tetrad's shape in TetradTable.SHAPES
+     * @param rotation  the tetrad's current rotation
+     * @param row       the row of the tetrad's first block
+     * @param col       the column of the tetrad's first block
+     * @param out       the array the placements are stored in; it must
+     *                  have room for ROTATIONS times the number of columns
+     *
+     * @return the number of placements stored in out
+     */
+    protected int listPlacements(BitBoard board, int shape, int rotation,
+                                 int row, int col, Placement[] out)
+    {
+        BitBoard scratch = new BitBoard(board);
+        int count = 0;
+        for (int turns = 0; turns < TetradTable.ROTATIONS; turns++)
+        {
+            int rot = turn(board, shape, rotation, row, col, turns);
+            if (rot < 0)
+            {
+                continue;
+            }
+            int left = col;
+            while (board.fits(shape, rot, row, left - 1))
+            {
+                left--;
+            }
+            for (int c = left; board.fits(shape, rot, row, c); c++)
+            {
+                int landed = board.dropRow(shape, rot, row, c);
+                scratch.copyFrom(board);
+                scratch.place(shape, rot, landed, c, shape);
+                int cleared = scratch.clearFullRows();
+                out[count] = new Placement(rot, landed, c, cleared,
+                                           heuristic.evaluate(scratch, cleared));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Turns a tetrad in place a given number of times.
+     *
+     * @param board     the board, without the tetrad on it
+     * @param shape     the index of the tetrad's shape in TetradTable.SHAPES
+     * @param rotation  the tetrad's current rotation
+     * @param row       the row of the tetrad's first block
+     * @param col       the column of the tetrad's first block
+     * @param turns     the number of times the tetrad is rotated
+     *
+     * @return the rotation the tetrad ends up in, or -1 if it does
+     *         not fit after one of the turns
+     */
+    private static int turn(BitBoard board, int shape, int rotation,
+                            int row, int col, int turns)
+    {
+        int rot = rotation;
+        for (int i = 0; i < turns; i++)
+        {
+            rot = (rot + 1) % TetradTable.ROTATIONS;
+            if (!board.fits(shape, rot, row, col))
+            {
+                return -1;
+            }
+        }
+        if (!board.fits(shape, rot, row, col))
+        {
+            return -1;
+        }
+        return rot;
+    }
+
+    /**
+     * SearchTask searches a range of rotations, splitting the range
+     * in two until each task has a single rotation.
+     */
+    private class SearchTask extends RecursiveTask<Placement>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private BitBoard board;
+        private int shape;
+        private int rotation;
+        private int row;
+        private int col;
+        private int depth;
+        private int fromTurns;
+        private int toTurns;
+
+        /**
+         * Constructs a task that searches the placements reached by
+         * turning the tetrad fromTurns to toTurns - 1 times.
+         *
+         * @param brd   the board, without the tetrad on it
+         * @param shp   the index of the tetrad's shape
+         * @param rot   the tetrad's current rotation
+         * @param r     the row of the tetrad's first block
+         * @param c     the column of the tetrad's first block
+         * @param d     the number of tetrads left to look at
+         * @param from  the fewest turns to search
+         * @param to    one more than the most turns to search
+         */
+        SearchTask(BitBoard brd, int shp, int rot, int r, int c, int d,
+                   int from, int to)
+        {
+            board = brd;
+            shape = shp;
+            rotation = rot;
+            row = r;
+            col = c;
+            depth = d;
+            fromTurns = from;
+            toTurns = to;
+        }
+
+        /**
+         * Searches the rotations, in parallel if this task is
+         * running in a pool.
+         *
+         * @return the best placement, or null if there is none
+         */
+        protected Placement compute()
+        {
+            if (pool != null && toTurns - fromTurns > 1)
+            {
+                int middle = (fromTurns + toTurns) / 2;
+                SearchTask first = new SearchTask(board, shape, rotation, row, col,
+                                                  depth, fromTurns, middle);
+                SearchTask second = new SearchTask(board, shape, rotation, row, col,
+                                                   depth, middle, toTurns);
+                invokeAll(first, second);
+                return Placement.better(first.join(), second.join());
+            }
+            BitBoard scratch = new BitBoard(board);
+            Placement best = null;
+            for (int turns = fromTurns; turns < toTurns; turns++)
+            {
+                best = Placement.better(best, searchRotation(board, scratch, shape,
+                                                             rotation, row, col, turns,
+                                                             depth));
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The test class AutoPlayerTest checks that an AutoPlayer finds the
+ * obvious placement and that searching in parallel finds the same
+ * placement as searching on one thread.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class AutoPlayerTest
+{
+    /**
+     * Creates a board whose bottom four rows are full except
+     * for the last column.
+     *
+     * @return the board
+     */
+    private static BitBoard well()
+    {
+        BitBoard board = new BitBoard(20, 10);
+        for (int r = 16; r < 20; r++)
+        {
+            for (int c = 0; c < 9; c++)
+            {
+                board.put(r, c, 0);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Tests that an I tetrad is dropped into the well.
+     */
+    @Test
+    public void fillsWell()
+    {
+        int shape = TetradTable.indexOf("I");
+        Placement best = new AutoPlayer(new Heuristic()).findBest(well(), shape, 0,
+            TetradTable.getStartRow(shape), TetradTable.getStartCol(shape, 10));
+        assertEquals("findBest fails", 4, best.getRowsCleared());
+        assertEquals("findBest fails", 9, best.getCol());
+    }
+
+    /**
+     * Tests that the parallel search agrees with the sequential one.
+     */
+    @Test
+    public void parallelMatchesSequential()
+    {
+        AutoPlayer sequential = new AutoPlayer(new Heuristic());
+        AutoPlayer parallel = new AutoPlayer(new Heuristic(), new ForkJoinPool(4));
+        BitBoard board = well();
+        board.remove(16, 3);
+        for (int shape = 0; shape < TetradTable.SHAPES.length; shape++)
+        {
+            int row = TetradTable.getStartRow(shape) + AutoPlayer.CLEARANCE;
+            int col = TetradTable.getStartCol(shape, 10);
+            Placement a = sequential.findBest(board, shape, 0, row, col);
+            Placement b = parallel.findBest(board, shape, 0, row, col);
+            assertEquals("findBest fails", a.toString(), b.toString());
+        }
+    }
+
+    /**
+     * Tests that a game played by an AutoPlayer clears rows.
+     */
+    @Test
+    public void playsGame()
+    {
+        TetrisGame game = new TetrisGame(20, 10);
+        AutoPlayer player = new AutoPlayer(new Heuristic());
+        for (int i = 0; i < 2000 && !game.isGameOver(); i++)
+        {
+            player.move(game, game);
+            game.step();
+        }
+        assertTrue("move fails", game.getRowsCleared() > 0);
+    }
+}
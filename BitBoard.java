@@ -0,0 +1,590 @@
+import java.awt.Color;
+import java.util.ArrayList;
+
+/**
+ * BitBoard is a compact version of the playing grid that stores each row
+ * as a single bit mask (bit c is set when column c is occupied) together
+ * with a parallel array of color indices for the occupied cells.
+ * It offers the same operations as MyBoundedGrid, but collision tests,
+ * full row tests, and line clears are done a whole row at a time.
+ *
+ * The color indices are indices into a Palette that all the boards
+ * share, Palette.DEFAULT unless another is given, so a 20 by 10 board
+ * takes a few hundred bytes and has no objects for its cells.  Blocks
+ * are only made when something asks for one, with getBlock or toGrid.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class BitBoard
+{
+    /**
+     * The value returned for a location that is not occupied.
+     */
+    public static final int EMPTY = -1;
+
+    /**
+     * The largest number of columns a BitBoard can have (one long per row).
+     */
+    public static final int MAX_COLS = 64;
+
+    private long[] rowBits;
+    private byte[] colors;
+    private int numCols;
+    private long fullRow;
+    private long hash;
+    private Palette palette;
+
+    /**
+     * Constructs an empty BitBoard with the given dimensions whose
+     * color indices are in Palette.DEFAULT.
+     *
+     * @param rows  the board's number of rows;  rows > 0
+     * @param cols  the board's number of cols;  0 < cols <= MAX_COLS
+     */
+    public BitBoard(int rows, int cols)
+    {
+        this(rows, cols, Palette.DEFAULT);
+    }
+
+    /**
+     * Constructs an empty BitBoard with the given dimensions.
+     *
+     * @param rows  the board's number of rows;  rows > 0
+     * @param cols  the board's number of cols;  0 < cols <= MAX_COLS
+     * @param pal   the palette of the board's color indices
+     */
+    public BitBoard(int rows, int cols, Palette pal)
+    {
+        if (rows <= 0 || cols <= 0 || cols > MAX_COLS)
+        {
+            throw new IllegalArgumentException("invalid board size "
+                                               + rows + "x" + cols);
+        }
+        rowBits = new long[rows];
+        colors = new byte[rows * cols];
+        numCols = cols;
+        palette = pal;
+        if (cols == MAX_COLS)
+        {
+            fullRow = -1L;
+        }
+        else
+        {
+            fullRow = (1L << cols) - 1;
+        }
+    }
+
+    /**
+     * Constructs a BitBoard with the same dimensions and contents as other.
+     *
+     * @param other  the board to copy
+     */
+    public BitBoard(BitBoard other)
+    {
+        rowBits = other.rowBits.clone();
+        colors = other.colors.clone();
+        numCols = other.numCols;
+        fullRow = other.fullRow;
+        hash = other.hash;
+        palette = other.palette;
+    }
+
+    /**
+     * Constructs a BitBoard with the same dimensions as a grid, with
+     * the grid's occupied locations occupied.  A cell holding a Block
+     * gets the index of the Block's color in Palette.DEFAULT, and any
+     * other cell gets color index 0.
+     *
+     * @param grid  the grid to copy;  grid.getNumCols() <= MAX_COLS
+     */
+    public BitBoard(MyBoundedGrid<?> grid)
+    {
+        this(grid.getNumRows(), grid.getNumCols());
+        for (int r = 0; r < grid.getNumRows(); r++)
+        {
+            if (grid.getRowCount(r) == 0)
+            {
+                continue;
+            }
+            for (int c = 0; c < numCols; c++)
+            {
+                Object occupant = grid.get(r, c);
+                if (occupant != null)
+                {
+                    rowBits[r] |= 1L << c;
+                    if (occupant instanceof Block)
+                    {
+                        int color = palette.indexOf(((Block) occupant).getColor());
+                        colors[r * numCols + c] = (byte) Math.max(color, 0);
+                    }
+                }
+            }
+            hash ^= Zobrist.rowKey(r, rowBits[r]);
+        }
+    }
+
+    /**
+     * Makes the contents of this board the same as those of other.
+     *
+     * @precondition other has the same dimensions as this board
+     *
+     * @param other  the board to copy
+     */
+    public void copyFrom(BitBoard other)
+    {
+        System.arraycopy(other.rowBits, 0, rowBits, 0, rowBits.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+        hash = other.hash;
+    }
+
+    /**
+     * Retrieves the number of rows.
+     *
+     * @return the board's row count
+     */
+    public int getNumRows()
+    {
+        return rowBits.length;
+    }
+
+    /**
+     * Retrieves the number of columns.
+     *
+     * @return the board's column count
+     */
+    public int getNumCols()
+    {
+        return numCols;
+    }
+
+    /**
+     * Determines whether a location is valid.
+     *
+     * @param  loc   the location in question.  loc != null
+     * @return true  if loc is valid in this board; otherwise,
+     *         false
+     */
+    public boolean isValid(Location loc)
+    {
+        return isValid(loc.getRow(), loc.getCol());
+    }
+
+    /**
+     * Determines whether a row and column are valid.
+     *
+     * @param row  the row in question
+     * @param col  the column in question
+     * @return true  if (row, col) is valid in this board; otherwise,
+     *         false
+     */
+    public boolean isValid(int row, int col)
+    {
+        return row >= 0 && row < rowBits.length && col >= 0 && col < numCols;
+    }
+
+    /**
+     * Tests whether a cell is occupied.
+     *
+     * @param row  a valid row in this board
+     * @param col  a valid column in this board
+     * @return true if the cell is occupied; otherwise,
+     *         false
+     */
+    public boolean isOccupied(int row, int col)
+    {
+        return (rowBits[row] & (1L << col)) != 0;
+    }
+
+    /**
+     * Retrieves the color index at a location, or EMPTY if the
+     * location is unoccupied.
+     *
+     * @param loc  a valid location in this board
+     * @return the color index at loc or EMPTY
+     */
+    public int get(Location loc)
+    {
+        return get(loc.getRow(), loc.getCol());
+    }
+
+    /**
+     * Retrieves the color index at a cell, or EMPTY if the
+     * cell is unoccupied.
+     *
+     * @param row  a valid row in this board
+     * @param col  a valid column in this board
+     * @return the color index at (row, col) or EMPTY
+     */
+    public int get(int row, int col)
+    {
+        if (!isOccupied(row, col))
+        {
+            return EMPTY;
+        }
+        return colors[row * numCols + col];
+    }
+
+    /**
+     * Retrieves the palette of the board's color indices.
+     *
+     * @return the palette
+     */
+    public Palette getPalette()
+    {
+        return palette;
+    }
+
+    /**
+     * Retrieves the color of a cell, or null if the cell is unoccupied.
+     *
+     * @param row  a valid row in this board
+     * @param col  a valid column in this board
+     * @return the palette color at (row, col) or null
+     */
+    public Color getColor(int row, int col)
+    {
+        int color = get(row, col);
+        if (color == EMPTY)
+        {
+            return null;
+        }
+        return palette.getColor(color);
+    }
+
+    /**
+     * Makes a Block for a cell, for code that works with Blocks.  The
+     * Block is new every time and is not in any grid, so changing it
+     * does not change the board.
+     *
+     * @param row  a valid row in this board
+     * @param col  a valid column in this board
+     * @return a Block of the cell's color, or null if the cell is
+     *         unoccupied
+     */
+    public Block getBlock(int row, int col)
+    {
+        int color = get(row, col);
+        if (color == EMPTY)
+        {
+            return null;
+        }
+        return palette.newBlock(color);
+    }
+
+    /**
+     * Makes a grid of Blocks with the same contents as this board, for
+     * a display or other code that works with a MyBoundedGrid.
+     *
+     * @return a new grid with a new Block in each occupied cell
+     */
+    public MyBoundedGrid<Block> toGrid()
+    {
+        MyBoundedGrid<Block> grid = new MyBoundedGrid<Block>(rowBits.length, numCols);
+        for (int r = 0; r < rowBits.length; r++)
+        {
+            for (long bits = rowBits[r]; bits != 0; bits &= bits - 1)
+            {
+                int c = Long.numberOfTrailingZeros(bits);
+                palette.newBlock(colors[r * numCols + c]).putSelfInGrid(grid,
+                                                                        grid.getLocation(r, c));
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Puts a color index at a location.  Plus returns the color index
+     * previously at that location, or EMPTY if it was unoccupied.
+     *
+     * @param loc    a valid location in this board
+     * @param color  the color index to put at loc;
+     *               0 <= color < getPalette().size()
+     * @return the previous color index at loc or EMPTY
+     */
+    public int put(Location loc, int color)
+    {
+        return put(loc.getRow(), loc.getCol(), color);
+    }
+
+    /**
+     * Puts a color index in a cell.  Plus returns the color index
+     * previously in that cell, or EMPTY if it was unoccupied.
+     *
+     * @param row    a valid row in this board
+     * @param col    a valid column in this board
+     * @param color  the color index to put in the cell;
+     *               0 <= color < getPalette().size()
+     * @return the previous color index in the cell or EMPTY
+     */
+    public int put(int row, int col, int color)
+    {
+        int old = get(row, col);
+        setRowBits(row, rowBits[row] | (1L << col));
+        colors[row * numCols + col] = (byte) color;
+        return old;
+    }
+
+    /**
+     * Removes the color index at a location.  Plus returns the color
+     * index previously at that location, or EMPTY if it was unoccupied.
+     *
+     * @param loc  a valid location in this board
+     * @return the color index that was at loc or EMPTY
+     */
+    public int remove(Location loc)
+    {
+        return remove(loc.getRow(), loc.getCol());
+    }
+
+    /**
+     * Removes the color index in a cell.  Plus returns the color
+     * index previously in that cell, or EMPTY if it was unoccupied.
+     *
+     * @param row  a valid row in this board
+     * @param col  a valid column in this board
+     * @return the color index that was in the cell or EMPTY
+     */
+    public int remove(int row, int col)
+    {
+        int old = get(row, col);
+        setRowBits(row, rowBits[row] & ~(1L << col));
+        return old;
+    }
+
+    /**
+     * Returns all the occupied locations in this board.
+     *
+     * @return all the occupied locations in an array list, in
+     *         row-major order
+     */
+    public ArrayList<Location> getOccupiedLocations()
+    {
+        ArrayList<Location> occupied = new ArrayList<Location>();
+        for (int r = 0; r < rowBits.length; r++)
+        {
+            long bits = rowBits[r];
+            while (bits != 0)
+            {
+                occupied.add(new Location(r, Long.numberOfTrailingZeros(bits)));
+                bits &= bits - 1;
+            }
+        }
+        return occupied;
+    }
+
+    /**
+     * Retrieves the bit mask of the occupied columns in a row.
+     *
+     * @param row  a valid row in this board
+     * @return the mask with bit c set when column c is occupied
+     */
+    public long getRowBits(int row)
+    {
+        return rowBits[row];
+    }
+
+    /**
+     * Tests whether every column of a row is occupied.
+     *
+     * @param row  a valid row in this board
+     * @return true if the row is full; otherwise,
+     *         false
+     */
+    public boolean isRowFull(int row)
+    {
+        return rowBits[row] == fullRow;
+    }
+
+    /**
+     * Tests whether a piece given as one column mask per row fits on
+     * this board, that is every mask is inside the board and does not
+     * overlap any occupied cell.
+     *
+     * @param topRow  the row that masks[0] applies to
+     * @param masks   the column masks of the piece, one per row
+     * @return true if the piece fits; otherwise,
+     *         false
+     */
+    public boolean fits(int topRow, long[] masks)
+    {
+        for (int i = 0; i < masks.length; i++)
+        {
+            long mask = masks[i];
+            if (mask == 0)
+            {
+                continue;
+            }
+            int row = topRow + i;
+            if (row < 0 || row >= rowBits.length || (mask & ~fullRow) != 0
+                    || (rowBits[row] & mask) != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Occupies every cell of a piece given as one column mask per row.
+     *
+     * @precondition fits(topRow, masks)
+     *
+     * @param topRow  the row that masks[0] applies to
+     * @param masks   the column masks of the piece, one per row
+     * @param color   the color index of the piece's cells
+     */
+    public void place(int topRow, long[] masks, int color)
+    {
+        for (int i = 0; i < masks.length; i++)
+        {
+            long mask = masks[i];
+            int row = topRow + i;
+            setRowBits(row, rowBits[row] | mask);
+            int base = row * numCols;
+            while (mask != 0)
+            {
+                colors[base + Long.numberOfTrailingZeros(mask)] = (byte) color;
+                mask &= mask - 1;
+            }
+        }
+    }
+
+    /**
+     * Clears all the full rows and moves the rows above them down,
+     * in a single pass from the bottom of the board to the top.
+     *
+     * @return the number of rows cleared
+     */
+    public int clearFullRows()
+    {
+        int write = rowBits.length - 1;
+        for (int read = rowBits.length - 1; read >= 0; read--)
+        {
+            if (rowBits[read] == fullRow)
+            {
+                continue;
+            }
+            if (write != read)
+            {
+                setRowBits(write, rowBits[read]);
+                System.arraycopy(colors, read * numCols,
+                                 colors, write * numCols, numCols);
+            }
+            write--;
+        }
+        int cleared = write + 1;
+        for (int r = write; r >= 0; r--)
+        {
+            setRowBits(r, 0);
+        }
+        return cleared;
+    }
+
+    /**
+     * Removes everything from this board.
+     */
+    public void clear()
+    {
+        for (int r = 0; r < rowBits.length; r++)
+        {
+            rowBits[r] = 0;
+        }
+        hash = 0;
+    }
+
+    /**
+     * Retrieves the Zobrist hash of the occupied cells of this board.
+     * The hash is kept up to date as cells change, so this takes
+     * constant time.  It does not depend on the color indices, and it
+     * is the same as the hash of a MyBoundedGrid with the same
+     * occupied cells.
+     *
+     * @return the hash of the board
+     */
+    public long getHash()
+    {
+        return hash;
+    }
+
+    /**
+     * Changes the mask of a row and updates the hash to match.
+     *
+     * @param row   a valid row in this board
+     * @param bits  the new mask of the row
+     */
+    private void setRowBits(int row, long bits)
+    {
+        hash ^= Zobrist.rowKey(row, rowBits[row]) ^ Zobrist.rowKey(row, bits);
+        rowBits[row] = bits;
+    }
+
+    /**
+     * Tests whether a tetrad fits on this board with its first block
+     * at (row, col), that is whether all of its blocks would be on
+     * empty cells inside the board.
+     *
+     * @param shape     the index of the tetrad's shape in TetradTable.SHAPES
+     * @param rotation  the tetrad's rotation
+     * @param row       the row of the first block
+     * @param col       the column of the first block
+     * @return true if the tetrad fits; otherwise,
+     *         false
+     */
+    public boolean fits(int shape, int rotation, int row, int col)
+    {
+        int[] rowOffsets = TetradTable.getRowOffsets(shape, rotation);
+        int[] colOffsets = TetradTable.getColOffsets(shape, rotation);
+        for (int i = 0; i < rowOffsets.length; i++)
+        {
+            int r = row + rowOffsets[i];
+            int c = col + colOffsets[i];
+            if (!isValid(r, c) || (rowBits[r] & (1L << c)) != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the lowest row a tetrad can fall to from (row, col).
+     *
+     * @precondition fits(shape, rotation, row, col)
+     *
+     * @param shape     the index of the tetrad's shape in TetradTable.SHAPES
+     * @param rotation  the tetrad's rotation
+     * @param row       the row of the first block
+     * @param col       the column of the first block
+     * @return the row of the first block once the tetrad has landed
+     */
+    public int dropRow(int shape, int rotation, int row, int col)
+    {
+        while (fits(shape, rotation, row + 1, col))
+        {
+            row++;
+        }
+        return row;
+    }
+
+    /**
+     * Occupies the cells of a tetrad with its first block at (row, col).
+     *
+     * @precondition fits(shape, rotation, row, col)
+     *
+     * @param shape     the index of the tetrad's shape in TetradTable.SHAPES
+     * @param rotation  the tetrad's rotation
+     * @param row       the row of the first block
+     * @param col       the column of the first block
+     * @param color     the color index of the tetrad's cells
+     */
+    public void place(int shape, int rotation, int row, int col, int color)
+    {
+        int[] rowOffsets = TetradTable.getRowOffsets(shape, rotation);
+        int[] colOffsets = TetradTable.getColOffsets(shape, rotation);
+        for (int i = 0; i < rowOffsets.length; i++)
+        {
+            put(row + rowOffsets[i], col + colOffsets[i], color);
+        }
+    }
+}
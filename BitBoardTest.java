@@ -0,0 +1,134 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.ArrayList;
+
+/**
+ * The test class BitBoardTest checks that BitBoard behaves like
+ * MyBoundedGrid and that its row operations are correct.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class BitBoardTest
+{
+    /**
+     * Tests getting, putting, and removing, in the same way
+     * BlockTestBaynes tests MyBoundedGrid.
+     */
+    @Test
+    public void getPutRemove()
+    {
+        BitBoard board = new BitBoard(2, 1);
+        assertEquals("getNumRows fails", 2, board.getNumRows());
+        assertEquals("getNumCols fails", 1, board.getNumCols());
+        assertTrue("isValid fails", board.isValid(new Location(1, 0)));
+        assertFalse("isValid fails", board.isValid(new Location(2, 0)));
+        assertFalse("isValid fails", board.isValid(new Location(0, -1)));
+
+        Location loc = new Location(1, 0);
+        assertEquals("get fails", BitBoard.EMPTY, board.get(loc));
+        assertEquals("put fails", BitBoard.EMPTY, board.put(loc, 3));
+        assertEquals("put/get fails", 3, board.get(loc));
+        assertEquals("put fails", 3, board.put(loc, 5));
+        assertEquals("remove fails", 5, board.remove(loc));
+        assertEquals("remove fails", BitBoard.EMPTY, board.remove(loc));
+    }
+
+    /**
+     * Tests getting the occupied locations.
+     */
+    @Test
+    public void occupiedLocations()
+    {
+        BitBoard board = new BitBoard(3, 4);
+        assertEquals("getOccupiedLocations fails", 0,
+                     board.getOccupiedLocations().size());
+        board.put(2, 3, 0);
+        board.put(0, 1, 0);
+        ArrayList<Location> locs = board.getOccupiedLocations();
+        assertEquals("getOccupiedLocations fails", 2, locs.size());
+        assertEquals("getOccupiedLocations fails", new Location(0, 1), locs.get(0));
+        assertEquals("getOccupiedLocations fails", new Location(2, 3), locs.get(1));
+    }
+
+    /**
+     * Tests fitting and placing a piece given as row masks.
+     */
+    @Test
+    public void fitsAndPlace()
+    {
+        BitBoard board = new BitBoard(4, 4);
+        long[] square = {0x3L, 0x3L};
+        assertTrue("fits fails", board.fits(2, square));
+        assertFalse("fits fails below the board", board.fits(3, square));
+        assertFalse("fits fails past the right side",
+                    board.fits(0, new long[] {0x10L}));
+        board.place(2, square, 4);
+        assertEquals("place fails", 4, board.get(3, 1));
+        assertFalse("fits fails on occupied cells", board.fits(1, square));
+    }
+
+    /**
+     * Tests that full rows are cleared and the rows above move down
+     * with their colors.
+     */
+    @Test
+    public void clearFullRows()
+    {
+        BitBoard board = new BitBoard(4, 3);
+        for (int c = 0; c < 3; c++)
+        {
+            board.put(3, c, 1);
+            board.put(1, c, 1);
+        }
+        board.put(2, 0, 2);
+        board.put(0, 2, 6);
+        assertTrue("isRowFull fails", board.isRowFull(3));
+        assertFalse("isRowFull fails", board.isRowFull(2));
+
+        assertEquals("clearFullRows fails", 2, board.clearFullRows());
+        assertEquals("clearFullRows fails", 2, board.get(3, 0));
+        assertEquals("clearFullRows fails", 6, board.get(2, 2));
+        assertEquals("clearFullRows fails", 0L, board.getRowBits(1));
+        assertEquals("clearFullRows fails", 0L, board.getRowBits(0));
+        assertEquals("clearFullRows fails", 2, board.getOccupiedLocations().size());
+
+        BitBoard expected = new BitBoard(4, 3);
+        expected.put(3, 0, 0);
+        expected.put(2, 2, 0);
+        assertEquals("getHash fails", expected.getHash(), board.getHash());
+    }
+
+    /**
+     * Tests that a grid of Blocks becomes color indices in the palette
+     * and comes back as Blocks of the same colors.
+     */
+    @Test
+    public void blocks()
+    {
+        MyBoundedGrid<Block> grid = new MyBoundedGrid<Block>(4, 4);
+        Tetrad tetrad = new Tetrad(grid, 2);
+        new Block().putSelfInGrid(grid, grid.getLocation(3, 3));
+        BitBoard board = new BitBoard(grid);
+        assertSame("getPalette fails", Palette.DEFAULT, board.getPalette());
+        Location first = tetrad.getBlocks()[0].getLocation();
+        assertEquals("BitBoard fails", 2, board.get(first));
+        assertEquals("BitBoard fails", Palette.BLOCK, board.get(3, 3));
+        assertEquals("getColor fails", tetrad.getBlocks()[0].getColor(),
+                     board.getColor(first.getRow(), first.getCol()));
+        assertNull("getBlock fails", board.getBlock(3, 2));
+        assertEquals("getBlock fails", Color.BLUE, board.getBlock(3, 3).getColor());
+        assertNull("getBlock fails", board.getBlock(3, 3).getGrid());
+
+        MyBoundedGrid<Block> copy = board.toGrid();
+        assertEquals("toGrid fails", grid.getHash(), copy.getHash());
+        for (int i = 0; i < grid.getOccupiedLocations().size(); i++)
+        {
+            Location loc = grid.getOccupiedLocations().get(i);
+            assertEquals("toGrid fails", grid.get(loc).getColor(), copy.get(loc).getColor());
+            assertEquals("toGrid fails", loc, copy.get(loc).getLocation());
+        }
+    }
+}
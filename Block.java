@@ -110,6 +110,37 @@ public class Block
         location = loc;
     }
 
+    /**
+     * Updates the location of this block after its grid has moved it,
+     * for example when full rows are removed with removeFullRows.
+     * The grid is not changed.
+     *
+     * @precondition  this block is already at newLocation in its grid
+     *
+     * @param newLocation  the location that the grid moved the block to
+     */
+    void setLocation(Location newLocation)
+    {
+        location = newLocation;
+    }
+
+    /**
+     * Updates the grid and location of this block after a grid has been
+     * returned to a snapshot, which puts the block at newLocation in gr,
+     * or leaves it outside any grid if gr is null.  The grid is not
+     * changed.
+     *
+     * @precondition  this block is already at newLocation in gr
+     *
+     * @param gr           the grid the block is now in, or null
+     * @param newLocation  the block's location in gr, or null
+     */
+    void setLocation(MyBoundedGrid<Block> gr, Location newLocation)
+    {
+        grid = gr;
+        location = newLocation;
+    }
+
     /**
      * Moves this block to newLocation.
      * If there is another block at newLocation, it is removed.
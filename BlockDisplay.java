@@ -1,34 +1,81 @@
 import java.awt.*;
 import java.awt.event.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.swing.*;
+import javax.swing.border.Border;
 
 /**
  * BlockDisplay is used to display the contents of the
  * game board.
  * 
+ * The window is built in the background, so the constructor
+ * returns at once and the game can start while it opens.
+ * Until it is built, showBlocks does nothing, since the board
+ * is drawn when it is, and setTitle only remembers the title;
+ * awaitReady waits for it to be shown.  When Java runs
+ * headless (java.awt.headless=true), no window is made at all.
+ * 
  * @author  Dave Feinberg
  * @author  Richard Page
  * @author  Susan King     Added documentation
  * @version May 13, 2015
  */
-public class BlockDisplay implements KeyListener
+public class BlockDisplay implements KeyListener, GameDisplay
 {
     private static final Color BACKGROUND = Color.BLACK;
 
     private MyBoundedGrid<Block> board;
     private JPanel[][] grid;
+    private Color[] pending;
+    private boolean scheduled;
+    private AtomicLong inputTime;
+    private Border blockBorder;
+    private BoardCanvas canvas;
+    private boolean useCanvas;
     private JFrame frame;
     private ArrowListener listener;
+    private volatile String title;
+    private volatile boolean ready;
+    private CountDownLatch shown;
 
     /**
-     * Constructs a new display for displaying the given board.
+     * Constructs a new display for displaying the given board,
+     * with one panel for each square.
      * 
      * @param brd   the grid on which the game is to be played
      */
     public BlockDisplay(MyBoundedGrid<Block> brd)
+    {
+        this(brd, false);
+    }
+
+    /**
+     * Constructs a new display for displaying the given board.
+     * 
+     * @param brd        the grid on which the game is to be played
+     * @param useCanvas  true to draw the whole board on a single
+     *                   BoardCanvas that only repaints the squares
+     *                   that changed; false to use one panel for
+     *                   each square
+     */
+    public BlockDisplay(MyBoundedGrid<Block> brd, boolean useCanvas)
     {
         this.board = brd;
-        grid = new JPanel[board.getNumRows()][board.getNumCols()];
+        this.useCanvas = useCanvas;
+        title = "";
+        shown = new CountDownLatch(1);
+        if (GraphicsEnvironment.isHeadless())
+        {
+            shown.countDown();
+            return;
+        }
+        if (!useCanvas)
+        {
+            grid = new JPanel[board.getNumRows()][board.getNumCols()];
+            pending = new Color[board.getNumRows() * board.getNumCols()];
+            inputTime = new AtomicLong();
+        }
 
         /* 
          * Schedules a job for the event-dispatching thread, which
@@ -41,20 +88,28 @@ public class BlockDisplay implements KeyListener
                 createAndShowGUI();
             }
         });
+    }
 
-        /*
-         * Waits until display has been drawn.
-         */
-        try
-        {
-            while (frame == null || !frame.isVisible())
-                Thread.sleep(1);
-        }
-        catch(InterruptedException e)
-        {
-            e.printStackTrace();
-            System.exit(1);
-        }
+    /**
+     * Checks if the window has been built.
+     * 
+     * @return true if the window is drawing the board; otherwise,
+     *         false, including when Java runs headless
+     */
+    public boolean isReady()
+    {
+        return ready;
+    }
+
+    /**
+     * Waits until the window has been shown, or returns at once
+     * when Java runs headless.
+     * 
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public void awaitReady() throws InterruptedException
+    {
+        shown.await();
     }
 
     /**
@@ -67,14 +122,43 @@ public class BlockDisplay implements KeyListener
         // Creates and sets up the window.
         frame = new JFrame();
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.getContentPane().setLayout(new GridLayout(board.getNumRows(), board.getNumCols()));
         frame.addKeyListener(this);
 
+        if (useCanvas)
+        {
+            // Creates the one component that draws every square.
+            canvas = new BoardCanvas(board.getNumRows(), board.getNumCols());
+            frame.getContentPane().add(canvas);
+        }
+        else
+        {
+            createSquares();
+        }
+
+        // Shows the board as it is now, which may be well into the game.
+        ready = true;
+        showBlocks();
+        frame.setTitle(title);
+
+        // Displays the window.
+        frame.pack();
+        frame.setVisible(true);
+        shown.countDown();
+    }
+
+    /**
+     * Creates one panel for each square of the board.
+     */
+    private void createSquares()
+    {
+        frame.getContentPane().setLayout(new GridLayout(board.getNumRows(), board.getNumCols()));
+        blockBorder = BorderFactory.createLineBorder(BACKGROUND);
+
         // Creates each square component.
         for (int row = 0; row < grid.length; row++)
             for (int col = 0; col < grid[row].length; col++)
             {
-                grid[row][col] = new JPanel();
+                grid[row][col] = new Square(inputTime);
                 grid[row][col].setBackground(BACKGROUND);
                 grid[row][col].setPreferredSize(new Dimension(20, 20));
                 //JLabel textLabel = new JLabel("" + 123);
@@ -83,61 +167,156 @@ public class BlockDisplay implements KeyListener
                 //grid[row][col].add(button);
                 frame.getContentPane().add(grid[row][col]);
             }
-
-        // Shows the board.
-        showBlocks();
-
-        // Displays the window.
-        frame.pack();
-        frame.setVisible(true);
     }
 
     /**
      * Redraws the board to include the pieces and border colors.
+     * Before the window is shown this does nothing, since the
+     * board is drawn when it is.  This may be called from any
+     * thread:  the board is read on the calling thread, and in
+     * panel mode the panels are then changed on the event
+     * dispatch thread.
      */
     public void showBlocks()
     {
-        for (int row = 0; row < grid.length; row++)
-            for (int col = 0; col < grid[row].length; col++)
+        if (!ready)
+        {
+            return;
+        }
+        long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
+        GameEvents.Frame event = GameEvents.beginFrame();
+        int cells = 0;
+        if (useCanvas)
+        {
+            if (canvas != null)
             {
-                Location loc = new Location(row, col);
+                cells = canvas.update(board);
+            }
+        }
+        else
+        {
+            cells = updateSquares();
+        }
+        if (GameMetrics.ENABLED)
+        {
+            GameMetrics.GLOBAL.recordRender(System.nanoTime() - start);
+        }
+        GameEvents.endFrame(event, cells, useCanvas ? "canvas" : "panels");
+    }
 
-                Block square = board.get(loc);
+    /**
+     * Notes the colors the squares are to show and, if the event
+     * dispatch thread is not already due to, has it bring the panels
+     * up to date, since Swing components may only be changed there.
+     * 
+     * @return the number of squares whose color changed
+     */
+    private int updateSquares()
+    {
+        int count = 0;
+        int cols = board.getNumCols();
+        synchronized (pending)
+        {
+            for (int row = 0; row < grid.length; row++)
+                for (int col = 0; col < cols; col++)
+                {
+                    Block square = board.get(row, col);
+                    Color color = null;
+                    if (square != null)
+                    {
+                        color = square.getColor();
+                    }
+                    int i = row * cols + col;
+                    if (color == null ? pending[i] != null : !color.equals(pending[i]))
+                    {
+                        pending[i] = color;
+                        count++;
+                    }
+                }
+            if (count > 0 && !scheduled)
+            {
+                scheduled = true;
+                SwingUtilities.invokeLater(new Runnable()
+                {
+                    public void run()
+                    {
+                        paintSquares();
+                    }
+                });
+            }
+        }
+        return count;
+    }
 
-                if (square == null)
+    /**
+     * Sets the color of each square's panel to the color it is to
+     * show.  This runs on the event dispatch thread.
+     */
+    private void paintSquares()
+    {
+        Color[] colors;
+        synchronized (pending)
+        {
+            scheduled = false;
+            colors = pending.clone();
+        }
+        int cols = board.getNumCols();
+        for (int row = 0; row < grid.length; row++)
+            for (int col = 0; col < cols; col++)
+            {
+                Color color = colors[row * cols + col];
+                if (color == null)
                 {
-                    //JButton button = new JButton("");
-                    //button.setBackground(BACKGROUND);
-                    //button.setBorder(null);
-                    //grid[row][col].add(button);
-                    while (!grid[row][col].getBackground().equals(BACKGROUND))
+                    if (!grid[row][col].getBackground().equals(BACKGROUND))
                     {
                         grid[row][col].setBackground(BACKGROUND);
                         grid[row][col].setBorder(null);
                     }
                 }
-                else
+                else if (!grid[row][col].getBackground().equals(color))
                 {
-                    //JButton button = new JButton(""+123);
-                    //grid[row][col].add(button);
-                    while (!grid[row][col].getBackground().equals(square.getColor()))
-                    {
-                        grid[row][col].setBackground(square.getColor());
-                        grid[row][col].setBorder(BorderFactory.createLineBorder(BACKGROUND));
-                    }
+                    grid[row][col].setBackground(color);
+                    grid[row][col].setBorder(blockBorder);
                 }
             }
     }
 
     /**
-     * Sets the title of the window.
+     * Redraws the board when the game it shows changes.
+     * 
+     * @param game  the game that changed
+     */
+    public void gameChanged(TetrisGame game)
+    {
+        showBlocks();
+    }
+
+    /**
+     * Sets the title of the window.  This may be called from any
+     * thread;  the window's title is changed on the event
+     * dispatch thread.
      * 
      * @param title  the information to be placed at the
      *               top of the window
      */
     public void setTitle(String title)
     {
-        frame.setTitle(title);
+        if (title.equals(this.title))
+        {
+            return;
+        }
+        this.title = title;
+        if (ready)
+        {
+            SwingUtilities.invokeLater(new Runnable()
+            {
+                public void run()
+                {
+                    // the latest title, if another was set meanwhile
+                    frame.setTitle(BlockDisplay.this.title);
+                }
+            });
+        }
     }
 
     /**
@@ -173,6 +352,10 @@ public class BlockDisplay implements KeyListener
     {
         if (listener == null)
             return;
+        if (GameMetrics.ENABLED && canvas != null)
+            canvas.markInput(System.nanoTime());
+        else if (GameMetrics.ENABLED && inputTime != null)
+            inputTime.compareAndSet(0, System.nanoTime());
             
         int code = e.getKeyCode();
         if (code == KeyEvent.VK_LEFT)
@@ -195,4 +378,45 @@ public class BlockDisplay implements KeyListener
     {
         this.listener = lstener;
     }
+
+    /**
+     * A square of the board in panel mode.  Like BoardCanvas, it
+     * records in GameMetrics the time from a key being pressed to
+     * the next paint.
+     */
+    private static class Square extends JPanel
+    {
+        private static final long serialVersionUID = 1L;
+
+        private AtomicLong inputTime;
+
+        /**
+         * Constructs a square.
+         * 
+         * @param time  when the key that is waiting for a paint was
+         *              pressed, or 0;  shared by all the squares
+         */
+        Square(AtomicLong time)
+        {
+            inputTime = time;
+        }
+
+        /**
+         * Paints the square.
+         * 
+         * @param g  the graphics to paint with
+         */
+        protected void paintComponent(Graphics g)
+        {
+            super.paintComponent(g);
+            if (GameMetrics.ENABLED)
+            {
+                long pressed = inputTime.getAndSet(0);
+                if (pressed != 0)
+                {
+                    GameMetrics.GLOBAL.recordInputToPaint(System.nanoTime() - pressed);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,39 @@
+import static org.junit.Assert.*;
+import org.junit.Assume;
+import org.junit.Test;
+import java.awt.GraphicsEnvironment;
+
+/**
+ * The test class BlockDisplayTest checks that a BlockDisplay can be
+ * used without a window when Java runs headless, which it does when
+ * there is no screen or java.awt.headless is true.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class BlockDisplayTest
+{
+    /**
+     * Tests that a headless display is ready at once and ignores what
+     * it is asked to show.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void headless() throws InterruptedException
+    {
+        // with a screen, the display opens a window instead
+        Assume.assumeTrue(GraphicsEnvironment.isHeadless());
+        TetrisGame game = new TetrisGame(20, 10, new PieceGenerator(1L, PieceGenerator.BAG, 1));
+        long start = System.nanoTime();
+        BlockDisplay display = new BlockDisplay(game.getGrid(), true);
+        display.awaitReady();
+        assertTrue("BlockDisplay fails", System.nanoTime() - start < 1000000000L);
+        assertFalse("isReady fails", display.isReady());
+        display.setTitle("Tetris");
+        display.setArrowListener(game);
+        game.addObserver(display);
+        game.step();
+        display.showBlocks();
+    }
+}
@@ -0,0 +1,163 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.*;
+
+/**
+ * BoardCanvas draws a whole board as a single component.  The board
+ * is kept in an image, and each update only redraws the cells whose
+ * color changed since the last update, and only repaints the part
+ * of the component that holds them.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class BoardCanvas extends JComponent
+{
+    private static final long serialVersionUID = 1L;
+    private static final Color BACKGROUND = Color.BLACK;
+    private static final int CELL_SIZE = 20;
+
+    private BufferedImage image;
+    private int rows;
+    private int cols;
+    private Color[] shown;
+    private int[] dirty;
+    private AtomicLong inputTime;
+
+    /**
+     * Constructs a canvas for a board with the given dimensions.
+     *
+     * @param numRows  the board's number of rows
+     * @param numCols  the board's number of columns
+     */
+    public BoardCanvas(int numRows, int numCols)
+    {
+        rows = numRows;
+        cols = numCols;
+        shown = new Color[rows * cols];
+        dirty = new int[rows * cols];
+        image = new BufferedImage(cols * CELL_SIZE, rows * CELL_SIZE,
+                                  BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(BACKGROUND);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.dispose();
+        setPreferredSize(new Dimension(image.getWidth(), image.getHeight()));
+        setOpaque(true);
+        setDoubleBuffered(false);
+        inputTime = new AtomicLong();
+    }
+
+    /**
+     * Notes that a key was pressed, so that the time until the next
+     * paint is recorded in GameMetrics.  If a key is already waiting
+     * for a paint, the earlier one is kept.
+     *
+     * @param nanos  the System.nanoTime when the key was pressed
+     */
+    public void markInput(long nanos)
+    {
+        inputTime.compareAndSet(0, nanos);
+    }
+
+    /**
+     * Brings the image up to date with a board and repaints the
+     * cells that changed.  This may be called from any thread.
+     *
+     * @param board  the board to draw;  it has the canvas's dimensions
+     *
+     * @return the number of cells that were redrawn
+     */
+    public int update(MyBoundedGrid<Block> board)
+    {
+        int count = 0;
+        int minRow = rows;
+        int maxRow = -1;
+        int minCol = cols;
+        int maxCol = -1;
+        synchronized (image)
+        {
+            for (int r = 0; r < rows; r++)
+            {
+                for (int c = 0; c < cols; c++)
+                {
+                    Block square = board.get(r, c);
+                    Color color = null;
+                    if (square != null)
+                    {
+                        color = square.getColor();
+                    }
+                    int i = r * cols + c;
+                    if (color == null ? shown[i] != null : !color.equals(shown[i]))
+                    {
+                        shown[i] = color;
+                        dirty[count] = i;
+                        count++;
+                        minRow = Math.min(minRow, r);
+                        maxRow = Math.max(maxRow, r);
+                        minCol = Math.min(minCol, c);
+                        maxCol = Math.max(maxCol, c);
+                    }
+                }
+            }
+            if (count == 0)
+            {
+                return 0;
+            }
+            Graphics2D g = image.createGraphics();
+            for (int k = 0; k < count; k++)
+            {
+                drawCell(g, dirty[k] / cols, dirty[k] % cols, shown[dirty[k]]);
+            }
+            g.dispose();
+        }
+        repaint(minCol * CELL_SIZE, minRow * CELL_SIZE,
+                (maxCol - minCol + 1) * CELL_SIZE, (maxRow - minRow + 1) * CELL_SIZE);
+        return count;
+    }
+
+    /**
+     * Draws one cell into the image, with a border in the
+     * background color if it holds a block.
+     *
+     * @param g      the graphics of the image
+     * @param row    the row of the cell
+     * @param col    the column of the cell
+     * @param color  the color of the block in the cell, or null
+     *               if the cell is empty
+     */
+    private void drawCell(Graphics2D g, int row, int col, Color color)
+    {
+        int x = col * CELL_SIZE;
+        int y = row * CELL_SIZE;
+        g.setColor(BACKGROUND);
+        g.fillRect(x, y, CELL_SIZE, CELL_SIZE);
+        if (color != null)
+        {
+            g.setColor(color);
+            g.fillRect(x + 1, y + 1, CELL_SIZE - 2, CELL_SIZE - 2);
+        }
+    }
+
+    /**
+     * Paints the part of the image that needs painting.
+     *
+     * @param g  the graphics to paint with
+     */
+    protected void paintComponent(Graphics g)
+    {
+        synchronized (image)
+        {
+            g.drawImage(image, 0, 0, null);
+        }
+        if (GameMetrics.ENABLED)
+        {
+            long pressed = inputTime.getAndSet(0);
+            if (pressed != 0)
+            {
+                GameMetrics.GLOBAL.recordInputToPaint(System.nanoTime() - pressed);
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * CommandQueue passes arrow key commands from the threads that receive
+ * them (such as the event-dispatching thread) to the thread that runs
+ * the game, without locks.  Any number of threads may add commands by
+ * calling the ArrowListener methods, but only the game thread may take
+ * them out, which it does in a batch with drainTo at the start of a tick.
+ * The queue is bounded; commands that arrive when it is full are dropped.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class CommandQueue implements ArrowListener
+{
+    /**
+     * The command for the up arrow.
+     */
+    public static final int UP = 0;
+
+    /**
+     * The command for the down arrow.
+     */
+    public static final int DOWN = 1;
+
+    /**
+     * The command for the left arrow.
+     */
+    public static final int LEFT = 2;
+
+    /**
+     * The command for the right arrow.
+     */
+    public static final int RIGHT = 3;
+
+    /**
+     * The value poll returns when the queue is empty.
+     */
+    public static final int NONE = -1;
+
+    private int[] commands;
+    private AtomicLongArray sequences;
+    private AtomicLong tail;
+    private long head;
+    private int mask;
+
+    /**
+     * Constructs an empty queue.
+     *
+     * @param capacity  the most commands the queue can hold; it is
+     *                  rounded up to a power of two
+     */
+    public CommandQueue(int capacity)
+    {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        commands = new int[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++)
+        {
+            sequences.set(i, i);
+        }
+        tail = new AtomicLong();
+        mask = size - 1;
+    }
+
+    /**
+     * Adds a command to the queue.  This may be called from any thread.
+     *
+     * @param command  the command to add, such as UP
+     *
+     * @return true if the command was added; false if the queue was full
+     */
+    public boolean offer(int command)
+    {
+        while (true)
+        {
+            long position = tail.get();
+            int slot = (int) (position & mask);
+            long sequence = sequences.get(slot);
+            if (sequence == position)
+            {
+                // the slot is free; claim it before writing to it
+                if (tail.compareAndSet(position, position + 1))
+                {
+                    commands[slot] = command;
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+            }
+            else if (sequence < position)
+            {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest command out of the queue.  This must only be
+     * called from the thread that runs the game.
+     *
+     * @return the oldest command, or NONE if the queue is empty
+     */
+    public int poll()
+    {
+        int slot = (int) (head & mask);
+        if (sequences.get(slot) != head + 1)
+        {
+            return NONE;
+        }
+        int command = commands[slot];
+        sequences.set(slot, head + commands.length);
+        head++;
+        return command;
+    }
+
+    /**
+     * Takes every command out of the queue and applies it to a
+     * listener, in the order they were added.  This must only be
+     * called from the thread that runs the game.
+     *
+     * @param target  the listener the commands are applied to
+     *
+     * @return the number of commands applied
+     */
+    public int drainTo(ArrowListener target)
+    {
+        int count = 0;
+        int command = poll();
+        while (command != NONE)
+        {
+            apply(command, target);
+            count++;
+            command = poll();
+        }
+        return count;
+    }
+
+    /**
+     * Applies a command to a listener.
+     *
+     * @param command  the command, such as UP
+     * @param target   the listener the command is applied to
+     */
+    public static void apply(int command, ArrowListener target)
+    {
+        if (command == UP)
+            target.upPressed();
+        else if (command == DOWN)
+            target.downPressed();
+        else if (command == LEFT)
+            target.leftPressed();
+        else if (command == RIGHT)
+            target.rightPressed();
+    }
+
+    /**
+     * Adds the command for the up arrow.
+     */
+    public void upPressed()
+    {
+        offer(UP);
+    }
+
+    /**
+     * Adds the command for the down arrow.
+     */
+    public void downPressed()
+    {
+        offer(DOWN);
+    }
+
+    /**
+     * Adds the command for the left arrow.
+     */
+    public void leftPressed()
+    {
+        offer(LEFT);
+    }
+
+    /**
+     * Adds the command for the right arrow.
+     */
+    public void rightPressed()
+    {
+        offer(RIGHT);
+    }
+}
@@ -0,0 +1,124 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * The test class CommandQueueTest checks that commands come out
+ * of a CommandQueue in order and that none are lost when several
+ * threads add them at once.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class CommandQueueTest
+{
+    /**
+     * Tests that commands come out in the order they were added
+     * and that a full queue drops commands.
+     */
+    @Test
+    public void orderAndCapacity()
+    {
+        CommandQueue queue = new CommandQueue(4);
+        assertEquals("poll fails", CommandQueue.NONE, queue.poll());
+        queue.leftPressed();
+        queue.upPressed();
+        queue.rightPressed();
+        queue.downPressed();
+        assertFalse("offer fails when full", queue.offer(CommandQueue.UP));
+        assertEquals("poll fails", CommandQueue.LEFT, queue.poll());
+        assertEquals("poll fails", CommandQueue.UP, queue.poll());
+        assertTrue("offer fails", queue.offer(CommandQueue.LEFT));
+        assertEquals("poll fails", CommandQueue.RIGHT, queue.poll());
+        assertEquals("poll fails", CommandQueue.DOWN, queue.poll());
+        assertEquals("poll fails", CommandQueue.LEFT, queue.poll());
+        assertEquals("poll fails", CommandQueue.NONE, queue.poll());
+    }
+
+    /**
+     * Tests that drainTo applies the commands to a listener.
+     */
+    @Test
+    public void drainTo()
+    {
+        MyBoundedGrid<Block> grid = new MyBoundedGrid<Block>(20, 10);
+        final Tetrad tetrad = new Tetrad(grid, "T");
+        CommandQueue queue = new CommandQueue(8);
+        queue.rightPressed();
+        queue.rightPressed();
+        queue.downPressed();
+        int applied = queue.drainTo(new ArrowListener()
+        {
+            public void upPressed()
+            {
+                tetrad.rotate();
+            }
+
+            public void downPressed()
+            {
+                tetrad.translate(1, 0);
+            }
+
+            public void leftPressed()
+            {
+                tetrad.translate(0, -1);
+            }
+
+            public void rightPressed()
+            {
+                tetrad.translate(0, 1);
+            }
+        });
+        assertEquals("drainTo fails", 3, applied);
+        assertEquals("drainTo fails", new Location(1, 6),
+                     tetrad.getBlocks()[0].getLocation());
+    }
+
+    /**
+     * Tests that every command added by several threads at once
+     * comes out exactly once.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void manyProducers() throws InterruptedException
+    {
+        final CommandQueue queue = new CommandQueue(64);
+        final int perThread = 20000;
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++)
+        {
+            final int command = t;
+            producers[t] = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    for (int i = 0; i < perThread; i++)
+                    {
+                        while (!queue.offer(command))
+                        {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+            producers[t].start();
+        }
+        int[] counts = new int[producers.length];
+        int total = 0;
+        while (total < perThread * producers.length)
+        {
+            int command = queue.poll();
+            if (command != CommandQueue.NONE)
+            {
+                counts[command]++;
+                total++;
+            }
+        }
+        for (int t = 0; t < producers.length; t++)
+        {
+            producers[t].join();
+            assertEquals("offer/poll fails", perThread, counts[t]);
+        }
+        assertEquals("poll fails", CommandQueue.NONE, queue.poll());
+    }
+}
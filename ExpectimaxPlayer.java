@@ -0,0 +1,287 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * ExpectimaxPlayer is an AutoPlayer that looks ahead at the tetrads that
+ * may come next.  A placement of the current tetrad is worth the rows it
+ * clears plus the average, over the seven shapes a new Tetrad picks from
+ * with equal chance, of the best placement of that shape, and so on down
+ * to the search depth, where the board is scored by the heuristic.
+ *
+ * The averages are stored in a TranspositionTable under the hash of the
+ * board, so a board reached by placing tetrads in a different order is
+ * not searched again.  When the player has a ForkJoinPool, the seven
+ * shapes of each average are searched in parallel.  To keep a search
+ * three tetrads deep within a frame, only the placements the heuristic
+ * alone likes best (the beam) are looked ahead from.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class ExpectimaxPlayer extends AutoPlayer
+{
+    /**
+     * The score of a board on which the next tetrad has no room,
+     * which ends the game.
+     */
+    public static final double LOSS = -1.0e6;
+
+    /**
+     * The number of placements looked ahead from when no beam is given.
+     */
+    public static final int DEFAULT_BEAM = 5;
+
+    private int depth;
+    private int beam;
+    private TranspositionTable table;
+
+    /**
+     * Constructs a player.
+     *
+     * @param h      the heuristic that scores the boards at the bottom
+     *               of the search
+     * @param p      the pool the search runs in, or null to search on
+     *               the calling thread
+     * @param d      the number of tetrads to look at, counting the
+     *               current one;  d >= 1
+     * @param t      the table the averages are stored in
+     */
+    public ExpectimaxPlayer(Heuristic h, ForkJoinPool p, int d, TranspositionTable t)
+    {
+        this(h, p, d, t, DEFAULT_BEAM);
+    }
+
+    /**
+     * Constructs a player with a given beam.
+     *
+     * @param h      the heuristic that scores the boards at the bottom
+     *               of the search
+     * @param p      the pool the search runs in, or null to search on
+     *               the calling thread
+     * @param d      the number of tetrads to look at, counting the
+     *               current one;  d >= 1
+     * @param t      the table the averages are stored in
+     * @param b      the number of placements of each tetrad to look
+     *               ahead from, or 0 to look ahead from all of them
+     */
+    public ExpectimaxPlayer(Heuristic h, ForkJoinPool p, int d, TranspositionTable t, int b)
+    {
+        super(h, p);
+        depth = d;
+        table = t;
+        beam = b;
+    }
+
+    /**
+     * Retrieves the number of tetrads the search looks at, counting
+     * the one being placed.
+     *
+     * @return the depth of the search
+     */
+    public int getDepth()
+    {
+        return depth;
+    }
+
+    /**
+     * Retrieves the table the averages are stored in.
+     *
+     * @return the transposition table
+     */
+    public TranspositionTable getTable()
+    {
+        return table;
+    }
+
+    /**
+     * Finds the best placement for a tetrad on a board.  Each call
+     * starts a new generation in the table.
+     *
+     * @param board     the board, without the tetrad on it
+     * @param shape     the index of the tetrad's shape in TetradTable.SHAPES
+     * @param rotation  the tetrad's current rotation
+     * @param row       the row of the tetrad's first block
+     * @param col       the column of the tetrad's first block
+     *
+     * @return the best placement, or null if the tetrad cannot move
+     */
+    public Placement findBest(BitBoard board, int shape, int rotation, int row, int col)
+    {
+        table.nextGeneration();
+        return super.findBest(board, shape, rotation, row, col);
+    }
+
+    /**
+     * Finds the best placement for a tetrad.  When there are tetrads
+     * left to look at, only the beam placements the heuristic scores
+     * highest are looked ahead from.
+     *
+     * @param board     the board, without the tetrad on it
+     * @param shape     the index of the tetrad's shape in TetradTable.SHAPES
+     * @param rotation  the tetrad's current rotation
+     * @param row       the row of the tetrad's first block
+     * @param col       the column of the tetrad's first block
+     * @param d         the number of tetrads left to look at, counting
+     *                  this one
+     *
+     * @return the best placement, or null if the tetrad cannot move
+     */
+    protected Placement search(BitBoard board, int shape, int rotation,
+                               int row, int col, int d)
+    {
+        if (beam == 0 || d < 2)
+        {
+            return super.search(board, shape, rotation, row, col, d);
+        }
+        Placement[] candidates = new Placement[TetradTable.ROTATIONS * board.getNumCols()];
+        int count = listPlacements(board, shape, rotation, row, col, candidates);
+        int kept = Math.min(beam, count);
+        for (int i = 0; i < kept; i++)
+        {
+            // move the best of the rest to position i
+            int top = i;
+            for (int j = i + 1; j < count; j++)
+            {
+                if (Placement.better(candidates[top], candidates[j]) == candidates[j])
+                {
+                    top = j;
+                }
+            }
+            Placement temp = candidates[i];
+            candidates[i] = candidates[top];
+            candidates[top] = temp;
+        }
+
+        BitBoard scratch = new BitBoard(board);
+        Placement best = null;
+        for (int i = 0; i < kept; i++)
+        {
+            Placement candidate = candidates[i];
+            scratch.copyFrom(board);
+            scratch.place(shape, candidate.getRotation(), candidate.getRow(),
+                          candidate.getCol(), shape);
+            scratch.clearFullRows();
+            double score = score(scratch, candidate.getRowsCleared(), d);
+            best = Placement.better(best, new Placement(candidate.getRotation(),
+                candidate.getRow(), candidate.getCol(), candidate.getRowsCleared(), score));
+        }
+        return best;
+    }
+
+    /**
+     * Scores a placement by the rows it cleared plus the average
+     * score of the tetrads that may come next.
+     *
+     * @param board        the board after the tetrad was placed and
+     *                     the full rows were cleared
+     * @param rowsCleared  the number of rows the placement cleared
+     * @param d            the number of tetrads left to look at,
+     *                     counting the one that was just placed
+     *
+     * @return the score of the placement; higher is better
+     */
+    protected double score(BitBoard board, int rowsCleared, int d)
+    {
+        if (d <= 1)
+        {
+            return super.score(board, rowsCleared, d);
+        }
+        return getHeuristic().getLinesWeight() * rowsCleared + average(board, d - 1);
+    }
+
+    /**
+     * Finds the average score of the best placement of the next tetrad
+     * over all the shapes it may have.
+     *
+     * @param board  the board the next tetrad appears on
+     * @param d      the number of tetrads left to look at
+     *
+     * @return the average score
+     */
+    private double average(BitBoard board, int d)
+    {
+        long hash = board.getHash();
+        double value = table.get(hash, d);
+        if (!Double.isNaN(value))
+        {
+            return value;
+        }
+        int shapes = TetradTable.SHAPES.length;
+        double total = invoke(new ShapeTask(board, d, 0, shapes));
+        value = total / shapes;
+        table.put(hash, d, value);
+        return value;
+    }
+
+    /**
+     * Retrieves the score of a placement, counting no placement as a loss.
+     *
+     * @param placement  a placement, or null
+     *
+     * @return the placement's score, or LOSS if it is null
+     */
+    private static double valueOf(Placement placement)
+    {
+        if (placement == null)
+        {
+            return LOSS;
+        }
+        return placement.getScore();
+    }
+
+    /**
+     * ShapeTask adds up the scores of the best placements of a range of
+     * shapes, splitting the range in two until each task has a single
+     * shape.
+     */
+    private class ShapeTask extends RecursiveTask<Double>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private BitBoard board;
+        private int depth;
+        private int fromShape;
+        private int toShape;
+
+        /**
+         * Constructs a task that searches the shapes from through to - 1.
+         *
+         * @param brd   the board the tetrad appears on
+         * @param d     the number of tetrads left to look at
+         * @param from  the index of the first shape
+         * @param to    one more than the index of the last shape
+         */
+        ShapeTask(BitBoard brd, int d, int from, int to)
+        {
+            board = brd;
+            depth = d;
+            fromShape = from;
+            toShape = to;
+        }
+
+        /**
+         * Searches the placements of the shapes, in parallel if the
+         * player has a pool.
+         *
+         * @return the total of the best scores, counting LOSS for a
+         *         shape with no room
+         */
+        protected Double compute()
+        {
+            if (getPool() != null && toShape - fromShape > 1)
+            {
+                int middle = (fromShape + toShape) / 2;
+                ShapeTask first = new ShapeTask(board, depth, fromShape, middle);
+                ShapeTask second = new ShapeTask(board, depth, middle, toShape);
+                invokeAll(first, second);
+                return first.join() + second.join();
+            }
+            double total = 0;
+            for (int shape = fromShape; shape < toShape; shape++)
+            {
+                total += valueOf(searchNew(board, shape, depth));
+            }
+            return total;
+        }
+    }
+}
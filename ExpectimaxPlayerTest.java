@@ -0,0 +1,70 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The test class ExpectimaxPlayerTest checks that an ExpectimaxPlayer
+ * finds the obvious placement, fills its transposition table, and
+ * searches the same in parallel as on one thread.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class ExpectimaxPlayerTest
+{
+    /**
+     * Creates a board whose bottom four rows are full except
+     * for the last column.
+     *
+     * @return the board
+     */
+    private static BitBoard well()
+    {
+        BitBoard board = new BitBoard(20, 10);
+        for (int r = 16; r < 20; r++)
+        {
+            for (int c = 0; c < 9; c++)
+            {
+                board.put(r, c, 0);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Tests that an I tetrad is dropped into the well and that the
+     * averages of the next tetrads are stored in the table.
+     */
+    @Test
+    public void fillsWell()
+    {
+        TranspositionTable table = new TranspositionTable(1 << 12);
+        ExpectimaxPlayer player = new ExpectimaxPlayer(new Heuristic(), null, 2, table);
+        int shape = TetradTable.indexOf("I");
+        Placement best = player.findBest(well(), shape, 0, 3, 4);
+        assertEquals("findBest fails", 4, best.getRowsCleared());
+        assertEquals("findBest fails", 9, best.getCol());
+        assertFalse("findBest fails", Double.isNaN(table.get(0L, 1)));
+    }
+
+    /**
+     * Tests that the parallel search agrees with the sequential one.
+     */
+    @Test
+    public void parallelMatchesSequential()
+    {
+        BitBoard board = well();
+        board.remove(16, 3);
+        for (int beam = 0; beam <= ExpectimaxPlayer.DEFAULT_BEAM; beam += ExpectimaxPlayer.DEFAULT_BEAM)
+        {
+            ExpectimaxPlayer sequential = new ExpectimaxPlayer(new Heuristic(), null, 2,
+                new TranspositionTable(1 << 12), beam);
+            ExpectimaxPlayer parallel = new ExpectimaxPlayer(new Heuristic(), new ForkJoinPool(4), 2,
+                new TranspositionTable(1 << 12), beam);
+            int shape = TetradTable.indexOf("T");
+            Placement a = sequential.findBest(board, shape, 0, 2, 4);
+            Placement b = parallel.findBest(board, shape, 0, 2, 4);
+            assertEquals("findBest fails", a.toString(), b.toString());
+        }
+    }
+}
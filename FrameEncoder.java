@@ -0,0 +1,282 @@
+import java.nio.ByteBuffer;
+
+/**
+ * FrameEncoder turns a game into frames that keep a RemoteBoard the
+ * same as the game.  It remembers the board it last described, and each
+ * BOARD frame only holds the rows whose bit masks or colors have changed
+ * since then, found by comparing the grid's row masks with its own.  A
+ * KEYFRAME holds the whole board, so it can be applied to a RemoteBoard
+ * that has seen nothing before it.  Every frame is preceded by its
+ * length as two bytes, and the rest of it starts with its type:
+ *
+ * START:      the number of rows and columns as varints.
+ * BOARD:      the points, the level, and the number of changed rows as
+ *             varints, then for each changed row its index and the mask
+ *             of its occupied columns as varints and a byte for each
+ *             occupied column with the index of its color in
+ *             Palette.DEFAULT.
+ * KEYFRAME:   the number of rows and columns as varints followed by a
+ *             BOARD frame's contents with every row that is not empty.
+ * GAME_OVER:  the final points as a varint.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class FrameEncoder
+{
+    /**
+     * The type of the frame that starts an empty board.
+     */
+    public static final int START = 'S';
+
+    /**
+     * The type of the frame with the rows that changed.
+     */
+    public static final int BOARD = 'B';
+
+    /**
+     * The type of the frame with the whole board.
+     */
+    public static final int KEYFRAME = 'K';
+
+    /**
+     * The type of the last frame of a game.
+     */
+    public static final int GAME_OVER = 'O';
+
+    private BitBoard shown;
+    private int shownPoints;
+    private int shownLevel;
+    private int[] changed;
+
+    /**
+     * Constructs an encoder for a game whose board starts out empty.
+     *
+     * @param rows  the number of rows of the game's grid
+     * @param cols  the number of columns of the game's grid;  cols <= 64
+     */
+    public FrameEncoder(int rows, int cols)
+    {
+        shown = new BitBoard(rows, cols);
+        shownLevel = 1;
+        changed = new int[rows];
+    }
+
+    /**
+     * Calculates the most bytes the frames about one change can take:
+     * a START, a KEYFRAME or BOARD, and a GAME_OVER frame.
+     *
+     * @param rows  the number of rows of the grid
+     * @param cols  the number of columns of the grid
+     *
+     * @return the number of bytes a buffer must have room for
+     */
+    public static int maxFramesSize(int rows, int cols)
+    {
+        return rows * (cols + 12) + 64;
+    }
+
+    /**
+     * Writes a START frame.  The encoder does not change, so this should
+     * come before anything else is written.
+     *
+     * @param out  where to write the frame
+     */
+    public void writeStart(ByteBuffer out)
+    {
+        int at = beginFrame(out, START);
+        Replay.writeVarint(out, shown.getNumRows());
+        Replay.writeVarint(out, shown.getNumCols());
+        endFrame(out, at);
+    }
+
+    /**
+     * Writes a BOARD frame if the game has changed since the last frame
+     * written.
+     *
+     * @param out   where to write the frame
+     * @param game  the game
+     *
+     * @return true if a frame was written; otherwise,
+     *         false
+     */
+    public boolean writeDelta(ByteBuffer out, TetrisGame game)
+    {
+        MyBoundedGrid<Block> grid = game.getGrid();
+        int count = 0;
+        for (int r = 0; r < changed.length; r++)
+        {
+            if (isChanged(grid, r))
+            {
+                changed[count] = r;
+                count++;
+            }
+        }
+        if (count == 0 && game.getPoints() == shownPoints && game.getLevel() == shownLevel)
+        {
+            return false;
+        }
+        int at = beginFrame(out, BOARD);
+        writeRows(out, game, count);
+        endFrame(out, at);
+        return true;
+    }
+
+    /**
+     * Writes a KEYFRAME with the whole board.
+     *
+     * @param out   where to write the frame
+     * @param game  the game
+     */
+    public void writeKeyframe(ByteBuffer out, TetrisGame game)
+    {
+        MyBoundedGrid<Block> grid = game.getGrid();
+        int at = beginFrame(out, KEYFRAME);
+        Replay.writeVarint(out, shown.getNumRows());
+        Replay.writeVarint(out, shown.getNumCols());
+        int count = 0;
+        for (int r = 0; r < changed.length; r++)
+        {
+            if (grid.getRowMask(r) != 0)
+            {
+                changed[count] = r;
+                count++;
+            }
+            else
+            {
+                setRow(r, 0);
+            }
+        }
+        writeRows(out, game, count);
+        endFrame(out, at);
+    }
+
+    /**
+     * Writes a GAME_OVER frame.
+     *
+     * @param out   where to write the frame
+     * @param game  the game
+     */
+    public void writeGameOver(ByteBuffer out, TetrisGame game)
+    {
+        int at = beginFrame(out, GAME_OVER);
+        Replay.writeVarint(out, game.getPoints());
+        endFrame(out, at);
+    }
+
+    /**
+     * Tests whether a row differs from the one last written.
+     *
+     * @param grid  the game's grid
+     * @param row   a valid row in the grid
+     *
+     * @return true if the row's cells or colors changed; otherwise,
+     *         false
+     */
+    private boolean isChanged(MyBoundedGrid<Block> grid, int row)
+    {
+        long mask = grid.getRowMask(row);
+        if (mask != shown.getRowBits(row))
+        {
+            return true;
+        }
+        for (long bits = mask; bits != 0; bits &= bits - 1)
+        {
+            int c = Long.numberOfTrailingZeros(bits);
+            Block block = grid.get(row, c);
+            if (block.getColor() != shown.getColor(row, c) && colorOf(block) != shown.get(row, c))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the points, the level, and the rows listed in changed, and
+     * remembers them as written.
+     *
+     * @param out    where to write them
+     * @param game   the game
+     * @param count  the number of rows listed in changed
+     */
+    private void writeRows(ByteBuffer out, TetrisGame game, int count)
+    {
+        MyBoundedGrid<Block> grid = game.getGrid();
+        Replay.writeVarint(out, game.getPoints());
+        Replay.writeVarint(out, game.getLevel());
+        Replay.writeVarint(out, count);
+        for (int i = 0; i < count; i++)
+        {
+            int row = changed[i];
+            long mask = grid.getRowMask(row);
+            Replay.writeVarint(out, row);
+            Replay.writeVarint(out, mask);
+            setRow(row, mask);
+            for (long bits = mask; bits != 0; bits &= bits - 1)
+            {
+                int c = Long.numberOfTrailingZeros(bits);
+                int color = colorOf(grid.get(row, c));
+                out.put((byte) color);
+                shown.put(row, c, color);
+            }
+        }
+        shownPoints = game.getPoints();
+        shownLevel = game.getLevel();
+    }
+
+    /**
+     * Empties the cells of a row that are not in a mask.
+     *
+     * @param row   a valid row
+     * @param mask  the columns to keep
+     */
+    private void setRow(int row, long mask)
+    {
+        for (long bits = shown.getRowBits(row) & ~mask; bits != 0; bits &= bits - 1)
+        {
+            shown.remove(row, Long.numberOfTrailingZeros(bits));
+        }
+    }
+
+    /**
+     * Finds the palette index of a block's color.
+     *
+     * @param block  the block
+     *
+     * @return the index of its color in Palette.DEFAULT, or
+     *         Palette.BLOCK for a color that is not in it
+     */
+    private static int colorOf(Block block)
+    {
+        int color = Palette.DEFAULT.indexOf(block.getColor());
+        return color < 0 ? Palette.BLOCK : color;
+    }
+
+    /**
+     * Starts a frame, leaving room for its length.
+     *
+     * @param out   where to write the frame
+     * @param type  the type of the frame
+     *
+     * @return the position of the frame's length
+     */
+    private static int beginFrame(ByteBuffer out, int type)
+    {
+        int at = out.position();
+        out.putShort((short) 0);
+        out.put((byte) type);
+        return at;
+    }
+
+    /**
+     * Ends a frame by filling in its length.
+     *
+     * @param out  where the frame was written
+     * @param at   the position of the frame's length
+     */
+    private static void endFrame(ByteBuffer out, int at)
+    {
+        out.putShort(at, (short) (out.position() - at - 2));
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * GameDisplay establishes the methods of anything that shows a
+ * game board and takes the arrow keys, such as the window of a
+ * BlockDisplay or the text of a TerminalDisplay.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public interface GameDisplay extends GameObserver
+{
+    /**
+     * Redraws the board so that it shows the blocks in the grid.
+     */
+    void showBlocks();
+
+    /**
+     * Sets the title shown with the board.
+     *
+     * @param title  the information to be shown above the board
+     */
+    void setTitle(String title);
+
+    /**
+     * Establishes the class that is told when an arrow key is pressed.
+     *
+     * @param listener  the listener for the arrow keys
+     */
+    void setArrowListener(ArrowListener listener);
+}
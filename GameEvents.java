@@ -0,0 +1,295 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * GameEvents holds the Java Flight Recorder events of the game, so that
+ * a recording shows what the game was doing next to the samples taken
+ * at the same time:  which tetrad was spawned, where it locked, how long
+ * clearing rows took, when the level went up, and how long each redraw
+ * of the board took and how many cells it changed.  The events are in
+ * the Tetris category, and a recording with the default settings has
+ * them all.
+ *
+ * The game records them through the static methods here, which do
+ * nothing until the Flight Recorder has been started, for example with
+ * -XX:StartFlightRecording or jcmd.  Loading the first event class
+ * starts the recorder's machinery, which takes a few hundred
+ * milliseconds, so the event classes are not even loaded until then.
+ * After that, an event that is not being recorded costs almost nothing,
+ * and fields that take work to fill in are only filled in when the
+ * event will be committed.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public final class GameEvents
+{
+    /**
+     * There are no GameEvents, only the events in it.
+     */
+    private GameEvents()
+    {
+    }
+
+    /**
+     * Checks if the Flight Recorder has been started in this JVM.
+     *
+     * @return true if events may be recorded; otherwise,
+     *         false
+     */
+    public static boolean isStarted()
+    {
+        return FlightRecorder.isInitialized();
+    }
+
+    /**
+     * Records a Spawn event.
+     *
+     * @param tetrad  the tetrad that was spawned
+     */
+    public static void spawn(Tetrad tetrad)
+    {
+        if (!isStarted())
+        {
+            return;
+        }
+        Spawn event = new Spawn();
+        if (event.shouldCommit())
+        {
+            event.shape = tetrad.getShape();
+            event.blocked = tetrad.wasBlocked();
+            event.commit();
+        }
+    }
+
+    /**
+     * Records a Lock event.
+     *
+     * @param tetrad  the tetrad that was locked, still in the
+     *                locations it was locked in
+     */
+    public static void lock(Tetrad tetrad)
+    {
+        if (!isStarted())
+        {
+            return;
+        }
+        Lock event = new Lock();
+        if (event.shouldCommit())
+        {
+            Block[] blocks = tetrad.getBlocks();
+            StringBuilder cells = new StringBuilder();
+            for (int i = 0; i < blocks.length; i++)
+            {
+                cells.append(blocks[i].getLocation());
+            }
+            event.shape = tetrad.getShape();
+            event.cells = cells.toString();
+            event.dropDistance = Math.max(0, tetrad.getPivotRow()
+                - TetradTable.getStartRow(tetrad.getShapeIndex()));
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts timing a Clear event.
+     *
+     * @return the event, to be passed to endClear, or null if the
+     *         Flight Recorder has not been started
+     */
+    public static Clear beginClear()
+    {
+        if (!isStarted())
+        {
+            return null;
+        }
+        Clear event = new Clear();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes timing a Clear event and records it.
+     *
+     * @param event   the event from beginClear, or null
+     * @param rows    the number of rows cleared
+     * @param top     the highest row that was checked
+     * @param bottom  the lowest row that was checked
+     */
+    public static void endClear(Clear event, int rows, int top, int bottom)
+    {
+        if (event == null)
+        {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit())
+        {
+            event.rows = rows;
+            event.top = top;
+            event.bottom = bottom;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records a LevelChange event.
+     *
+     * @param level   the new level
+     * @param points  the points when the level changed
+     */
+    public static void levelChange(int level, int points)
+    {
+        if (!isStarted())
+        {
+            return;
+        }
+        LevelChange event = new LevelChange();
+        if (event.shouldCommit())
+        {
+            event.level = level;
+            event.points = points;
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts timing a Frame event.
+     *
+     * @return the event, to be passed to endFrame, or null if the
+     *         Flight Recorder has not been started
+     */
+    public static Frame beginFrame()
+    {
+        if (!isStarted())
+        {
+            return null;
+        }
+        Frame event = new Frame();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes timing a Frame event and records it.
+     *
+     * @param event    the event from beginFrame, or null
+     * @param cells    the number of cells repainted
+     * @param display  how the board is drawn:  "canvas" on a
+     *                 BoardCanvas, "panels" with one panel per square,
+     *                 or "terminal" on a TerminalDisplay
+     */
+    public static void endFrame(Frame event, int cells, String display)
+    {
+        if (event == null)
+        {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit())
+        {
+            event.cells = cells;
+            event.display = display;
+            event.commit();
+        }
+    }
+
+    /**
+     * A Spawn event is recorded when a new tetrad enters the grid.
+     */
+    @Name("tetris.Spawn")
+    @Label("Tetrad Spawn")
+    @Category("Tetris")
+    @Description("A new tetrad entered the grid")
+    public static class Spawn extends Event
+    {
+        @Label("Shape")
+        String shape;
+
+        @Label("Blocked")
+        @Description("The tetrad did not fit, which ends the game")
+        boolean blocked;
+    }
+
+    /**
+     * A Lock event is recorded when the active tetrad stops falling and
+     * becomes part of the grid.
+     */
+    @Name("tetris.Lock")
+    @Label("Piece Lock")
+    @Category("Tetris")
+    @Description("The active tetrad was locked in place")
+    public static class Lock extends Event
+    {
+        @Label("Shape")
+        String shape;
+
+        @Label("Cells")
+        @Description("The locations the tetrad was locked in")
+        String cells;
+
+        @Label("Drop Distance")
+        @Description("The number of rows the tetrad fell from where it spawned")
+        int dropDistance;
+    }
+
+    /**
+     * A Clear event covers the time spent clearing the completed rows
+     * after a tetrad locks, whether or not any were completed.
+     */
+    @Name("tetris.Clear")
+    @Label("Line Clear")
+    @Category("Tetris")
+    @Description("The completed rows were cleared")
+    public static class Clear extends Event
+    {
+        @Label("Rows Cleared")
+        int rows;
+
+        @Label("Top Row")
+        @Description("The highest row that was checked")
+        int top;
+
+        @Label("Bottom Row")
+        @Description("The lowest row that was checked")
+        int bottom;
+    }
+
+    /**
+     * A LevelChange event is recorded when the game goes up a level.
+     */
+    @Name("tetris.LevelChange")
+    @Label("Level Change")
+    @Category("Tetris")
+    public static class LevelChange extends Event
+    {
+        @Label("Level")
+        @Description("The new level")
+        int level;
+
+        @Label("Points")
+        int points;
+    }
+
+    /**
+     * A Frame event covers one call of showBlocks on a BlockDisplay or
+     * a TerminalDisplay.
+     */
+    @Name("tetris.Frame")
+    @Label("Frame")
+    @Category("Tetris")
+    @Description("The board was redrawn")
+    public static class Frame extends Event
+    {
+        @Label("Cells Repainted")
+        int cells;
+
+        @Label("Display")
+        @Description("How the board was drawn: canvas, panels, or terminal")
+        String display;
+    }
+}
@@ -0,0 +1,121 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * The test class GameEventsTest checks that a flight recording of a game
+ * has its spawn, lock, clear, and frame events with the right fields.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class GameEventsTest
+{
+    /**
+     * Tests that every tetrad is spawned, locked, and followed by a
+     * clear, and that the cleared rows add up to the game's.
+     *
+     * @throws Exception if the recording cannot be written or read
+     */
+    @Test
+    public void recording() throws Exception
+    {
+        Path file = Files.createTempFile("tetris", ".jfr");
+        List<RecordedEvent> events;
+        TetrisGame game;
+        try (Recording recording = new Recording())
+        {
+            recording.enable("tetris.Spawn");
+            recording.enable("tetris.Lock");
+            recording.enable("tetris.Clear");
+            recording.start();
+            game = new TetrisGame(20, 10, new PieceGenerator(5L, PieceGenerator.BAG, 1));
+            AutoPlayer player = new AutoPlayer(new Heuristic());
+            for (int i = 0; i < 200 && !game.isGameOver(); i++)
+            {
+                player.move(game, game);
+                game.step();
+            }
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+        finally
+        {
+            Files.deleteIfExists(file);
+        }
+        int spawns = 0;
+        int locks = 0;
+        int rows = 0;
+        for (RecordedEvent event : events)
+        {
+            String name = event.getEventType().getName();
+            if (name.equals("tetris.Spawn"))
+            {
+                spawns++;
+                assertEquals("Spawn fails", 1, event.getString("shape").length());
+            }
+            else if (name.equals("tetris.Lock"))
+            {
+                locks++;
+                assertTrue("Lock fails", event.getInt("dropDistance") >= 0);
+                assertEquals("Lock fails", 4, event.getString("cells").split("\\)").length);
+            }
+            else if (name.equals("tetris.Clear"))
+            {
+                rows += event.getInt("rows");
+                assertTrue("Clear fails", event.getInt("top") <= event.getInt("bottom"));
+            }
+        }
+        assertTrue("Lock fails", locks > 0);
+        assertEquals("Spawn fails", locks + 1, spawns);
+        assertEquals("Clear fails", game.getRowsCleared(), rows);
+    }
+
+    /**
+     * Tests that a TerminalDisplay records a Frame event for each
+     * redraw, with the number of cells it drew.
+     *
+     * @throws Exception if the recording cannot be written or read
+     */
+    @Test
+    public void terminalFrames() throws Exception
+    {
+        Path file = Files.createTempFile("tetris", ".jfr");
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording())
+        {
+            recording.enable("tetris.Frame");
+            recording.start();
+            TetrisGame game = new TetrisGame(20, 10, new PieceGenerator(5L, PieceGenerator.BAG, 1));
+            TerminalDisplay display = new TerminalDisplay(game.getGrid(), null,
+                                                          new ByteArrayOutputStream());
+            display.showBlocks();
+            display.showBlocks();
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+        finally
+        {
+            Files.deleteIfExists(file);
+        }
+        int frames = 0;
+        for (RecordedEvent event : events)
+        {
+            if (event.getEventType().getName().equals("tetris.Frame"))
+            {
+                assertEquals("Frame fails", "terminal", event.getString("display"));
+                assertEquals("Frame fails", frames == 0 ? 4 : 0, event.getInt("cells"));
+                frames++;
+            }
+        }
+        assertEquals("Frame fails", 2, frames);
+    }
+}
@@ -0,0 +1,286 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameLoop runs a TetrisGame in real time.  The game is simulated in
+ * fixed ticks of 1/60 of a second, measured with System.nanoTime, so
+ * the speed does not drift however long each tick takes.  Each tick
+ * adds the level's gravity (in rows per tick) to a running total and
+ * the tetrad falls one row for every whole row in it, so at high levels
+ * it falls many rows in a single tick.  The game is rendered at its
+ * own frame rate, on the same thread as the simulation.  Arrow keys
+ * can be passed in through a CommandQueue, which is drained at the
+ * start of each tick, so the game is only ever changed on one thread.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class GameLoop
+{
+    /**
+     * The number of simulation ticks per second.
+     */
+    public static final int TICKS_PER_SECOND = 60;
+
+    /**
+     * The length of a simulation tick in nanoseconds.
+     */
+    public static final long TICK_NANOS = 1000000000L / TICKS_PER_SECOND;
+
+    /**
+     * The most ticks that are simulated at once to catch up after
+     * a stall; any more are dropped so the game does not lurch.
+     */
+    private static final int MAX_CATCH_UP = 5;
+
+    private TetrisGame game;
+    private CommandQueue commands;
+    private Runnable renderer;
+    private long frameNanos;
+    private ScheduledExecutorService executor;
+    private CountDownLatch finished;
+    private long lastTime;
+    private long lag;
+    private ReplayRecorder recorder;
+    private double fall;
+    private volatile RuntimeException failure;
+
+    /**
+     * Constructs a loop for a game.
+     *
+     * @param gm               the game to run
+     * @param render           what to run to show the game, for example
+     *                         a display's showBlocks
+     * @param framesPerSecond  how many times per second to render;
+     *                         framesPerSecond > 0
+     */
+    public GameLoop(TetrisGame gm, Runnable render, int framesPerSecond)
+    {
+        this(gm, null, render, framesPerSecond);
+    }
+
+    /**
+     * Constructs a loop for a game that takes its arrow keys
+     * from a queue.
+     *
+     * @param gm               the game to run
+     * @param cmds             the queue that the arrow keys are added to,
+     *                         or null if there is none
+     * @param render           what to run to show the game, for example
+     *                         a display's showBlocks
+     * @param framesPerSecond  how many times per second to render;
+     *                         framesPerSecond > 0
+     */
+    public GameLoop(TetrisGame gm, CommandQueue cmds, Runnable render,
+                    int framesPerSecond)
+    {
+        game = gm;
+        commands = cmds;
+        renderer = render;
+        frameNanos = 1000000000L / framesPerSecond;
+        finished = new CountDownLatch(1);
+    }
+
+    /**
+     * Calculates how many rows a tetrad falls in each tick at a level,
+     * using the curve from the Tetris guideline: one row per second at
+     * level 1, speeding up until it falls the whole grid at once (20G).
+     *
+     * @param level  the level;  level >= 1
+     *
+     * @return the number of rows per tick, which may be less than 1
+     */
+    public static double gravity(int level)
+    {
+        double base = 0.8 - (level - 1) * 0.007;
+        if (base <= 0)
+        {
+            return Double.MAX_VALUE;
+        }
+        return 1.0 / (Math.pow(base, level - 1) * TICKS_PER_SECOND);
+    }
+
+    /**
+     * Records the game while it runs.  The arrow keys and gravity
+     * steps go through the recorder, and its clock follows the ticks.
+     * This must be called before start.
+     *
+     * @param rec  the recorder of the game, or null to stop recording
+     */
+    public void setRecorder(ReplayRecorder rec)
+    {
+        recorder = rec;
+    }
+
+    /**
+     * Starts running the game on its own thread.  If a tick or a
+     * render throws an exception, it is reported on System.err and
+     * the loop stops, rather than the thread dying silently and
+     * leaving the game frozen.
+     */
+    public void start()
+    {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        lastTime = System.nanoTime();
+        executor.scheduleAtFixedRate(new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    tick();
+                }
+                catch (RuntimeException e)
+                {
+                    fail(e);
+                }
+            }
+        }, TICK_NANOS, TICK_NANOS, TimeUnit.NANOSECONDS);
+        executor.scheduleAtFixedRate(new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    renderer.run();
+                }
+                catch (RuntimeException e)
+                {
+                    fail(e);
+                }
+            }
+        }, 0, frameNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops running the game.
+     */
+    public void stop()
+    {
+        if (executor != null)
+        {
+            executor.shutdown();
+        }
+        finished.countDown();
+    }
+
+    /**
+     * Waits until the game is over or the loop is stopped, which it
+     * also is when a tick or a render fails, and then until the tick
+     * or render that was running has returned.  After this the loop
+     * no longer touches the game or the display, so the caller may.
+     *
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public void awaitGameOver() throws InterruptedException
+    {
+        finished.await();
+        if (executor != null)
+        {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns the exception that stopped the loop.
+     *
+     * @return the exception thrown by a tick or a render, or null if
+     *         none has been
+     */
+    public RuntimeException getFailure()
+    {
+        return failure;
+    }
+
+    /**
+     * Reports an exception thrown by a tick or a render and stops
+     * the loop.
+     *
+     * @param e  the exception
+     */
+    private void fail(RuntimeException e)
+    {
+        if (failure == null)
+        {
+            failure = e;
+            System.err.println("game loop stopped: " + e);
+        }
+        stop();
+    }
+
+    /**
+     * Applies the arrow keys that have been pressed, then simulates
+     * all the ticks that are due since the last time this was called.
+     */
+    private void tick()
+    {
+        long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
+        if (commands != null)
+        {
+            if (recorder != null)
+            {
+                commands.drainTo(recorder);
+            }
+            else
+            {
+                commands.drainTo(game);
+            }
+        }
+        long now = System.nanoTime();
+        lag += now - lastTime;
+        lastTime = now;
+        int ticks = 0;
+        while (lag >= TICK_NANOS && ticks < MAX_CATCH_UP)
+        {
+            simulate();
+            lag -= TICK_NANOS;
+            ticks++;
+        }
+        if (lag >= TICK_NANOS)
+        {
+            lag %= TICK_NANOS;
+        }
+        if (GameMetrics.ENABLED)
+        {
+            GameMetrics.GLOBAL.recordTick(System.nanoTime() - start);
+        }
+        if (game.isGameOver())
+        {
+            renderer.run();
+            stop();
+        }
+    }
+
+    /**
+     * Simulates one tick by letting the tetrad fall the whole
+     * rows that gravity has built up.
+     */
+    private void simulate()
+    {
+        if (recorder != null)
+        {
+            recorder.tick();
+        }
+        fall += gravity(game.getLevel());
+        if (fall >= 1)
+        {
+            int rows = (int) Math.min(fall, game.getGrid().getNumRows());
+            fall -= rows;
+            if (fall >= 1)
+            {
+                // more than the grid's height is never carried over
+                fall = 0;
+            }
+            if (recorder != null)
+            {
+                recorder.step(rows);
+            }
+            else
+            {
+                game.step(rows);
+            }
+        }
+    }
+}
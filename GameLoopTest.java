@@ -0,0 +1,108 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The test class GameLoopTest checks that a GameLoop stops, rather
+ * than hanging, when a tick or a render throws an exception, and that
+ * awaitGameOver returns only once the loop has stopped running.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class GameLoopTest
+{
+    /**
+     * Tests that a failing render stops the loop.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test(timeout = 5000)
+    public void renderFails() throws InterruptedException
+    {
+        final IllegalStateException thrown = new IllegalStateException("render");
+        GameLoop loop = new GameLoop(new TetrisGame(20, 10), new Runnable()
+        {
+            private int frames;
+
+            public void run()
+            {
+                frames++;
+                if (frames == 3)
+                {
+                    throw thrown;
+                }
+            }
+        }, 60);
+        loop.start();
+        loop.awaitGameOver();
+        assertSame("getFailure fails", thrown, loop.getFailure());
+    }
+
+    /**
+     * Tests that a failing tick stops the loop.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test(timeout = 5000)
+    public void tickFails() throws InterruptedException
+    {
+        final IllegalStateException thrown = new IllegalStateException("tick");
+        TetrisGame game = new TetrisGame(20, 10);
+        game.addObserver(new GameObserver()
+        {
+            public void gameChanged(TetrisGame changed)
+            {
+                throw thrown;
+            }
+        });
+        CommandQueue commands = new CommandQueue(16);
+        GameLoop loop = new GameLoop(game, commands, new Runnable()
+        {
+            public void run()
+            {
+            }
+        }, 60);
+        commands.leftPressed();
+        loop.start();
+        loop.awaitGameOver();
+        assertSame("getFailure fails", thrown, loop.getFailure());
+        assertFalse("awaitGameOver fails", game.isGameOver());
+    }
+
+    /**
+     * Tests that awaitGameOver waits for a render that is running
+     * when the loop is stopped.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test(timeout = 5000)
+    public void stopWaitsForRender() throws InterruptedException
+    {
+        final CountDownLatch rendering = new CountDownLatch(1);
+        final AtomicBoolean inside = new AtomicBoolean();
+        GameLoop loop = new GameLoop(new TetrisGame(20, 10), new Runnable()
+        {
+            public void run()
+            {
+                inside.set(true);
+                rendering.countDown();
+                try
+                {
+                    Thread.sleep(100);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                inside.set(false);
+            }
+        }, 60);
+        loop.start();
+        rendering.await();
+        loop.stop();
+        loop.awaitGameOver();
+        assertFalse("awaitGameOver fails", inside.get());
+    }
+}
@@ -0,0 +1,288 @@
+import java.io.PrintStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GameMetrics measures how the game runs:  histograms of how long ticks,
+ * row clears, and renders take and of how long it takes from a key
+ * being pressed to the next paint of the board, and counts of the
+ * tetrads spawned, rows cleared, and levels gained.
+ *
+ * The metrics are only kept when the program is run with
+ * -Dtetris.metrics=true.  Every place that measures something checks
+ * ENABLED first, and since it is a constant the checks and everything
+ * inside them are compiled away when it is false, so the game does not
+ * even read the clock for them.  The measurements then go to GLOBAL.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class GameMetrics
+{
+    /**
+     * Whether metrics are kept, from the system property tetris.metrics.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("tetris.metrics");
+
+    /**
+     * The metrics of this program, or null if they are not ENABLED.
+     */
+    public static final GameMetrics GLOBAL = ENABLED ? new GameMetrics() : null;
+
+    private LatencyHistogram tick;
+    private LatencyHistogram clear;
+    private LatencyHistogram render;
+    private LatencyHistogram inputToPaint;
+    private AtomicLong piecesSpawned;
+    private AtomicLong linesCleared;
+    private AtomicLong levelUps;
+    private ScheduledExecutorService logger;
+
+    /**
+     * Constructs metrics with nothing recorded.
+     */
+    public GameMetrics()
+    {
+        tick = new LatencyHistogram();
+        clear = new LatencyHistogram();
+        render = new LatencyHistogram();
+        inputToPaint = new LatencyHistogram();
+        piecesSpawned = new AtomicLong();
+        linesCleared = new AtomicLong();
+        levelUps = new AtomicLong();
+    }
+
+    /**
+     * Records how long a tick of the game took.
+     *
+     * @param nanos  the duration in nanoseconds
+     */
+    public void recordTick(long nanos)
+    {
+        tick.record(nanos);
+    }
+
+    /**
+     * Records how long clearing the completed rows took.
+     *
+     * @param nanos  the duration in nanoseconds
+     */
+    public void recordClear(long nanos)
+    {
+        clear.record(nanos);
+    }
+
+    /**
+     * Records how long drawing the board took.
+     *
+     * @param nanos  the duration in nanoseconds
+     */
+    public void recordRender(long nanos)
+    {
+        render.record(nanos);
+    }
+
+    /**
+     * Records how long it took from a key being pressed until the board
+     * was next painted.
+     *
+     * @param nanos  the duration in nanoseconds
+     */
+    public void recordInputToPaint(long nanos)
+    {
+        inputToPaint.record(nanos);
+    }
+
+    /**
+     * Counts a tetrad that was spawned.
+     */
+    public void countPiece()
+    {
+        piecesSpawned.incrementAndGet();
+    }
+
+    /**
+     * Counts cleared rows.
+     *
+     * @param rows  the number of rows cleared at once
+     */
+    public void countLines(int rows)
+    {
+        linesCleared.addAndGet(rows);
+    }
+
+    /**
+     * Counts a level gained.
+     */
+    public void countLevelUp()
+    {
+        levelUps.incrementAndGet();
+    }
+
+    /**
+     * Takes a copy of the metrics as they are now.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot()
+    {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Starts printing a snapshot on a line of its own at a fixed rate, on
+     * a daemon thread, until stopLogging is called.
+     *
+     * @param out     where to print
+     * @param period  the time between lines;  period > 0
+     * @param unit    the unit of period
+     */
+    public synchronized void startLogging(final PrintStream out, long period, TimeUnit unit)
+    {
+        stopLogging();
+        logger = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+        {
+            public Thread newThread(Runnable r)
+            {
+                Thread thread = new Thread(r, "GameMetrics");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        logger.scheduleAtFixedRate(new Runnable()
+        {
+            public void run()
+            {
+                out.println(snapshot());
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Stops printing snapshots.
+     */
+    public synchronized void stopLogging()
+    {
+        if (logger != null)
+        {
+            logger.shutdown();
+            logger = null;
+        }
+    }
+
+    /**
+     * A Snapshot is a copy of the metrics at one time, which does not
+     * change when more are recorded.
+     */
+    public static final class Snapshot
+    {
+        private LatencyHistogram tick;
+        private LatencyHistogram clear;
+        private LatencyHistogram render;
+        private LatencyHistogram inputToPaint;
+        private long piecesSpawned;
+        private long linesCleared;
+        private long levelUps;
+
+        /**
+         * Constructs a snapshot of metrics.
+         *
+         * @param metrics  the metrics to copy
+         */
+        private Snapshot(GameMetrics metrics)
+        {
+            tick = metrics.tick.copy();
+            clear = metrics.clear.copy();
+            render = metrics.render.copy();
+            inputToPaint = metrics.inputToPaint.copy();
+            piecesSpawned = metrics.piecesSpawned.get();
+            linesCleared = metrics.linesCleared.get();
+            levelUps = metrics.levelUps.get();
+        }
+
+        /**
+         * Retrieves the durations of the ticks.
+         *
+         * @return a histogram of the ticks
+         */
+        public LatencyHistogram getTick()
+        {
+            return tick;
+        }
+
+        /**
+         * Retrieves the durations of the row clears.
+         *
+         * @return a histogram of the row clears
+         */
+        public LatencyHistogram getClear()
+        {
+            return clear;
+        }
+
+        /**
+         * Retrieves the durations of the renders.
+         *
+         * @return a histogram of the renders
+         */
+        public LatencyHistogram getRender()
+        {
+            return render;
+        }
+
+        /**
+         * Retrieves the times from key presses to paints.
+         *
+         * @return a histogram of the times
+         */
+        public LatencyHistogram getInputToPaint()
+        {
+            return inputToPaint;
+        }
+
+        /**
+         * Retrieves the number of tetrads spawned.
+         *
+         * @return the number of tetrads
+         */
+        public long getPiecesSpawned()
+        {
+            return piecesSpawned;
+        }
+
+        /**
+         * Retrieves the number of rows cleared.
+         *
+         * @return the number of rows
+         */
+        public long getLinesCleared()
+        {
+            return linesCleared;
+        }
+
+        /**
+         * Retrieves the number of levels gained.
+         *
+         * @return the number of levels
+         */
+        public long getLevelUps()
+        {
+            return levelUps;
+        }
+
+        /**
+         * Describes the snapshot on one line.
+         *
+         * @return the counts followed by each histogram
+         */
+        public String toString()
+        {
+            return "metrics pieces=" + piecesSpawned + " lines=" + linesCleared
+                + " levelups=" + levelUps + " | tick " + tick + " | clear " + clear
+                + " | render " + render + " | input-to-paint " + inputToPaint;
+        }
+    }
+}
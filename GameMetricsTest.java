@@ -0,0 +1,105 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * The test class GameMetricsTest checks that a LatencyHistogram finds
+ * percentiles to within its precision, also when several threads record
+ * at once, and that GameMetrics snapshots do not change afterwards.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class GameMetricsTest
+{
+    /**
+     * Tests that every value is in a bucket whose highest value is
+     * within the histogram's precision of it.
+     */
+    @Test
+    public void buckets()
+    {
+        long[] values = {0, 1, 63, 64, 65, 1000, 123456789, Long.MAX_VALUE};
+        for (int i = 0; i < values.length; i++)
+        {
+            int bucket = LatencyHistogram.bucketOf(values[i]);
+            long highest = LatencyHistogram.highestIn(bucket);
+            assertTrue("bucketOf fails", highest >= values[i]);
+            assertTrue("bucketOf fails", highest - values[i] <= values[i] / 32);
+            if (bucket > 0)
+            {
+                assertTrue("bucketOf fails", LatencyHistogram.highestIn(bucket - 1) < values[i]);
+            }
+        }
+    }
+
+    /**
+     * Tests the percentiles, the mean, and the maximum of the durations
+     * recorded by several threads at once.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void percentiles() throws InterruptedException
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals("getValueAtPercentile fails", 0, histogram.getValueAtPercentile(50));
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++)
+        {
+            threads[t] = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    for (int i = 1; i <= 10000; i++)
+                    {
+                        histogram.record(i * 1000L);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++)
+        {
+            threads[t].join();
+        }
+        assertEquals("record fails", 40000, histogram.getCount());
+        assertEquals("getMax fails", 10000000, histogram.getMax());
+        assertEquals("getMean fails", 5000500, histogram.getMean(), 1);
+        assertEquals("getValueAtPercentile fails", 5000000,
+                     histogram.getValueAtPercentile(50), 5000000 / 32);
+        assertEquals("getValueAtPercentile fails", 9900000,
+                     histogram.getValueAtPercentile(99), 9900000 / 32);
+        assertEquals("getValueAtPercentile fails", 10000000, histogram.getValueAtPercentile(100));
+        assertEquals("getValueAtPercentile fails", 1000, histogram.getValueAtPercentile(0),
+                     1000 / 32);
+    }
+
+    /**
+     * Tests that a snapshot holds the counts and durations recorded
+     * before it was taken and none recorded after.
+     */
+    @Test
+    public void snapshot()
+    {
+        GameMetrics metrics = new GameMetrics();
+        metrics.countPiece();
+        metrics.countPiece();
+        metrics.countLines(3);
+        metrics.countLevelUp();
+        metrics.recordTick(2000000);
+        metrics.recordRender(500000);
+        GameMetrics.Snapshot snapshot = metrics.snapshot();
+        metrics.countPiece();
+        metrics.recordTick(4000000);
+
+        assertEquals("snapshot fails", 2, snapshot.getPiecesSpawned());
+        assertEquals("snapshot fails", 3, snapshot.getLinesCleared());
+        assertEquals("snapshot fails", 1, snapshot.getLevelUps());
+        assertEquals("snapshot fails", 1, snapshot.getTick().getCount());
+        assertEquals("snapshot fails", 2000000, snapshot.getTick().getMax());
+        assertEquals("snapshot fails", 1, snapshot.getRender().getCount());
+        assertEquals("snapshot fails", 0, snapshot.getInputToPaint().getCount());
+        assertTrue("toString fails", snapshot.toString().contains("pieces=2"));
+        assertEquals("snapshot fails", 3, metrics.snapshot().getPiecesSpawned());
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * GameObserver establishes the method that is called when
+ * the state of a TetrisGame changes, so that a display
+ * (or anything else) can follow the game without the game
+ * depending on it.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public interface GameObserver
+{
+    /**
+     * Responds to a change in the game, such as a move of the
+     * active tetrad, a gravity step, or cleared rows.
+     *
+     * @param game  the game that changed
+     */
+    void gameChanged(TetrisGame game);
+}
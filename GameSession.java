@@ -0,0 +1,216 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * GameSession is one headless game played by a client of a
+ * SessionServer.  The server's I/O thread passes the client's keys to
+ * receive, and a scheduler thread calls tick once per game tick, which
+ * applies the keys and gravity like GameLoop and sends the client a
+ * frame (see FrameEncoder) with the rows of the board that changed
+ * since the last frame it was sent.  If the client is too slow to take
+ * a frame, the frames are skipped until it catches up; since each frame
+ * holds every change since the last one sent, the client's board still
+ * ends up right.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class GameSession
+{
+    /**
+     * The key a client sends to end its game.
+     */
+    public static final int QUIT = 'Q';
+
+    /**
+     * The keys a client sends for the arrows, in the order of the
+     * CommandQueue codes.
+     */
+    private static final byte[] KEYS = {'U', 'D', 'L', 'R'};
+
+    private TetrisGame game;
+    private SocketChannel channel;
+    private CommandQueue commands;
+    private double fall;
+    private FrameEncoder encoder;
+    private boolean started;
+    private boolean ended;
+    private ByteBuffer out;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a session.
+     *
+     * @param gm  the game, which must have at most 64 columns
+     * @param ch  the client's channel, in non-blocking mode, or null to
+     *            only use writeFrames
+     */
+    public GameSession(TetrisGame gm, SocketChannel ch)
+    {
+        game = gm;
+        channel = ch;
+        commands = new CommandQueue(64);
+        MyBoundedGrid<Block> grid = game.getGrid();
+        encoder = new FrameEncoder(grid.getNumRows(), grid.getNumCols());
+        out = ByteBuffer.allocate(FrameEncoder.maxFramesSize(grid.getNumRows(),
+                                                             grid.getNumCols()));
+        out.flip();
+    }
+
+    /**
+     * Retrieves the game.
+     *
+     * @return the game played in this session
+     */
+    public TetrisGame getGame()
+    {
+        return game;
+    }
+
+    /**
+     * Retrieves the encoding of an arrow key on the wire.
+     *
+     * @param command  a CommandQueue code
+     *
+     * @return the byte a client sends for the key
+     */
+    public static byte keyFor(int command)
+    {
+        return KEYS[command];
+    }
+
+    /**
+     * Takes a key from the client.  The key is applied at the next
+     * tick.  This may be called from any thread.
+     *
+     * @param key  one of the arrow keys or QUIT;  other keys are ignored
+     */
+    public void receive(int key)
+    {
+        if (key == QUIT)
+        {
+            close();
+            return;
+        }
+        for (int i = 0; i < KEYS.length; i++)
+        {
+            if (KEYS[i] == key)
+            {
+                commands.offer(i);
+            }
+        }
+    }
+
+    /**
+     * Checks if the session has been closed.
+     *
+     * @return true if it is closed; otherwise,
+     *         false
+     */
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+    /**
+     * Closes the session and its channel.  This may be called from any
+     * thread.
+     */
+    public void close()
+    {
+        closed = true;
+        if (channel != null)
+        {
+            try
+            {
+                channel.close();
+            }
+            catch (IOException e)
+            {
+                // the session is over either way
+            }
+        }
+    }
+
+    /**
+     * Moves the game on by one tick and sends the client what changed.
+     * It must only be called from one thread at a time.
+     *
+     * @return false once the session is closed; otherwise,
+     *         true
+     */
+    public boolean tick()
+    {
+        if (closed)
+        {
+            return false;
+        }
+        commands.drainTo(game);
+        fall += GameLoop.gravity(game.getLevel());
+        if (fall >= 1)
+        {
+            int rows = (int) Math.min(fall, game.getGrid().getNumRows());
+            fall -= rows;
+            if (fall >= 1)
+            {
+                // more than the grid's height is never carried over
+                fall = 0;
+            }
+            game.step(rows);
+        }
+        try
+        {
+            if (out.hasRemaining())
+            {
+                channel.write(out);
+            }
+            if (!out.hasRemaining())
+            {
+                if (ended)
+                {
+                    close();
+                    return false;
+                }
+                out.clear();
+                writeFrames(out);
+                out.flip();
+                channel.write(out);
+            }
+        }
+        catch (IOException e)
+        {
+            close();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Writes the frames that bring the client up to date:  a START frame
+     * the first time, a BOARD frame if anything changed since the last
+     * frames written, and a GAME_OVER frame once the game is over.
+     *
+     * @param buffer  where to write the frames;  it must have room for
+     *                FrameEncoder.maxFramesSize bytes
+     *
+     * @return true if a frame was written; otherwise,
+     *         false
+     */
+    public boolean writeFrames(ByteBuffer buffer)
+    {
+        int start = buffer.position();
+        if (!started)
+        {
+            encoder.writeStart(buffer);
+            started = true;
+        }
+        encoder.writeDelta(buffer, game);
+        if (game.isGameOver() && !ended)
+        {
+            encoder.writeGameOver(buffer, game);
+            ended = true;
+        }
+        return buffer.position() > start;
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Heuristic scores a board after a tetrad has been placed, so that
+ * an AutoPlayer can choose between placements.  The score is a
+ * weighted sum of four features of the board: the aggregate height
+ * (the sum of the column heights), the number of holes (empty cells
+ * with a block somewhere above them), the bumpiness (the sum of the
+ * height differences between neighboring columns), and the number of
+ * rows the placement cleared.  Higher scores are better.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class Heuristic
+{
+    /**
+     * The number of weights a heuristic has.
+     */
+    public static final int WEIGHTS = 4;
+
+    private double heightWeight;
+    private double linesWeight;
+    private double holesWeight;
+    private double bumpinessWeight;
+
+    /**
+     * Constructs a heuristic with weights that are known to play well.
+     */
+    public Heuristic()
+    {
+        this(-0.510066, 0.760666, -0.35663, -0.184483);
+    }
+
+    /**
+     * Constructs a heuristic with the given weights.
+     *
+     * @param height     the weight of the aggregate height
+     * @param lines      the weight of the rows cleared
+     * @param holes      the weight of the number of holes
+     * @param bumpiness  the weight of the bumpiness
+     */
+    public Heuristic(double height, double lines, double holes, double bumpiness)
+    {
+        heightWeight = height;
+        linesWeight = lines;
+        holesWeight = holes;
+        bumpinessWeight = bumpiness;
+    }
+
+    /**
+     * Constructs a heuristic from an array of weights, in the order
+     * returned by getWeights.
+     *
+     * @param weights  the weights;  weights.length == WEIGHTS
+     */
+    public Heuristic(double[] weights)
+    {
+        this(weights[0], weights[1], weights[2], weights[3]);
+    }
+
+    /**
+     * Retrieves the weights of this heuristic.
+     *
+     * @return a new array with the height, lines, holes, and
+     *         bumpiness weights, in that order
+     */
+    public double[] getWeights()
+    {
+        return new double[] {heightWeight, linesWeight, holesWeight, bumpinessWeight};
+    }
+
+    /**
+     * Retrieves the weight of the rows cleared.  Since the score is
+     * linear in the rows cleared, evaluate(board, n) is the same as
+     * evaluate(board, 0) + n * getLinesWeight().
+     *
+     * @return the weight of the rows cleared
+     */
+    public double getLinesWeight()
+    {
+        return linesWeight;
+    }
+
+    /**
+     * Scores a board.
+     *
+     * @param board        the board after the tetrad was placed and
+     *                     the full rows were cleared
+     * @param rowsCleared  the number of rows the placement cleared
+     *
+     * @return the score of the board; higher is better
+     */
+    public double evaluate(BitBoard board, int rowsCleared)
+    {
+        int rows = board.getNumRows();
+        int aggregateHeight = 0;
+        int bumpiness = 0;
+        int previousHeight = -1;
+        for (int c = 0; c < board.getNumCols(); c++)
+        {
+            long bit = 1L << c;
+            int top = 0;
+            while (top < rows && (board.getRowBits(top) & bit) == 0)
+            {
+                top++;
+            }
+            int height = rows - top;
+            aggregateHeight += height;
+            if (previousHeight >= 0)
+            {
+                bumpiness += Math.abs(height - previousHeight);
+            }
+            previousHeight = height;
+        }
+
+        int holes = 0;
+        long covered = 0;
+        for (int r = 0; r < rows; r++)
+        {
+            long bits = board.getRowBits(r);
+            holes += Long.bitCount(covered & ~bits);
+            covered |= bits;
+        }
+
+        return heightWeight * aggregateHeight + linesWeight * rowsCleared
+            + holesWeight * holes + bumpinessWeight * bumpiness;
+    }
+}
@@ -0,0 +1,205 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram counts durations in nanoseconds in buckets whose
+ * width grows with the value, in the way of an HDR histogram:  values
+ * below 2 * SUB_BUCKETS each get a bucket of their own, and above that
+ * every power of two is split into SUB_BUCKETS buckets, so any value is
+ * known to within about 3% while the whole range of a long takes under
+ * two thousand buckets.  Recording only increments counters, so any
+ * number of threads may record at once without locks.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class LatencyHistogram
+{
+    /**
+     * The number of buckets each power of two is split into.
+     */
+    public static final int SUB_BUCKETS = 32;
+
+    private static final int SUB_BUCKET_BITS = 5;
+
+    private AtomicLongArray counts;
+    private AtomicLong count;
+    private AtomicLong total;
+    private AtomicLong max;
+
+    /**
+     * Constructs an empty histogram.
+     */
+    public LatencyHistogram()
+    {
+        counts = new AtomicLongArray(SUB_BUCKETS * (64 - SUB_BUCKET_BITS));
+        count = new AtomicLong();
+        total = new AtomicLong();
+        max = new AtomicLong();
+    }
+
+    /**
+     * Finds the bucket of a value.
+     *
+     * @param value  the value;  value >= 0
+     *
+     * @return the index of its bucket
+     */
+    static int bucketOf(long value)
+    {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return SUB_BUCKETS * shift + (int) (value >>> shift);
+    }
+
+    /**
+     * Finds the highest value in a bucket.
+     *
+     * @param bucket  the index of the bucket
+     *
+     * @return the highest value that is counted in it
+     */
+    static long highestIn(int bucket)
+    {
+        int shift = Math.max(0, bucket / SUB_BUCKETS - 1);
+        long lowest = (long) (bucket - SUB_BUCKETS * shift) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Records a duration.  This may be called from any thread.
+     *
+     * @param nanos  the duration in nanoseconds;  negative durations,
+     *               which a clock that jumps back can give, count as 0
+     */
+    public void record(long nanos)
+    {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+        long highest = max.get();
+        while (value > highest && !max.compareAndSet(highest, value))
+        {
+            highest = max.get();
+        }
+    }
+
+    /**
+     * Retrieves the number of durations recorded.
+     *
+     * @return the number of durations
+     */
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    /**
+     * Retrieves the longest duration recorded.
+     *
+     * @return the longest duration in nanoseconds, or 0 if none
+     *         has been recorded
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * Calculates the mean of the durations recorded.
+     *
+     * @return the mean in nanoseconds, or 0 if none has been recorded
+     */
+    public double getMean()
+    {
+        long n = count.get();
+        if (n == 0)
+        {
+            return 0;
+        }
+        return (double) total.get() / n;
+    }
+
+    /**
+     * Finds the duration that a percentage of the durations recorded are
+     * at most.
+     *
+     * @param percentile  the percentage;  0 <= percentile <= 100
+     *
+     * @return the highest value in the bucket of that duration, or 0 if
+     *         none has been recorded
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        if (percentile < 0 || percentile > 100)
+        {
+            throw new IllegalArgumentException("invalid percentile " + percentile);
+        }
+        long n = 0;
+        for (int i = 0; i < counts.length(); i++)
+        {
+            n += counts.get(i);
+        }
+        // at least one duration, so that the 0th percentile is the lowest
+        long wanted = Math.max(1, (long) Math.ceil(n * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++)
+        {
+            seen += counts.get(i);
+            if (seen >= wanted)
+            {
+                return Math.min(highestIn(i), max.get());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Makes a copy of the histogram.  Durations recorded while it is
+     * being copied may or may not be in the copy.
+     *
+     * @return a new histogram with the durations recorded in this one
+     */
+    public LatencyHistogram copy()
+    {
+        LatencyHistogram copy = new LatencyHistogram();
+        for (int i = 0; i < counts.length(); i++)
+        {
+            long n = counts.get(i);
+            if (n != 0)
+            {
+                copy.counts.set(i, n);
+            }
+        }
+        copy.count.set(count.get());
+        copy.total.set(total.get());
+        copy.max.set(max.get());
+        return copy;
+    }
+
+    /**
+     * Describes the histogram in a few numbers, in milliseconds.
+     *
+     * @return the count, the 50th, 99th, and 99.9th percentiles, and
+     *         the longest duration
+     */
+    public String toString()
+    {
+        return "n=" + getCount() + " p50=" + millis(getValueAtPercentile(50))
+            + " p99=" + millis(getValueAtPercentile(99))
+            + " p99.9=" + millis(getValueAtPercentile(99.9))
+            + " max=" + millis(getMax());
+    }
+
+    /**
+     * Formats nanoseconds as milliseconds.
+     *
+     * @param nanos  the nanoseconds
+     *
+     * @return the milliseconds with three decimal places
+     */
+    private static String millis(long nanos)
+    {
+        return String.format("%.3fms", nanos / 1e6);
+    }
+}
@@ -36,8 +36,8 @@
  */
 public class Location implements Comparable
 {
-    private int row; // row location in grid
-    private int col; // column location in grid
+    private final int row; // row location in grid
+    private final int col; // column location in grid
 
     /**
      * The turn angle for turning 90 degrees to the left.
@@ -19,6 +19,41 @@ public class MyBoundedGrid<E>
      */
     private Object[][] occupantArray; 
 
+    /**
+     * One shared Location for every cell of the grid, in row-major
+     * order, so that looking up cells does not create new Locations.
+     */
+    private Location[] locations;
+
+    /**
+     * The number of occupied cells in each row.
+     */
+    private int[] rowCounts;
+
+    /**
+     * The Zobrist signature of each row (see Zobrist) and the
+     * Zobrist hash of the whole grid.
+     */
+    private long[] rowSignatures;
+    private long hash;
+
+    /**
+     * The number of Blocks in the grid, kept up to date as elements are
+     * put and removed, so that fork and restore can tell in constant
+     * time whether there are Blocks to look after.
+     */
+    private int blockCount;
+
+    /**
+     * The rows of a grid may be shared with forks and snapshots of it,
+     * and a shared row is copied before it is changed.  A grid owns the
+     * rows whose entry in rowOwners is its owner token;  forking or
+     * taking a snapshot gives the grid a new token, so it no longer
+     * owns any row.
+     */
+    private Object[] rowOwners;
+    private Object owner;
+
     /**
      * Constructs an empty MyBoundedGrid with the given dimensions.
      * 
@@ -28,6 +63,168 @@ public class MyBoundedGrid<E>
     public MyBoundedGrid(int rows, int cols)
     {
         occupantArray = new Object[rows][cols];
+        rowCounts = new int[rows];
+        rowSignatures = new long[rows];
+        owner = new Object();
+        rowOwners = new Object[rows];
+        for (int r = 0; r < rows; r++)
+        {
+            rowOwners[r] = owner;
+        }
+        locations = new Location[rows * cols];
+        for (int r = 0; r < rows; r++)
+        {
+            for (int c = 0; c < cols; c++)
+            {
+                locations[r * cols + c] = new Location(r, c);
+            }
+        }
+    }
+
+    /**
+     * Constructs a fork of a grid that shares its rows and Locations.
+     * 
+     * @param other  the grid to fork
+     */
+    private MyBoundedGrid(MyBoundedGrid<E> other)
+    {
+        occupantArray = other.occupantArray.clone();
+        locations = other.locations;
+        rowCounts = other.rowCounts.clone();
+        rowSignatures = other.rowSignatures.clone();
+        hash = other.hash;
+        blockCount = other.blockCount;
+        rowOwners = other.rowOwners.clone();
+        owner = new Object();
+    }
+
+    /**
+     * Makes a copy-on-write fork of this grid.  The fork starts with
+     * the same elements in the same cells, and after that the two grids
+     * change independently.  They share their rows until one of them
+     * changes a row, which it copies first, so forking only copies an
+     * array of references to the rows, and each change afterwards copies
+     * at most one row.  The elements themselves are shared, not copied,
+     * so a grid of Blocks cannot be forked:  a Block knows the one grid
+     * and location it is in.  Use snapshot and restore for Blocks.
+     * 
+     * @return the fork
+     * 
+     * @throws IllegalStateException if this grid holds a Block
+     */
+    public MyBoundedGrid<E> fork()
+    {
+        if (blockCount > 0)
+        {
+            throw new IllegalStateException("a grid of Blocks cannot be forked");
+        }
+        // neither grid may now change a row in place
+        owner = new Object();
+        return new MyBoundedGrid<E>(this);
+    }
+
+    /**
+     * Takes a snapshot of this grid that restore can return it to.  The
+     * snapshot shares the grid's rows the way a fork does, so taking one
+     * costs about as much as forking.
+     * 
+     * @return the snapshot
+     */
+    public Snapshot<E> snapshot()
+    {
+        owner = new Object();
+        return new Snapshot<E>(this);
+    }
+
+    /**
+     * Returns this grid to a snapshot of it or of a grid of the same
+     * size.  The grid shares the snapshot's rows until it changes them,
+     * so a snapshot can be restored again and again, and restoring only
+     * copies arrays of references to the rows.  Blocks are told where
+     * the snapshot puts them:  in each row that differs from the
+     * snapshot's, the Blocks are taken out of the grid and then the
+     * snapshot's Blocks are moved back to their cells, so a Block that
+     * is in this grid but not in the snapshot is left outside any grid.
+     * Rows that have not changed since the snapshot are not looked at,
+     * and neither is any row if there are no Blocks.  Anything else that
+     * keeps track of the Blocks, such as a Tetrad, is not restored.
+     * 
+     * @param snapshot  the snapshot
+     * 
+     * @throws IllegalArgumentException if the snapshot is of a grid of
+     *         another size, or is of another grid and holds Blocks
+     */
+    public void restore(Snapshot<E> snapshot)
+    {
+        MyBoundedGrid<E> saved = snapshot.grid;
+        if (saved.getNumRows() != getNumRows() || saved.getNumCols() != getNumCols())
+        {
+            throw new IllegalArgumentException("snapshot is of another size of grid");
+        }
+        if (snapshot.source != this && saved.blockCount > 0)
+        {
+            throw new IllegalArgumentException("snapshot of Blocks is of another grid");
+        }
+        Object[][] before = occupantArray;
+        boolean blocks = blockCount > 0 || saved.blockCount > 0;
+        if (blocks)
+        {
+            for (int r = 0; r < before.length; r++)
+            {
+                if (before[r] != saved.occupantArray[r])
+                {
+                    placeBlocks(r, null);
+                }
+            }
+        }
+        occupantArray = saved.occupantArray.clone();
+        rowCounts = saved.rowCounts.clone();
+        rowSignatures = saved.rowSignatures.clone();
+        hash = saved.hash;
+        blockCount = saved.blockCount;
+        rowOwners = saved.rowOwners.clone();
+        owner = new Object();
+        if (blocks)
+        {
+            for (int r = 0; r < before.length; r++)
+            {
+                if (before[r] != occupantArray[r])
+                {
+                    placeBlocks(r, this);
+                }
+            }
+        }
+    }
+
+    /**
+     * Points each Block in a row of this grid at gr and at its cell, or
+     * takes it out of any grid if gr is null.  A Block that has already
+     * been moved to another grid or cell is left alone when gr is null.
+     * 
+     * @param row  a valid row in this grid
+     * @param gr   this grid, or null
+     */
+    @SuppressWarnings("unchecked")
+    private void placeBlocks(int row, MyBoundedGrid<E> gr)
+    {
+        // only a grid of Blocks can hold a Block, so the cast is safe
+        MyBoundedGrid<Block> grid = (MyBoundedGrid<Block>) (MyBoundedGrid<?>) gr;
+        if (rowCounts[row] == 0)
+        {
+            return;
+        }
+        for (int c = 0; c < getNumCols(); c++)
+        {
+            if (occupantArray[row][c] instanceof Block)
+            {
+                Block block = (Block) occupantArray[row][c];
+                Location loc = getLocation(row, c);
+                if (gr != null || (block.getGrid() == this && loc.equals(block.getLocation())))
+                {
+                    block.setLocation(grid, gr == null ? null : loc);
+                }
+            }
+        }
     }
 
     /**
@@ -59,10 +256,60 @@ public class MyBoundedGrid<E>
      */
     public boolean isValid(Location loc)
     {
-        int locRow = loc.getRow();
-        int locCol = loc.getCol();
-        return locRow < getNumRows() && locRow >= 0 &&
-               locCol < getNumCols() && locCol >= 0;
+        return isValid(loc.getRow(), loc.getCol());
+    }
+
+    /**
+     * Determines whether a row and column are valid.
+     * 
+     * @param  row   the row in question
+     * @param  col   the column in question
+     * @return true  if (row, col) is valid in this grid; otherwise, 
+     *         false 
+     */
+    public boolean isValid(int row, int col)
+    {
+        return row < getNumRows() && row >= 0 &&
+               col < getNumCols() && col >= 0;
+    }
+
+    /**
+     * Packs a row and column into a single cell index, in
+     * row-major order.
+     * 
+     * @param row  a valid row in this grid
+     * @param col  a valid column in this grid
+     * 
+     * @return the index of the cell;  0 <= index < rows * cols
+     */
+    public int toIndex(int row, int col)
+    {
+        return row * getNumCols() + col;
+    }
+
+    /**
+     * Retrieves this grid's shared Location for a row and column.
+     * 
+     * @param row  a valid row in this grid
+     * @param col  a valid column in this grid
+     * 
+     * @return the Location of (row, col)
+     */
+    public Location getLocation(int row, int col)
+    {
+        return locations[toIndex(row, col)];
+    }
+
+    /**
+     * Retrieves this grid's shared Location for a packed cell index.
+     * 
+     * @param index  a valid cell index, as returned by toIndex
+     * 
+     * @return the Location of the cell
+     */
+    public Location getLocation(int index)
+    {
+        return locations[index];
     }
 
     /**
@@ -76,7 +323,37 @@ public class MyBoundedGrid<E>
      */
     public E get(Location loc)
     {
-        return (E)occupantArray[loc.getRow()][loc.getCol()];
+        return get(loc.getRow(), loc.getCol());
+    }
+
+    /**
+     * Retrieves an element from this grid at a row and column, or
+     * null if the cell is unoccupied.
+     * 
+     * @param row  a valid row in this grid
+     * @param col  a valid column in this grid
+     * 
+     * @return the object at (row, col) 
+     *         or null if the cell is unoccupied
+     */
+    public E get(int row, int col)
+    {
+        return (E)occupantArray[row][col];
+    }
+
+    /**
+     * Retrieves an element from this grid at a packed cell index, or
+     * null if the cell is unoccupied.
+     * 
+     * @param index  a valid cell index, as returned by toIndex
+     * 
+     * @return the object in the cell 
+     *         or null if the cell is unoccupied
+     */
+    public E get(int index)
+    {
+        int cols = getNumCols();
+        return get(index / cols, index % cols);
     }
 
     /**
@@ -92,8 +369,47 @@ public class MyBoundedGrid<E>
      */
     public E put(Location loc, E obj)
     {
-        E old = get(loc);
-        occupantArray[loc.getRow()][loc.getCol()] = obj;
+        return put(loc.getRow(), loc.getCol(), obj);
+    }
+
+    /**
+     * Puts an element at a row and column on this grid.  Plus
+     * returns the object previously in that cell, or
+     * null if the cell is unoccupied.
+     * 
+     * @param row  a valid row in this grid
+     * @param col  a valid column in this grid
+     * @param obj  the object to put at (row, col)
+     * 
+     * @return the object that was at (row, col) 
+     *         or null if the cell is unoccupied
+     */
+    public E put(int row, int col, E obj)
+    {
+        E old = get(row, col);
+        if (old == obj)
+        {
+            return old;
+        }
+        ownRow(row)[col] = obj;
+        if (old instanceof Block)
+        {
+            blockCount--;
+        }
+        if (obj instanceof Block)
+        {
+            blockCount++;
+        }
+        if (old == null && obj != null)
+        {
+            rowCounts[row]++;
+            toggle(row, col);
+        }
+        else if (old != null && obj == null)
+        {
+            rowCounts[row]--;
+            toggle(row, col);
+        }
         return old;
     }
     
@@ -109,10 +425,32 @@ public class MyBoundedGrid<E>
      */
     public E remove(Location loc)
     {
-        if (get(loc) != null)
+        return remove(loc.getRow(), loc.getCol());
+    }
+
+    /**
+     * Removes an element from this grid at a row and column. Plus
+     * returns the object previously in that cell, or
+     * null if the cell is unoccupied.
+     * 
+     * @param row  a valid row in this grid
+     * @param col  a valid column in this grid
+     * 
+     * @return the object that was at (row, col) 
+     *         or null if the cell is unoccupied
+     */
+    public E remove(int row, int col)
+    {
+        if (get(row, col) != null)
         {
-            Object temp = occupantArray[loc.getRow()][loc.getCol()];
-            occupantArray[loc.getRow()][loc.getCol()] = null;
+            Object temp = occupantArray[row][col];
+            if (temp instanceof Block)
+            {
+                blockCount--;
+            }
+            ownRow(row)[col] = null;
+            rowCounts[row]--;
+            toggle(row, col);
             return (E)temp;
         }
         return null;
@@ -131,13 +469,209 @@ public class MyBoundedGrid<E>
         {
             for (int c = 0; c < occupantArray[0].length; c++)
             {
-                Location loc = new Location(r,c);
-                if (get(loc) != null)
+                if (get(r, c) != null)
                 {
-                    occupied.add(loc);
+                    occupied.add(getLocation(r, c));
                 }
             }
         }
         return occupied;
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the number of occupied cells in a row.
+     * 
+     * @param row  a valid row in this grid
+     * 
+     * @return the number of occupied cells in the row
+     */
+    public int getRowCount(int row)
+    {
+        return rowCounts[row];
+    }
+
+    /**
+     * Tests whether every cell of a row is occupied.
+     * 
+     * @param row  a valid row in this grid
+     * 
+     * @return true if the row is full; otherwise,
+     *         false
+     */
+    public boolean isRowFull(int row)
+    {
+        return rowCounts[row] == getNumCols();
+    }
+
+    /**
+     * Retrieves a bit mask of the occupied cells in a row, with bit c
+     * set when column c is occupied, like BitBoard.getRowBits.  The mask
+     * is the row's Zobrist signature, so this takes constant time.
+     *
+     * @param row  a valid row in a grid with at most 64 columns
+     *
+     * @return the mask of the row's occupied columns
+     */
+    public long getRowMask(int row)
+    {
+        return rowSignatures[row];
+    }
+
+    /**
+     * Retrieves the Zobrist hash of the occupied cells of this grid.
+     * The hash is kept up to date as elements are put and removed, so
+     * this takes constant time.  Grids and BitBoards with the same
+     * occupied cells have the same hash; what occupies them does not
+     * matter.
+     * 
+     * @return the hash of the grid
+     */
+    public long getHash()
+    {
+        return hash;
+    }
+
+    /**
+     * Removes the full rows between top and bottom and moves all the
+     * rows above them down to fill the gaps.  This is done in one pass
+     * from the lowest full row to the top of the grid that moves whole
+     * rows at a time.  The elements keep their identity, so the caller
+     * is responsible for anything that remembers where they were.
+     * 
+     * @param top     the highest row that may be full
+     * @param bottom  the lowest row that may be full;  top <= bottom
+     * 
+     * @return the number of rows removed
+     */
+    public int removeFullRows(int top, int bottom)
+    {
+        int write = bottom;
+        while (write >= top && !isRowFull(write))
+        {
+            write--;
+        }
+        if (write < top)
+        {
+            return 0;
+        }
+        int removed = 0;
+        for (int read = write; read >= 0; read--)
+        {
+            if (read >= top && isRowFull(read))
+            {
+                for (Object occupant : occupantArray[read])
+                {
+                    if (occupant instanceof Block)
+                    {
+                        blockCount--;
+                    }
+                }
+                // a new empty row is as cheap as clearing one that may be shared
+                occupantArray[read] = new Object[getNumCols()];
+                rowOwners[read] = owner;
+                rowCounts[read] = 0;
+                hash ^= Zobrist.rowKey(read, rowSignatures[read]);
+                rowSignatures[read] = 0;
+                removed++;
+            }
+            else
+            {
+                // the emptied rows travel up as the kept rows move down
+                swapRows(read, write);
+                write--;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Swaps two rows of this grid.
+     * 
+     * @param a  a valid row in this grid
+     * @param b  a valid row in this grid
+     */
+    private void swapRows(int a, int b)
+    {
+        if (a == b)
+        {
+            return;
+        }
+        Object[] row = occupantArray[a];
+        occupantArray[a] = occupantArray[b];
+        occupantArray[b] = row;
+        Object rowOwner = rowOwners[a];
+        rowOwners[a] = rowOwners[b];
+        rowOwners[b] = rowOwner;
+        int count = rowCounts[a];
+        rowCounts[a] = rowCounts[b];
+        rowCounts[b] = count;
+        long sigA = rowSignatures[a];
+        long sigB = rowSignatures[b];
+        hash ^= Zobrist.rowKey(a, sigA) ^ Zobrist.rowKey(b, sigB)
+                ^ Zobrist.rowKey(a, sigB) ^ Zobrist.rowKey(b, sigA);
+        rowSignatures[a] = sigB;
+        rowSignatures[b] = sigA;
+    }
+
+    /**
+     * Retrieves a row to change, copying it first if it is shared
+     * with a fork or a snapshot.
+     * 
+     * @param row  a valid row in this grid
+     * 
+     * @return the row's array, which only this grid uses
+     */
+    private Object[] ownRow(int row)
+    {
+        if (rowOwners[row] != owner)
+        {
+            occupantArray[row] = occupantArray[row].clone();
+            rowOwners[row] = owner;
+        }
+        return occupantArray[row];
+    }
+
+    /**
+     * Updates the hash when a cell becomes occupied or empty.
+     * 
+     * @param row  a valid row in this grid
+     * @param col  a valid column in this grid
+     */
+    private void toggle(int row, int col)
+    {
+        long signature = rowSignatures[row];
+        long changed = signature ^ Zobrist.colKey(col);
+        hash ^= Zobrist.rowKey(row, signature) ^ Zobrist.rowKey(row, changed);
+        rowSignatures[row] = changed;
+    }
+
+    /**
+     * A snapshot of a grid, taken by snapshot and given back to restore.
+     * It cannot be changed.
+     * 
+     * @param <E> the elements of the grid
+     */
+    public static final class Snapshot<E>
+    {
+        /**
+         * A fork of the grid that nothing changes.
+         */
+        private MyBoundedGrid<E> grid;
+
+        /**
+         * The grid the snapshot was taken of.
+         */
+        private Object source;
+
+        /**
+         * Constructs a snapshot of a grid.
+         * 
+         * @param gr  the grid, which no longer owns any of its rows
+         */
+        private Snapshot(MyBoundedGrid<E> gr)
+        {
+            grid = new MyBoundedGrid<E>(gr);
+            source = gr;
+        }
+    }
+}
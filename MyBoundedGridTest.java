@@ -0,0 +1,289 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.List;
+
+/**
+ * The test class MyBoundedGridTest checks the parts of MyBoundedGrid
+ * that BlockTestBaynes does not cover.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class MyBoundedGridTest
+{
+    /**
+     * Tests that the grid hands out one shared Location per cell.
+     */
+    @Test
+    public void sharedLocations()
+    {
+        MyBoundedGrid<String> grid = new MyBoundedGrid<String>(3, 4);
+        Location loc = grid.getLocation(2, 1);
+        assertEquals("getLocation fails", new Location(2, 1), loc);
+        assertSame("getLocation fails", loc, grid.getLocation(2, 1));
+        assertSame("getLocation fails", loc, grid.getLocation(grid.toIndex(2, 1)));
+
+        grid.put(2, 1, "a");
+        grid.put(0, 3, "b");
+        assertSame("getOccupiedLocations fails", grid.getLocation(0, 3),
+                   grid.getOccupiedLocations().get(0));
+        assertSame("getOccupiedLocations fails", loc,
+                   grid.getOccupiedLocations().get(1));
+    }
+
+    /**
+     * Tests that the row and column methods match the Location methods.
+     */
+    @Test
+    public void rowAndColumnMethods()
+    {
+        MyBoundedGrid<String> grid = new MyBoundedGrid<String>(3, 4);
+        assertTrue("isValid fails", grid.isValid(2, 3));
+        assertFalse("isValid fails", grid.isValid(3, 0));
+        assertFalse("isValid fails", grid.isValid(0, -1));
+
+        assertNull("put fails", grid.put(1, 2, "first"));
+        assertEquals("get fails", "first", grid.get(new Location(1, 2)));
+        assertEquals("get fails", "first", grid.get(grid.toIndex(1, 2)));
+        assertEquals("put fails", "first", grid.put(new Location(1, 2), "second"));
+        assertEquals("remove fails", "second", grid.remove(1, 2));
+        assertNull("remove fails", grid.get(1, 2));
+    }
+
+    /**
+     * Tests that the row counts follow puts and removes.
+     */
+    @Test
+    public void rowCounts()
+    {
+        MyBoundedGrid<String> grid = new MyBoundedGrid<String>(3, 2);
+        grid.put(1, 0, "a");
+        grid.put(1, 0, "b");
+        assertEquals("getRowCount fails", 1, grid.getRowCount(1));
+        grid.put(new Location(1, 1), "c");
+        assertTrue("isRowFull fails", grid.isRowFull(1));
+        grid.put(1, 1, null);
+        assertEquals("getRowCount fails", 1, grid.getRowCount(1));
+        grid.remove(1, 0);
+        grid.remove(1, 0);
+        assertEquals("getRowCount fails", 0, grid.getRowCount(1));
+    }
+
+    /**
+     * Tests that full rows are removed and the rows above them
+     * move down as whole rows.
+     */
+    @Test
+    public void removeFullRows()
+    {
+        MyBoundedGrid<String> grid = new MyBoundedGrid<String>(6, 2);
+        grid.put(0, 0, "top");
+        grid.put(1, 0, "x");
+        grid.put(1, 1, "x");
+        grid.put(2, 1, "middle");
+        grid.put(3, 0, "x");
+        grid.put(3, 1, "x");
+        grid.put(4, 0, "x");
+        grid.put(4, 1, "x");
+        grid.put(5, 0, "bottom");
+
+        assertEquals("removeFullRows fails", 0, grid.removeFullRows(5, 5));
+        assertEquals("removeFullRows fails", 2, grid.removeFullRows(2, 4));
+        assertEquals("removeFullRows fails", "bottom", grid.get(5, 0));
+        assertEquals("removeFullRows fails", "middle", grid.get(4, 1));
+        assertTrue("removeFullRows fails", grid.isRowFull(3));
+        assertEquals("removeFullRows fails", "top", grid.get(2, 0));
+        assertEquals("removeFullRows fails", 0, grid.getRowCount(1));
+        assertEquals("removeFullRows fails", 0, grid.getRowCount(0));
+        assertNull("removeFullRows fails", grid.get(0, 0));
+        assertEquals("removeFullRows fails", 5, grid.getOccupiedLocations().size());
+    }
+
+    /**
+     * Tests that the hash follows puts, removes, and removed rows, and
+     * matches the hash of a BitBoard with the same occupied cells.
+     */
+    @Test
+    public void hash()
+    {
+        MyBoundedGrid<String> grid = new MyBoundedGrid<String>(4, 2);
+        assertEquals("getHash fails", 0L, grid.getHash());
+        grid.put(3, 0, "a");
+        long one = grid.getHash();
+        grid.put(3, 0, "b");
+        assertEquals("getHash fails", one, grid.getHash());
+        grid.put(3, 1, "c");
+        grid.put(2, 1, "d");
+        grid.put(1, 0, "e");
+        assertNotEquals("getHash fails", one, grid.getHash());
+        assertEquals("getHash fails", new BitBoard(grid).getHash(), grid.getHash());
+
+        grid.removeFullRows(0, 3);
+        MyBoundedGrid<String> expected = new MyBoundedGrid<String>(4, 2);
+        expected.put(3, 1, "d");
+        expected.put(2, 0, "e");
+        assertEquals("getHash fails", expected.getHash(), grid.getHash());
+
+        grid.remove(3, 1);
+        grid.put(2, 0, null);
+        assertEquals("getHash fails", 0L, grid.getHash());
+    }
+
+    /**
+     * Tests that a fork and its grid change independently and keep
+     * their hashes.
+     */
+    @Test
+    public void fork()
+    {
+        MyBoundedGrid<String> grid = new MyBoundedGrid<String>(4, 2);
+        grid.put(3, 0, "a");
+        grid.put(2, 1, "b");
+        MyBoundedGrid<String> fork = grid.fork();
+        assertEquals("fork fails", grid.getHash(), fork.getHash());
+        assertEquals("fork fails", "b", fork.get(2, 1));
+
+        fork.put(3, 1, "c");
+        grid.remove(2, 1);
+        assertNull("fork fails", grid.get(3, 1));
+        assertEquals("fork fails", "b", fork.get(2, 1));
+        assertEquals("fork fails", 1, fork.removeFullRows(3, 3));
+        assertEquals("fork fails", "b", fork.get(3, 1));
+        assertEquals("fork fails", "a", grid.get(3, 0));
+        assertEquals("fork fails", 1, grid.getRowCount(3));
+
+        MyBoundedGrid<String> same = new MyBoundedGrid<String>(4, 2);
+        same.put(3, 1, "b");
+        assertEquals("fork fails", same.getHash(), fork.getHash());
+        same.remove(3, 1);
+        same.put(3, 0, "a");
+        assertEquals("fork fails", same.getHash(), grid.getHash());
+    }
+
+    /**
+     * Tests that a snapshot can be restored more than once.
+     */
+    @Test
+    public void snapshot()
+    {
+        MyBoundedGrid<String> grid = new MyBoundedGrid<String>(3, 2);
+        grid.put(2, 0, "a");
+        MyBoundedGrid.Snapshot<String> snapshot = grid.snapshot();
+        long hash = grid.getHash();
+        for (int i = 0; i < 2; i++)
+        {
+            grid.put(2, 1, "b");
+            grid.put(0, 0, "c");
+            assertEquals("put fails", 1, grid.removeFullRows(2, 2));
+            assertEquals("put fails", "c", grid.get(1, 0));
+            grid.restore(snapshot);
+            assertEquals("restore fails", "a", grid.get(2, 0));
+            assertNull("restore fails", grid.get(1, 0));
+            assertEquals("restore fails", 1, grid.getRowCount(2));
+            assertEquals("restore fails", hash, grid.getHash());
+        }
+
+        try
+        {
+            new MyBoundedGrid<String>(2, 2).restore(snapshot);
+            fail("restore accepts a snapshot of another size");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    /**
+     * Tests that restoring a grid of Blocks moves the Blocks back, so a
+     * Tetrad that moves afterwards still has four blocks, and that a
+     * grid of Blocks cannot be forked.
+     */
+    @Test
+    public void restoreBlocks()
+    {
+        MyBoundedGrid<Block> grid = new MyBoundedGrid<Block>(20, 10);
+        Tetrad tetrad = new Tetrad(grid, "T");
+        MyBoundedGrid.Snapshot<Block> snapshot = grid.snapshot();
+        assertTrue("translate fails", tetrad.translate(1, 0));
+        Block extra = new Block();
+        extra.putSelfInGrid(grid, new Location(19, 0));
+        grid.restore(snapshot);
+        checkBlocks(grid, 4);
+        assertNull("restore fails", extra.getGrid());
+        assertNull("restore fails", extra.getLocation());
+
+        assertTrue("translate fails", tetrad.translate(0, 1));
+        checkBlocks(grid, 4);
+        extra.putSelfInGrid(grid, new Location(19, 0));
+        checkBlocks(grid, 5);
+
+        try
+        {
+            grid.fork();
+            fail("fork accepts a grid of Blocks");
+        }
+        catch (IllegalStateException e)
+        {
+            // expected
+        }
+        try
+        {
+            new MyBoundedGrid<Block>(20, 10).restore(snapshot);
+            fail("restore accepts a snapshot of another grid's Blocks");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    /**
+     * Tests that restoring a grid of Blocks after rows were cleared puts
+     * the Blocks that moved down back where they were, and that a grid
+     * whose Blocks have all been removed can be forked again.
+     */
+    @Test
+    public void restoreClearedBlocks()
+    {
+        TetrisGame game = new TetrisGame(20, 10, new PieceGenerator(3L, PieceGenerator.BAG, 1));
+        MyBoundedGrid<Block> grid = game.getGrid();
+        for (int c = 0; c < grid.getNumCols(); c++)
+        {
+            new Block().putSelfInGrid(grid, grid.getLocation(19, c));
+        }
+        Block above = new Block();
+        above.putSelfInGrid(grid, grid.getLocation(18, 0));
+        MyBoundedGrid.Snapshot<Block> snapshot = grid.snapshot();
+        assertEquals("clearCompletedRows fails", 1, game.clearCompletedRows());
+        assertEquals("clearCompletedRows fails", grid.getLocation(19, 0), above.getLocation());
+        grid.restore(snapshot);
+        checkBlocks(grid, 15);
+        assertEquals("restore fails", grid.getLocation(18, 0), above.getLocation());
+
+        MyBoundedGrid<Block> other = new MyBoundedGrid<Block>(2, 2);
+        Block block = new Block();
+        block.putSelfInGrid(other, other.getLocation(1, 1));
+        block.removeSelfFromGrid();
+        assertNull("fork fails", other.fork().get(1, 1));
+    }
+
+    /**
+     * Checks that a grid holds a number of Blocks and that each one
+     * knows its grid and location.
+     * 
+     * @param grid   the grid
+     * @param count  the number of Blocks
+     */
+    private static void checkBlocks(MyBoundedGrid<Block> grid, int count)
+    {
+        List<Location> occupied = grid.getOccupiedLocations();
+        assertEquals("restore fails", count, occupied.size());
+        for (Location loc : occupied)
+        {
+            Block block = grid.get(loc);
+            assertSame("restore fails", grid, block.getGrid());
+            assertEquals("restore fails", loc, block.getLocation());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+import java.awt.Color;
+
+/**
+ * Palette is a fixed list of colors, so that a board can store the
+ * color of each cell as a small index instead of a Color or a Block.
+ * A palette cannot be changed once it is made, so one palette can be
+ * shared by every board.  The DEFAULT palette has the color of each
+ * tetrad shape at the shape's index in TetradTable.SHAPES, followed by
+ * the color of a new Block.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class Palette
+{
+    /**
+     * The index of the color of a new Block in the DEFAULT palette.
+     */
+    public static final int BLOCK = 7;
+
+    /**
+     * The palette of the tetrad colors and the color of a new Block.
+     */
+    public static final Palette DEFAULT = new Palette(new Color[]
+        {new Color(255, 220, 210), new Color(250, 250, 250),
+         new Color(130, 255, 230), new Color(255, 218, 185),
+         new Color(238, 130, 238), new Color(135, 206, 235),
+         new Color(200, 250, 100), Color.BLUE});
+
+    /**
+     * The largest number of colors a palette can have, so that an
+     * index fits in a byte with EMPTY (-1) left over.
+     */
+    public static final int MAX_SIZE = 127;
+
+    private final Color[] colors;
+
+    /**
+     * Constructs a palette.
+     *
+     * @param cols  the colors, in the order of their indices;  the
+     *              palette keeps a copy of the array
+     *
+     * @throws IllegalArgumentException if there are more than MAX_SIZE
+     *         colors
+     */
+    public Palette(Color[] cols)
+    {
+        if (cols.length > MAX_SIZE)
+        {
+            throw new IllegalArgumentException("too many colors: " + cols.length);
+        }
+        colors = cols.clone();
+    }
+
+    /**
+     * Retrieves the number of colors.
+     *
+     * @return the size of the palette
+     */
+    public int size()
+    {
+        return colors.length;
+    }
+
+    /**
+     * Retrieves a color.
+     *
+     * @param index  the index of the color;  0 <= index < size()
+     *
+     * @return the color
+     */
+    public Color getColor(int index)
+    {
+        return colors[index];
+    }
+
+    /**
+     * Finds the index of a color.
+     *
+     * @param color  the color
+     *
+     * @return the index of the color, or -1 if it is not in the palette
+     */
+    public int indexOf(Color color)
+    {
+        for (int i = 0; i < colors.length; i++)
+        {
+            if (colors[i].equals(color))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Makes a Block of a color in the palette, for code that needs
+     * Blocks to show or work with a board that stores indices.  The
+     * Block is not in any grid.
+     *
+     * @param index  the index of the color;  0 <= index < size()
+     *
+     * @return a new Block of that color
+     */
+    public Block newBlock(int index)
+    {
+        Block block = new Block();
+        block.setColor(colors[index]);
+        return block;
+    }
+}
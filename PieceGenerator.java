@@ -0,0 +1,185 @@
+import java.util.SplittableRandom;
+
+/**
+ * PieceGenerator decides the shapes of the tetrads in a game.  Each
+ * generator draws from its own seeded SplittableRandom, so a game can be
+ * played again from its seed and games running on different threads do
+ * not share a random number generator.  split() makes an independent
+ * generator for another game.
+ *
+ * In UNIFORM mode every shape is equally likely every time, like the
+ * original game.  In BAG mode the seven shapes are shuffled into a bag
+ * and dealt out one by one, so every shape comes once in each group of
+ * seven.  Either way the generator keeps a preview of the next shapes.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class PieceGenerator
+{
+    /**
+     * The mode in which every shape is equally likely every time.
+     */
+    public static final int UNIFORM = 0;
+
+    /**
+     * The mode in which the shapes are dealt from shuffled bags of seven.
+     */
+    public static final int BAG = 1;
+
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private SplittableRandom random;
+    private long seed;
+    private int mode;
+    private int[] bag;
+    private int bagIndex;
+    private int[] preview;
+    private int previewStart;
+    private long count;
+    private int splits;
+
+    /**
+     * Constructs a generator.
+     *
+     * @param sd            the seed the shapes are drawn from
+     * @param md            UNIFORM or BAG
+     * @param previewSize   the number of upcoming shapes that can be seen;
+     *                      previewSize >= 0
+     */
+    public PieceGenerator(long sd, int md, int previewSize)
+    {
+        if (md != UNIFORM && md != BAG)
+        {
+            throw new IllegalArgumentException("invalid mode " + md);
+        }
+        random = new SplittableRandom(sd);
+        seed = sd;
+        mode = md;
+        bag = new int[TetradTable.SHAPES.length];
+        bagIndex = bag.length;
+        preview = new int[previewSize];
+        for (int i = 0; i < preview.length; i++)
+        {
+            preview[i] = draw();
+        }
+    }
+
+    /**
+     * Retrieves the seed the shapes are drawn from.
+     *
+     * @return the seed
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Retrieves the mode.
+     *
+     * @return UNIFORM or BAG
+     */
+    public int getMode()
+    {
+        return mode;
+    }
+
+    /**
+     * Retrieves the number of upcoming shapes that can be seen.
+     *
+     * @return the size of the preview
+     */
+    public int getPreviewSize()
+    {
+        return preview.length;
+    }
+
+    /**
+     * Retrieves the number of shapes next has returned.
+     *
+     * @return the number of shapes handed out
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Takes the next shape.
+     *
+     * @return the index of the shape in TetradTable.SHAPES
+     */
+    public int next()
+    {
+        count++;
+        if (preview.length == 0)
+        {
+            return draw();
+        }
+        int shape = preview[previewStart];
+        preview[previewStart] = draw();
+        previewStart = (previewStart + 1) % preview.length;
+        return shape;
+    }
+
+    /**
+     * Looks at an upcoming shape without taking it.
+     *
+     * @param ahead  how far ahead to look; peek(0) is the shape next
+     *               will return;  0 <= ahead < getPreviewSize()
+     *
+     * @return the index of the shape in TetradTable.SHAPES
+     */
+    public int peek(int ahead)
+    {
+        if (ahead < 0 || ahead >= preview.length)
+        {
+            throw new IndexOutOfBoundsException("preview has " + preview.length
+                                                + " shapes: " + ahead);
+        }
+        return preview[(previewStart + ahead) % preview.length];
+    }
+
+    /**
+     * Constructs a generator with the same mode and preview size and a
+     * new seed made from this generator's seed.  The new generator is
+     * independent of this one, and the nth split of a seed is always
+     * the same.  Splitting does not change the shapes this generator
+     * draws.
+     *
+     * @return the new generator
+     */
+    public PieceGenerator split()
+    {
+        splits++;
+        return new PieceGenerator(Zobrist.mix(seed + splits * GOLDEN), mode, preview.length);
+    }
+
+    /**
+     * Draws a shape from the random numbers.
+     *
+     * @return the index of the shape in TetradTable.SHAPES
+     */
+    private int draw()
+    {
+        if (mode == UNIFORM)
+        {
+            return random.nextInt(TetradTable.SHAPES.length);
+        }
+        if (bagIndex == bag.length)
+        {
+            // refill the bag and shuffle it
+            for (int i = 0; i < bag.length; i++)
+            {
+                int j = random.nextInt(i + 1);
+                bag[i] = bag[j];
+                bag[j] = i;
+            }
+            bagIndex = 0;
+        }
+        int shape = bag[bagIndex];
+        bagIndex++;
+        return shape;
+    }
+}
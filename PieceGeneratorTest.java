@@ -0,0 +1,81 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * The test class PieceGeneratorTest checks that a PieceGenerator
+ * repeats its shapes for a seed, deals whole bags, and previews the
+ * shapes it will return.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class PieceGeneratorTest
+{
+    /**
+     * Tests that generators with the same seed return the same shapes
+     * and that splits are repeatable and leave the shapes unchanged.
+     */
+    @Test
+    public void seeds()
+    {
+        PieceGenerator a = new PieceGenerator(99L, PieceGenerator.UNIFORM, 0);
+        PieceGenerator b = new PieceGenerator(99L, PieceGenerator.UNIFORM, 0);
+        PieceGenerator splitA = a.split();
+        PieceGenerator splitB = b.split();
+        int same = 0;
+        for (int i = 0; i < 100; i++)
+        {
+            int shape = a.next();
+            assertTrue("next fails", shape >= 0 && shape < TetradTable.SHAPES.length);
+            assertEquals("next fails", shape, b.next());
+            int split = splitA.next();
+            assertEquals("split fails", split, splitB.next());
+            if (split == shape)
+            {
+                same++;
+            }
+        }
+        assertEquals("getCount fails", 100, a.getCount());
+        assertTrue("split fails", same < 100);
+    }
+
+    /**
+     * Tests that every group of seven shapes in BAG mode has each
+     * shape once.
+     */
+    @Test
+    public void bag()
+    {
+        PieceGenerator generator = new PieceGenerator(5L, PieceGenerator.BAG, 0);
+        for (int group = 0; group < 20; group++)
+        {
+            boolean[] seen = new boolean[TetradTable.SHAPES.length];
+            for (int i = 0; i < seen.length; i++)
+            {
+                int shape = generator.next();
+                assertFalse("next fails", seen[shape]);
+                seen[shape] = true;
+            }
+        }
+    }
+
+    /**
+     * Tests that the preview shows the shapes next will return.
+     */
+    @Test
+    public void preview()
+    {
+        PieceGenerator generator = new PieceGenerator(8L, PieceGenerator.BAG, 3);
+        PieceGenerator plain = new PieceGenerator(8L, PieceGenerator.BAG, 0);
+        assertEquals("getPreviewSize fails", 3, generator.getPreviewSize());
+        for (int i = 0; i < 30; i++)
+        {
+            int first = generator.peek(0);
+            int second = generator.peek(1);
+            int shape = generator.next();
+            assertEquals("next fails", first, shape);
+            assertEquals("next fails", plain.next(), shape);
+            assertEquals("peek fails", second, generator.peek(0));
+        }
+    }
+}
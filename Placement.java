@@ -0,0 +1,125 @@
+/**
+ * Placement describes where a tetrad ends up: its rotation, the
+ * row and column of its first block once it has landed, how many
+ * rows it clears, and the score a Heuristic gave the result.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class Placement
+{
+    private int rotation;
+    private int row;
+    private int col;
+    private int rowsCleared;
+    private double score;
+
+    /**
+     * Constructs a placement.
+     *
+     * @param rot      the rotation of the tetrad
+     * @param r        the row of the first block once it has landed
+     * @param c        the column of the first block
+     * @param cleared  the number of rows the placement clears
+     * @param scr      the score of the placement
+     */
+    public Placement(int rot, int r, int c, int cleared, double scr)
+    {
+        rotation = rot;
+        row = r;
+        col = c;
+        rowsCleared = cleared;
+        score = scr;
+    }
+
+    /**
+     * Retrieves the rotation of the tetrad.
+     *
+     * @return the rotation;  0 <= rotation < TetradTable.ROTATIONS
+     */
+    public int getRotation()
+    {
+        return rotation;
+    }
+
+    /**
+     * Retrieves the row of the tetrad's first block once it has landed.
+     *
+     * @return the landing row
+     */
+    public int getRow()
+    {
+        return row;
+    }
+
+    /**
+     * Retrieves the column of the tetrad's first block.
+     *
+     * @return the column
+     */
+    public int getCol()
+    {
+        return col;
+    }
+
+    /**
+     * Retrieves the number of rows the placement clears.
+     *
+     * @return the rows cleared
+     */
+    public int getRowsCleared()
+    {
+        return rowsCleared;
+    }
+
+    /**
+     * Retrieves the score of the placement.
+     *
+     * @return the score; higher is better
+     */
+    public double getScore()
+    {
+        return score;
+    }
+
+    /**
+     * Chooses the better of two placements.  Ties go to the placement
+     * with the lower rotation and then the lower column, so the choice
+     * does not depend on the order the placements were found in.
+     *
+     * @param a  a placement, or null
+     * @param b  a placement, or null
+     *
+     * @return the better placement, or null if both are null
+     */
+    public static Placement better(Placement a, Placement b)
+    {
+        if (a == null)
+        {
+            return b;
+        }
+        if (b == null)
+        {
+            return a;
+        }
+        if (a.score != b.score)
+        {
+            return a.score > b.score ? a : b;
+        }
+        if (a.rotation != b.rotation)
+        {
+            return a.rotation < b.rotation ? a : b;
+        }
+        return a.col <= b.col ? a : b;
+    }
+
+    /**
+     * Creates a string that describes this placement.
+     *
+     * @return the rotation, location, and score of the placement
+     */
+    public String toString()
+    {
+        return "rotation " + rotation + " at (" + row + ", " + col + ") score " + score;
+    }
+}
@@ -0,0 +1,189 @@
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * RemoteBoard is a copy of a game's board kept up to date by the frames
+ * a FrameEncoder writes, such as those a GameSession sends or a
+ * SpectatorBroadcast publishes.  The board is a BitBoard whose color
+ * indices are in Palette.DEFAULT, so it can be shown with
+ * BitBoard.toGrid and compared with the game by its hash.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class RemoteBoard
+{
+    private BitBoard board;
+    private int points;
+    private int level;
+    private boolean gameOver;
+    private long frames;
+
+    /**
+     * Constructs a board that is empty until a START frame or KEYFRAME
+     * arrives.
+     */
+    public RemoteBoard()
+    {
+        level = 1;
+    }
+
+    /**
+     * Retrieves the board.
+     *
+     * @return the board, or null if no START frame or KEYFRAME has arrived
+     */
+    public BitBoard getBoard()
+    {
+        return board;
+    }
+
+    /**
+     * Retrieves the points of the game.
+     *
+     * @return the points in the last frame
+     */
+    public int getPoints()
+    {
+        return points;
+    }
+
+    /**
+     * Retrieves the level of the game.
+     *
+     * @return the level in the last frame
+     */
+    public int getLevel()
+    {
+        return level;
+    }
+
+    /**
+     * Checks if the game is over or not.
+     *
+     * @return true if a GAME_OVER frame has arrived; otherwise,
+     *         false
+     */
+    public boolean isGameOver()
+    {
+        return gameOver;
+    }
+
+    /**
+     * Retrieves the number of frames applied.
+     *
+     * @return the number of frames
+     */
+    public long getFrames()
+    {
+        return frames;
+    }
+
+    /**
+     * Applies a frame to the board.
+     *
+     * @param frame  the frame, without its length, from its position to
+     *               its limit;  the position is moved to the limit
+     *
+     * @throws IllegalArgumentException if the frame is cut off, has an
+     *         unknown type, or changes a board before it has started
+     */
+    public void apply(ByteBuffer frame)
+    {
+        try
+        {
+            int type = frame.get();
+            if (type == FrameEncoder.START || type == FrameEncoder.KEYFRAME)
+            {
+                board = new BitBoard((int) Replay.readVarint(frame),
+                                     (int) Replay.readVarint(frame));
+                points = 0;
+                level = 1;
+                gameOver = false;
+            }
+            else if (board == null)
+            {
+                throw new IllegalArgumentException("board frame before start");
+            }
+            if (type == FrameEncoder.BOARD || type == FrameEncoder.KEYFRAME)
+            {
+                points = (int) Replay.readVarint(frame);
+                level = (int) Replay.readVarint(frame);
+                int rows = (int) Replay.readVarint(frame);
+                for (int i = 0; i < rows; i++)
+                {
+                    readRow(frame);
+                }
+            }
+            else if (type == FrameEncoder.GAME_OVER)
+            {
+                points = (int) Replay.readVarint(frame);
+                gameOver = true;
+            }
+            else if (type != FrameEncoder.START)
+            {
+                throw new IllegalArgumentException("unknown frame type " + type);
+            }
+            frames++;
+        }
+        catch (BufferUnderflowException e)
+        {
+            throw new IllegalArgumentException("frame is cut off", e);
+        }
+    }
+
+    /**
+     * Applies the frames in a buffer to the board.
+     *
+     * @param frames  the frames, each preceded by its length, from the
+     *                buffer's position to its limit;  the position is
+     *                moved to the limit
+     *
+     * @throws IllegalArgumentException if a frame is cut off or cannot
+     *         be applied
+     */
+    public void applyAll(ByteBuffer frames)
+    {
+        while (frames.hasRemaining())
+        {
+            if (frames.remaining() < 2)
+            {
+                throw new IllegalArgumentException("frame is cut off");
+            }
+            int length = frames.getShort() & 0xFFFF;
+            if (frames.remaining() < length)
+            {
+                throw new IllegalArgumentException("frame is cut off");
+            }
+            ByteBuffer frame = frames.duplicate();
+            frame.limit(frames.position() + length);
+            apply(frame);
+            frames.position(frames.position() + length);
+        }
+    }
+
+    /**
+     * Reads one changed row:  its index, the mask of its occupied
+     * columns, and a color index for each of them.
+     *
+     * @param frame  the frame
+     */
+    private void readRow(ByteBuffer frame)
+    {
+        int row = (int) Replay.readVarint(frame);
+        long mask = Replay.readVarint(frame);
+        if (!board.isValid(row, 0))
+        {
+            throw new IllegalArgumentException("invalid row " + row);
+        }
+        long old = board.getRowBits(row);
+        for (long bits = old & ~mask; bits != 0; bits &= bits - 1)
+        {
+            board.remove(row, Long.numberOfTrailingZeros(bits));
+        }
+        for (long bits = mask; bits != 0; bits &= bits - 1)
+        {
+            board.put(row, Long.numberOfTrailingZeros(bits), frame.get());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Replay holds the constants and helpers of the binary replay format
+ * written by ReplayRecorder and read by ReplayPlayer.
+ *
+ * A replay starts with a header: the bytes 'T', 'R', 'P', the version,
+ * then the number of rows and columns as varints, the piece generator's
+ * mode as a byte, its preview size as a varint, and its seed as eight
+ * bytes.  After the header comes one varint per event, holding the
+ * number of ticks since the previous event shifted left by three bits
+ * together with the event's code in the low three bits.  A STEP_ROWS
+ * event is followed by a varint with the number of rows.  A REPEAT event
+ * is followed by a varint count, and means the previous event happened
+ * that many more times in the same tick; it is how a held or repeated
+ * key (such as a tetrad being pushed to the floor) stays small.  The END event
+ * is followed by the final points and rows cleared as varints and the
+ * Zobrist hash of the final grid as eight bytes.
+ *
+ * Since version 2, the keyframes that ReplayPlayer.seek starts from
+ * come after the END event, so that a long replay can be seeked into
+ * without playing it from the start.  There is a keyframe every spacing
+ * ticks, holding the game as it was once every event up to its tick had
+ * happened.  The section holds the spacing, the number of keyframe
+ * ticks it covers, and the number of keyframes stored, as varints.  Then
+ * for each keyframe it holds the number of its first tick (counting in
+ * spacings) and its length as varints, and the keyframe itself:  where
+ * the next event is, the tick and code of the last event, and a
+ * TetrisGame snapshot.  Keyframe 0 is the start of the game and is not
+ * stored, and a keyframe is only stored once for ticks with no events
+ * between them.  The last four bytes of the replay give the position of
+ * the section.  A smaller spacing makes seeks faster and the replay
+ * bigger, by about the size of a snapshot per keyframe.
+ *
+ * Varints store seven bits per byte, lowest first, with the high bit
+ * set on every byte but the last, so most events take a single byte.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class Replay
+{
+    /**
+     * The bytes every replay starts with.
+     */
+    public static final byte[] MAGIC = {'T', 'R', 'P'};
+
+    /**
+     * The version of the format.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * The version before keyframes were stored, which ReplayPlayer
+     * still reads.
+     */
+    public static final int VERSION_WITHOUT_KEYFRAMES = 1;
+
+    /**
+     * The default number of ticks between keyframes, ten seconds of a
+     * game running at 60 ticks a second.
+     */
+    public static final int DEFAULT_SPACING = 600;
+
+    /**
+     * The event code of a gravity step of one row.  The arrow keys
+     * use the codes of CommandQueue, 0 through 3.
+     */
+    public static final int STEP = 4;
+
+    /**
+     * The event code of a gravity step of more than one row.
+     */
+    public static final int STEP_ROWS = 5;
+
+    /**
+     * The event code that repeats the previous arrow key or STEP.
+     */
+    public static final int REPEAT = 6;
+
+    /**
+     * The event code that ends a replay.
+     */
+    public static final int END = 7;
+
+    /**
+     * The number of low bits of an event that hold its code.
+     */
+    public static final int CODE_BITS = 3;
+
+    /**
+     * Replay only has static methods, so it cannot be constructed.
+     */
+    private Replay()
+    {
+    }
+
+    /**
+     * Writes a value as a varint.
+     *
+     * @param out    the buffer to write to; it must have room for
+     *               ten bytes
+     * @param value  the value, treated as unsigned
+     */
+    public static void writeVarint(ByteBuffer out, long value)
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * Makes a keyframe:  where the next event is, the tick and code of
+     * the last event, and a snapshot of the game.
+     *
+     * @param game      the game, with every event before position
+     *                  played on it
+     * @param position  the position of the next event
+     * @param tick      the tick of the last event
+     * @param lastCode  the code of the last event that a REPEAT would
+     *                  repeat, or -1 if there is none
+     *
+     * @return the keyframe
+     */
+    public static byte[] keyframe(TetrisGame game, int position, long tick, int lastCode)
+    {
+        byte[] snapshot = game.snapshot();
+        ByteBuffer keyframe = ByteBuffer.allocate(snapshot.length + 32);
+        writeVarint(keyframe, position);
+        writeVarint(keyframe, tick);
+        keyframe.put((byte) lastCode);
+        keyframe.put(snapshot);
+        return Arrays.copyOf(keyframe.array(), keyframe.position());
+    }
+
+    /**
+     * Reads a varint.
+     *
+     * @param in  the buffer to read from
+     *
+     * @return the value
+     *
+     * @throws IllegalArgumentException if the varint is longer than
+     *         ten bytes
+     */
+    public static long readVarint(ByteBuffer in)
+    {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+            {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint too long");
+    }
+}
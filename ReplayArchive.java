@@ -0,0 +1,629 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * ReplayArchive stores many replays in a few large files.  The replays
+ * are appended one after another to segment files, and a separate index
+ * file has one fixed-width entry per replay giving the segment, offset,
+ * and length of the replay together with the game's final points and
+ * rows cleared.  A replay's id is the number of its entry, so finding a
+ * replay is a single read.  The files are read through memory mappings,
+ * so get returns the replay without copying it.  The index is mapped in
+ * windows of a fixed number of entries, so it can grow past what one
+ * mapping can hold.
+ *
+ * The points and ids of the replays are also kept in memory, sorted by
+ * points, so finding the games in a range of points is a binary search
+ * rather than a scan of the index.  They are read from the index when
+ * the archive is opened and kept sorted as replays are appended.
+ *
+ * Each replay in a segment is preceded by its length and a CRC32 of its
+ * bytes.  A replay is written to its segment before its index entry, so
+ * after a crash the index may end in a partial entry and the segment in
+ * a partial replay, or the last entry may point at bytes that never
+ * reached the disk.  Opening an archive checks the end of the index
+ * against the segments and cuts off whatever was not completely written.
+ *
+ * An archive must only be used by one process at a time.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class ReplayArchive implements Closeable
+{
+    /**
+     * The size of an index entry: the id, segment, offset, length,
+     * points, and rows of a replay.
+     */
+    public static final int ENTRY_SIZE = 8 + 4 + 8 + 4 + 8 + 4;
+
+    /**
+     * The size of the length and CRC before each replay in a segment.
+     */
+    public static final int RECORD_HEADER = 8;
+
+    /**
+     * The size a segment grows to before a new one is started.
+     */
+    public static final long DEFAULT_SEGMENT_SIZE = 64L << 20;
+
+    /**
+     * The most replays an archive can hold, since the sorted points
+     * are kept in arrays.
+     */
+    public static final long MAX_REPLAYS = Integer.MAX_VALUE - 8;
+
+    /**
+     * The number of index entries in each mapping of the index.
+     */
+    private static final int WINDOW_ENTRIES = 1 << 20;
+
+    private static final String INDEX = "index.dat";
+
+    private Path directory;
+    private long segmentSize;
+    private FileChannel index;
+    private ArrayList<FileChannel> segments;
+    private ArrayList<MappedByteBuffer> maps;
+    private ArrayList<MappedByteBuffer> indexMaps;
+    private int windowEntries;
+    private long count;
+    private long[] sortedPoints;
+    private long[] sortedIds;
+
+    /**
+     * Opens an archive with the default segment size, creating it if
+     * it does not exist and recovering it if it was not closed.
+     *
+     * @param dir  the directory of the archive
+     *
+     * @throws IOException if the archive cannot be opened
+     */
+    public ReplayArchive(Path dir) throws IOException
+    {
+        this(dir, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens an archive, creating it if it does not exist and recovering
+     * it if it was not closed.
+     *
+     * @param dir   the directory of the archive
+     * @param size  the size a segment grows to before a new one is
+     *              started;  a replay bigger than this gets a segment
+     *              of its own;  0 < size <= Integer.MAX_VALUE
+     *
+     * @throws IOException if the archive cannot be opened
+     */
+    public ReplayArchive(Path dir, long size) throws IOException
+    {
+        this(dir, size, WINDOW_ENTRIES);
+    }
+
+    /**
+     * Opens an archive whose index is mapped in windows of a given
+     * number of entries.  This is package-private so that tests can
+     * cross windows without millions of replays.
+     *
+     * @param dir     the directory of the archive
+     * @param size    the size a segment grows to before a new one is
+     *                started;  0 < size <= Integer.MAX_VALUE
+     * @param window  the number of index entries in each mapping;
+     *                window > 0
+     *
+     * @throws IOException if the archive cannot be opened
+     */
+    ReplayArchive(Path dir, long size, int window) throws IOException
+    {
+        if (size <= 0 || size > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("segment size " + size
+                + " is not between 1 and " + Integer.MAX_VALUE);
+        }
+        directory = Files.createDirectories(dir);
+        segmentSize = size;
+        windowEntries = window;
+        indexMaps = new ArrayList<MappedByteBuffer>();
+        index = FileChannel.open(dir.resolve(INDEX), StandardOpenOption.CREATE,
+                                 StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segments = new ArrayList<FileChannel>();
+        maps = new ArrayList<MappedByteBuffer>();
+        for (int s = 0; Files.exists(segmentPath(s)); s++)
+        {
+            segments.add(openSegment(s));
+            maps.add(null);
+        }
+        recover();
+    }
+
+    /**
+     * Retrieves the number of replays in the archive.
+     *
+     * @return the number of replays;  ids run from 0 to size() - 1
+     */
+    public synchronized long size()
+    {
+        return count;
+    }
+
+    /**
+     * Appends a replay to the archive.
+     *
+     * @param replay  the replay, as written by ReplayRecorder
+     * @param points  the game's final points
+     * @param rows    the game's final rows cleared
+     *
+     * @return the id of the replay
+     *
+     * @throws IOException if the replay cannot be written
+     * @throws IllegalStateException if the archive already holds
+     *         MAX_REPLAYS replays
+     */
+    public synchronized long append(byte[] replay, long points, int rows) throws IOException
+    {
+        if (count >= MAX_REPLAYS)
+        {
+            throw new IllegalStateException("the archive is full at " + count + " replays");
+        }
+        int segment = segments.size() - 1;
+        long offset = segment < 0 ? 0 : segments.get(segment).size();
+        if (segment < 0 || (offset > 0 && offset + RECORD_HEADER + replay.length > segmentSize))
+        {
+            segment++;
+            segments.add(openSegment(segment));
+            maps.add(null);
+            offset = 0;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(replay);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + replay.length);
+        record.putInt(replay.length).putInt((int) crc.getValue()).put(replay).flip();
+        writeFully(segments.get(segment), record, offset);
+
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+        entry.putLong(count).putInt(segment).putLong(offset).putInt(replay.length)
+             .putLong(points).putInt(rows).flip();
+        writeFully(index, entry, count * ENTRY_SIZE);
+        insertSorted(points, count);
+        count++;
+        return count - 1;
+    }
+
+    /**
+     * Retrieves a replay.  The buffer is a read-only view of the
+     * segment file, so nothing is copied.
+     *
+     * @param id  the id of the replay;  0 <= id < size()
+     *
+     * @return the replay, from position 0 to its limit
+     *
+     * @throws IOException if the segment cannot be mapped
+     */
+    public synchronized ByteBuffer get(long id) throws IOException
+    {
+        MappedByteBuffer entries = window(id);
+        int at = entry(id);
+        int segment = entries.getInt(at + 8);
+        long offset = entries.getLong(at + 12);
+        int length = entries.getInt(at + 20);
+        MappedByteBuffer map = map(segment, offset + RECORD_HEADER + length);
+        ByteBuffer replay = map.duplicate();
+        replay.position((int) offset + RECORD_HEADER);
+        replay.limit((int) offset + RECORD_HEADER + length);
+        return replay.slice();
+    }
+
+    /**
+     * Retrieves the final points of a game.
+     *
+     * @param id  the id of the replay;  0 <= id < size()
+     *
+     * @return the points
+     *
+     * @throws IOException if the index cannot be mapped
+     */
+    public synchronized long getPoints(long id) throws IOException
+    {
+        return window(id).getLong(entry(id) + 24);
+    }
+
+    /**
+     * Retrieves the final rows cleared of a game.
+     *
+     * @param id  the id of the replay;  0 <= id < size()
+     *
+     * @return the rows cleared
+     *
+     * @throws IOException if the index cannot be mapped
+     */
+    public synchronized int getRows(long id) throws IOException
+    {
+        return window(id).getInt(entry(id) + 32);
+    }
+
+    /**
+     * Finds the games whose final points are in a range.  The range is
+     * found by binary search of the sorted points, so this takes time
+     * for the games found rather than for the whole archive.
+     *
+     * @param min  the fewest points
+     * @param max  the most points
+     *
+     * @return the ids of the games, in order
+     */
+    public synchronized long[] findByPoints(long min, long max)
+    {
+        int from = min == Long.MIN_VALUE ? 0 : firstAbove(min - 1);
+        int to = firstAbove(max);
+        if (from >= to)
+        {
+            return new long[0];
+        }
+        long[] found = Arrays.copyOfRange(sortedIds, from, to);
+        Arrays.sort(found);
+        return found;
+    }
+
+    /**
+     * Forces everything written so far to the disk.
+     *
+     * @throws IOException if the files cannot be forced
+     */
+    public synchronized void force() throws IOException
+    {
+        for (int s = 0; s < segments.size(); s++)
+        {
+            segments.get(s).force(false);
+        }
+        index.force(false);
+    }
+
+    /**
+     * Closes the archive's files.  Buffers returned by get stay valid.
+     *
+     * @throws IOException if a file cannot be closed
+     */
+    public synchronized void close() throws IOException
+    {
+        for (int s = 0; s < segments.size(); s++)
+        {
+            segments.get(s).close();
+        }
+        index.close();
+    }
+
+    /**
+     * Cuts off a partial index entry at the end of the index, then
+     * drops entries from the end until the last one points at a replay
+     * that is completely in its segment and matches its CRC, and then
+     * cuts the segments off after that replay.
+     *
+     * @throws IOException if the files cannot be read or truncated
+     */
+    private void recover() throws IOException
+    {
+        count = index.size() / ENTRY_SIZE;
+        int lastSegment = 0;
+        long end = 0;
+        while (count > 0)
+        {
+            ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+            readFully(index, entry, (count - 1) * ENTRY_SIZE);
+            int segment = entry.getInt(8);
+            long offset = entry.getLong(12);
+            int length = entry.getInt(20);
+            if (entry.getLong(0) == count - 1 && segment >= 0 && segment < segments.size()
+                    && isComplete(segments.get(segment), offset, length))
+            {
+                lastSegment = segment;
+                end = offset + RECORD_HEADER + length;
+                break;
+            }
+            count--;
+        }
+        if (count > MAX_REPLAYS)
+        {
+            throw new IOException("the index has " + count + " entries, more than "
+                                  + MAX_REPLAYS);
+        }
+        index.truncate(count * ENTRY_SIZE);
+        sortPoints();
+        for (int s = segments.size() - 1; s > lastSegment; s--)
+        {
+            segments.remove(s).close();
+            maps.remove(s);
+            Files.delete(segmentPath(s));
+        }
+        if (!segments.isEmpty())
+        {
+            segments.get(lastSegment).truncate(end);
+        }
+    }
+
+    /**
+     * Tests whether a replay was completely written to a segment.
+     *
+     * @param segment  the segment
+     * @param offset   the offset of the replay's record
+     * @param length   the length of the replay
+     *
+     * @return true if the record's length and CRC match; otherwise,
+     *         false
+     *
+     * @throws IOException if the segment cannot be read
+     */
+    private static boolean isComplete(FileChannel segment, long offset, int length)
+        throws IOException
+    {
+        if (offset < 0 || length < 0 || offset + RECORD_HEADER + length > segment.size())
+        {
+            return false;
+        }
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + length);
+        readFully(segment, record, offset);
+        if (record.getInt(0) != length)
+        {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        record.position(RECORD_HEADER);
+        crc.update(record);
+        return record.getInt(4) == (int) crc.getValue();
+    }
+
+    /**
+     * Reads the points of every entry in the index and sorts them,
+     * with their ids, by points.
+     *
+     * @throws IOException if the index cannot be mapped
+     */
+    private void sortPoints() throws IOException
+    {
+        int n = (int) count;
+        sortedPoints = new long[Math.max(16, n)];
+        sortedIds = new long[sortedPoints.length];
+        for (int id = 0; id < n; id++)
+        {
+            sortedPoints[id] = window(id).getLong(entry(id) + 24);
+            sortedIds[id] = id;
+        }
+        long[] points = new long[n];
+        long[] ids = new long[n];
+        for (int width = 1; width < n; width *= 2)
+        {
+            for (int lo = 0; lo < n; lo += 2 * width)
+            {
+                merge(lo, Math.min(lo + width, n), Math.min(lo + 2 * width, n), points, ids);
+            }
+            System.arraycopy(points, 0, sortedPoints, 0, n);
+            System.arraycopy(ids, 0, sortedIds, 0, n);
+        }
+    }
+
+    /**
+     * Merges two neighbouring sorted runs of the sorted points into
+     * other arrays, keeping equal points in the order of their ids.
+     *
+     * @param lo      the start of the first run
+     * @param mid     the end of the first run and start of the second
+     * @param hi      the end of the second run
+     * @param points  where the merged points go, from lo
+     * @param ids     where the merged ids go, from lo
+     */
+    private void merge(int lo, int mid, int hi, long[] points, long[] ids)
+    {
+        int i = lo;
+        int j = mid;
+        for (int k = lo; k < hi; k++)
+        {
+            if (j >= hi || (i < mid && sortedPoints[i] <= sortedPoints[j]))
+            {
+                points[k] = sortedPoints[i];
+                ids[k] = sortedIds[i];
+                i++;
+            }
+            else
+            {
+                points[k] = sortedPoints[j];
+                ids[k] = sortedIds[j];
+                j++;
+            }
+        }
+    }
+
+    /**
+     * Adds a replay to the sorted points, after any with the same
+     * points.
+     *
+     * @param points  the replay's points
+     * @param id      the replay's id, which is count
+     */
+    private void insertSorted(long points, long id)
+    {
+        int n = (int) count;
+        if (n == sortedPoints.length)
+        {
+            int length = (int) Math.min(MAX_REPLAYS, 2L * n);
+            sortedPoints = Arrays.copyOf(sortedPoints, length);
+            sortedIds = Arrays.copyOf(sortedIds, length);
+        }
+        int at = firstAbove(points);
+        System.arraycopy(sortedPoints, at, sortedPoints, at + 1, n - at);
+        System.arraycopy(sortedIds, at, sortedIds, at + 1, n - at);
+        sortedPoints[at] = points;
+        sortedIds[at] = id;
+    }
+
+    /**
+     * Finds the first of the sorted points that is more than a value.
+     *
+     * @param points  the value
+     *
+     * @return the position of the first sorted points above it, or
+     *         count if there are none
+     */
+    private int firstAbove(long points)
+    {
+        int lo = 0;
+        int hi = (int) count;
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (sortedPoints[mid] <= points)
+            {
+                lo = mid + 1;
+            }
+            else
+            {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Finds the position of an id's entry in the mapping of the index
+     * window that holds it.
+     *
+     * @param id  the id of a replay
+     *
+     * @return the position of its entry in its window
+     */
+    private int entry(long id)
+    {
+        if (id < 0 || id >= count)
+        {
+            throw new IndexOutOfBoundsException("no replay " + id);
+        }
+        return (int) (id % windowEntries) * ENTRY_SIZE;
+    }
+
+    /**
+     * Retrieves the mapping of the index window that holds an id's
+     * entry, mapping it again if the window has grown.
+     *
+     * @param id  the id of a replay;  0 <= id < count
+     *
+     * @return the mapping
+     *
+     * @throws IOException if the index cannot be mapped
+     */
+    private MappedByteBuffer window(long id) throws IOException
+    {
+        int w = (int) (id / windowEntries);
+        while (indexMaps.size() <= w)
+        {
+            indexMaps.add(null);
+        }
+        MappedByteBuffer map = indexMaps.get(w);
+        long start = (long) w * windowEntries;
+        if (map == null || map.capacity() < (id - start + 1) * ENTRY_SIZE)
+        {
+            long entries = Math.min(windowEntries, count - start);
+            map = index.map(FileChannel.MapMode.READ_ONLY, start * ENTRY_SIZE,
+                            entries * ENTRY_SIZE);
+            indexMaps.set(w, map);
+        }
+        return map;
+    }
+
+    /**
+     * Retrieves a mapping of a segment that covers a number of bytes,
+     * mapping it again if it has grown.
+     *
+     * @param segment  the segment
+     * @param bytes    the number of bytes the mapping must cover
+     *
+     * @return the mapping
+     *
+     * @throws IOException if the segment cannot be mapped
+     */
+    private MappedByteBuffer map(int segment, long bytes) throws IOException
+    {
+        MappedByteBuffer map = maps.get(segment);
+        if (map == null || map.capacity() < bytes)
+        {
+            FileChannel channel = segments.get(segment);
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            maps.set(segment, map);
+        }
+        return map;
+    }
+
+    /**
+     * Retrieves the path of a segment file.
+     *
+     * @param segment  the number of the segment
+     *
+     * @return the path
+     */
+    private Path segmentPath(int segment)
+    {
+        return directory.resolve(String.format("segment-%05d.dat", segment));
+    }
+
+    /**
+     * Opens a segment file, creating it if it does not exist.
+     *
+     * @param segment  the number of the segment
+     *
+     * @return the channel of the segment
+     *
+     * @throws IOException if the file cannot be opened
+     */
+    private FileChannel openSegment(int segment) throws IOException
+    {
+        return FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE,
+                                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Writes all of a buffer to a channel.
+     *
+     * @param channel   the channel
+     * @param buffer    the bytes to write
+     * @param position  where in the channel to write them
+     *
+     * @throws IOException if the bytes cannot be written
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position)
+        throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Fills a buffer from a channel.
+     *
+     * @param channel   the channel
+     * @param buffer    the buffer to fill
+     * @param position  where in the channel to read from
+     *
+     * @throws IOException if the bytes cannot be read
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+        throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            int read = channel.read(buffer, position);
+            if (read < 0)
+            {
+                throw new IOException("unexpected end of file");
+            }
+            position += read;
+        }
+    }
+}
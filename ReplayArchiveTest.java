@@ -0,0 +1,259 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The test class ReplayArchiveTest checks that replays can be found in
+ * an archive by id and by points, that an archive opens again after it
+ * is closed, and that the end of a damaged archive is cut off.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class ReplayArchiveTest
+{
+    /**
+     * Makes a replay-sized array of bytes.
+     *
+     * @param n  what to fill it with
+     *
+     * @return the bytes
+     */
+    private static byte[] bytes(int n)
+    {
+        byte[] data = new byte[50 + n];
+        for (int i = 0; i < data.length; i++)
+        {
+            data[i] = (byte) (n + i);
+        }
+        return data;
+    }
+
+    /**
+     * Reads the bytes of a buffer.
+     *
+     * @param buffer  the buffer
+     *
+     * @return its remaining bytes
+     */
+    private static byte[] read(ByteBuffer buffer)
+    {
+        byte[] data = new byte[buffer.remaining()];
+        buffer.duplicate().get(data);
+        return data;
+    }
+
+    /**
+     * Deletes a directory and the files in it.
+     *
+     * @param dir  the directory
+     *
+     * @throws IOException if it cannot be deleted
+     */
+    private static void delete(Path dir) throws IOException
+    {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir))
+        {
+            for (Path file : files)
+            {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    /**
+     * Tests that replays are found by id and by points, across several
+     * segments and after the archive is opened again, and that a
+     * replay plays from the archive.
+     *
+     * @throws IOException if the archive cannot be written or read
+     */
+    @Test
+    public void appendAndGet() throws IOException
+    {
+        Path dir = Files.createTempDirectory("archive");
+        try
+        {
+            TetrisGame game = new TetrisGame(20, 10, new PieceGenerator(5L, PieceGenerator.BAG, 1));
+            ReplayRecorder recorder = new ReplayRecorder(game);
+            AutoPlayer player = new AutoPlayer(new Heuristic());
+            for (int i = 0; i < 2000 && !game.isGameOver(); i++)
+            {
+                recorder.tick();
+                player.move(game, recorder);
+                recorder.step(1);
+            }
+
+            try (ReplayArchive archive = new ReplayArchive(dir, 300))
+            {
+                for (int i = 0; i < 10; i++)
+                {
+                    assertEquals("append fails", i, archive.append(bytes(i), i * 100, i));
+                }
+                assertEquals("append fails", 10, archive.append(recorder.finish(),
+                    game.getPoints(), game.getRowsCleared()));
+                assertArrayEquals("get fails", bytes(3), read(archive.get(3)));
+                ReplayPlayer replay = new ReplayPlayer(archive.get(10));
+                assertTrue("get fails", replay.verify(replay.play()));
+            }
+            assertTrue("append fails", Files.exists(dir.resolve("segment-00002.dat")));
+
+            try (ReplayArchive archive = new ReplayArchive(dir, 300))
+            {
+                assertEquals("size fails", 11, archive.size());
+                for (int i = 0; i < 10; i++)
+                {
+                    assertArrayEquals("get fails", bytes(i), read(archive.get(i)));
+                    assertEquals("getPoints fails", i * 100, archive.getPoints(i));
+                    assertEquals("getRows fails", i, archive.getRows(i));
+                }
+                assertArrayEquals("findByPoints fails", new long[] {2, 3, 4},
+                                  archive.findByPoints(150, 400));
+                assertEquals("append fails", 11, archive.append(bytes(11), 250, 0));
+                assertArrayEquals("findByPoints fails", new long[] {3, 11},
+                                  archive.findByPoints(250, 399));
+            }
+        }
+        finally
+        {
+            delete(dir);
+        }
+    }
+
+    /**
+     * Checks findByPoints against a scan of every replay's points for
+     * ranges that start and end below, at, between, and above them.
+     *
+     * @param archive  the archive
+     *
+     * @throws IOException if the archive cannot be read
+     */
+    private static void checkRanges(ReplayArchive archive) throws IOException
+    {
+        for (long min = -10; min <= 110; min += 7)
+        {
+            for (long max = min - 3; max <= 120; max += 11)
+            {
+                long[] scan = new long[(int) archive.size()];
+                int found = 0;
+                for (long id = 0; id < archive.size(); id++)
+                {
+                    long points = archive.getPoints(id);
+                    if (points >= min && points <= max)
+                    {
+                        scan[found] = id;
+                        found++;
+                    }
+                }
+                assertArrayEquals("findByPoints fails", Arrays.copyOf(scan, found),
+                                  archive.findByPoints(min, max));
+            }
+        }
+        assertEquals("findByPoints fails", archive.size(),
+                     archive.findByPoints(Long.MIN_VALUE, Long.MAX_VALUE).length);
+    }
+
+    /**
+     * Tests that the index is read across several mapping windows and
+     * that findByPoints matches a scan of the index, as replays are
+     * appended and after the archive is opened again.
+     *
+     * @throws IOException if the archive cannot be written or read
+     */
+    @Test
+    public void windowsAndRanges() throws IOException
+    {
+        Path dir = Files.createTempDirectory("archive");
+        try
+        {
+            Random random = new Random(16L);
+            try (ReplayArchive archive = new ReplayArchive(dir, 4096, 7))
+            {
+                for (int i = 0; i < 150; i++)
+                {
+                    archive.append(bytes(i % 20), random.nextInt(100), i);
+                }
+                checkRanges(archive);
+            }
+            try (ReplayArchive archive = new ReplayArchive(dir, 4096, 7))
+            {
+                assertEquals("size fails", 150, archive.size());
+                for (int i = 0; i < 150; i++)
+                {
+                    assertArrayEquals("get fails", bytes(i % 20), read(archive.get(i)));
+                    assertEquals("getRows fails", i, archive.getRows(i));
+                }
+                checkRanges(archive);
+                for (int i = 150; i < 200; i++)
+                {
+                    archive.append(bytes(i % 20), random.nextInt(100), i);
+                }
+                checkRanges(archive);
+                assertEquals("getRows fails", 199, archive.getRows(199));
+            }
+        }
+        finally
+        {
+            delete(dir);
+        }
+    }
+
+    /**
+     * Tests that opening an archive cuts off a partial index entry, a
+     * partial replay, and an entry for a replay that did not reach its
+     * segment.
+     *
+     * @throws IOException if the archive cannot be written or read
+     */
+    @Test
+    public void recover() throws IOException
+    {
+        Path dir = Files.createTempDirectory("archive");
+        try
+        {
+            try (ReplayArchive archive = new ReplayArchive(dir))
+            {
+                archive.append(bytes(0), 10, 1);
+                archive.append(bytes(1), 20, 2);
+                archive.append(bytes(2), 30, 3);
+            }
+            Path index = dir.resolve("index.dat");
+            Path segment = dir.resolve("segment-00000.dat");
+            long indexSize = Files.size(index);
+            long segmentSize = Files.size(segment);
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE))
+            {
+                // the last replay was only partly written
+                channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}), segmentSize - 30);
+                channel.write(ByteBuffer.wrap(new byte[] {0, 0, 1, 0, 9}), segmentSize);
+            }
+            Files.write(index, new byte[7], StandardOpenOption.APPEND);
+
+            try (ReplayArchive archive = new ReplayArchive(dir))
+            {
+                assertEquals("recover fails", 2, archive.size());
+                assertEquals("recover fails", indexSize - ReplayArchive.ENTRY_SIZE,
+                             Files.size(index));
+                assertEquals("recover fails", segmentSize - ReplayArchive.RECORD_HEADER
+                             - bytes(2).length, Files.size(segment));
+                assertArrayEquals("recover fails", bytes(1), read(archive.get(1)));
+                assertEquals("append fails", 2, archive.append(bytes(2), 30, 3));
+                assertArrayEquals("findByPoints fails", new long[] {1, 2},
+                                  archive.findByPoints(20, 30));
+            }
+        }
+        finally
+        {
+            delete(dir);
+        }
+    }
+}
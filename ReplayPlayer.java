@@ -0,0 +1,485 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+/**
+ * ReplayPlayer plays a replay written by ReplayRecorder again on a new
+ * TetrisGame, without a display and as fast as it can.  Since the game
+ * is deterministic for a seed and a list of events, the replayed game
+ * ends exactly where the recorded one did, which verify checks against
+ * the points, rows, and grid hash stored at the end of the replay.
+ *
+ * To seek within a long replay without playing it from the start, the
+ * player uses keyframes:  every spacing ticks, a TetrisGame snapshot
+ * together with where the game was in the replay.  seek returns a game
+ * to the last keyframe at or before the tick it is asked for and plays
+ * on from there, so it never plays more than spacing ticks of events.
+ * ReplayRecorder stores the keyframes at the end of the replay, so even
+ * the first seek of a new player is quick; the spacing the replay was
+ * recorded with trades its size against the time a seek takes.  For a
+ * replay recorded before keyframes were stored, the player makes them
+ * as it first plays past their ticks.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class ReplayPlayer
+{
+    private ByteBuffer replay;
+    private int rows;
+    private int cols;
+    private int mode;
+    private int previewSize;
+    private long seed;
+    private int eventsStart;
+    private long tick;
+    private int lastCode;
+    private boolean ended;
+    private long finalPoints;
+    private long finalRows;
+    private long finalHash;
+    private int spacing;
+    private ArrayList<ByteBuffer> keyframes;
+
+    /**
+     * Constructs a player for a replay.
+     *
+     * @param data  the replay;  the player reads it but does not copy it
+     *
+     * @throws IllegalArgumentException if data does not start with a
+     *         replay header or its keyframes are cut off
+     */
+    public ReplayPlayer(ByteBuffer data)
+    {
+        this(data, Replay.DEFAULT_SPACING);
+    }
+
+    /**
+     * Constructs a player for a replay.
+     *
+     * @param data     the replay;  the player reads it but does not copy it
+     * @param spcing   the number of ticks between the keyframes the
+     *                 player makes for a replay recorded without them;
+     *                 spcing > 0
+     *
+     * @throws IllegalArgumentException if data does not start with a
+     *         replay header, its keyframes are cut off, or spcing is
+     *         not positive
+     */
+    public ReplayPlayer(ByteBuffer data, int spcing)
+    {
+        if (spcing <= 0)
+        {
+            throw new IllegalArgumentException("invalid keyframe spacing " + spcing);
+        }
+        spacing = spcing;
+        keyframes = new ArrayList<ByteBuffer>();
+        replay = data.slice();
+        int version;
+        try
+        {
+            for (int i = 0; i < Replay.MAGIC.length; i++)
+            {
+                if (replay.get() != Replay.MAGIC[i])
+                {
+                    throw new IllegalArgumentException("not a replay");
+                }
+            }
+            version = replay.get();
+            if (version != Replay.VERSION && version != Replay.VERSION_WITHOUT_KEYFRAMES)
+            {
+                throw new IllegalArgumentException("unknown replay version " + version);
+            }
+            rows = (int) Replay.readVarint(replay);
+            cols = (int) Replay.readVarint(replay);
+            mode = replay.get();
+            previewSize = (int) Replay.readVarint(replay);
+            seed = replay.getLong();
+        }
+        catch (BufferUnderflowException e)
+        {
+            throw new IllegalArgumentException("replay header is cut off", e);
+        }
+        eventsStart = replay.position();
+        if (version == Replay.VERSION)
+        {
+            readKeyframes();
+        }
+    }
+
+    /**
+     * Reads the keyframes stored at the end of the replay.  Keyframe 0
+     * is made from a new game, and a stored keyframe also serves the
+     * keyframe ticks after it that it does not store.
+     *
+     * @throws IllegalArgumentException if the keyframes are cut off
+     */
+    private void readKeyframes()
+    {
+        try
+        {
+            ByteBuffer in = replay.duplicate();
+            in.position(in.getInt(in.limit() - 4));
+            in.limit(in.limit() - 4);
+            spacing = (int) Replay.readVarint(in);
+            long ticks = Replay.readVarint(in);
+            long count = Replay.readVarint(in);
+            if (spacing <= 0)
+            {
+                throw new IllegalArgumentException("invalid keyframe spacing " + spacing);
+            }
+            keyframes.add(ByteBuffer.wrap(Replay.keyframe(
+                new TetrisGame(rows, cols, new PieceGenerator(seed, mode, previewSize)),
+                eventsStart, 0, -1)));
+            for (long i = 0; i < count; i++)
+            {
+                long first = Replay.readVarint(in);
+                int length = (int) Replay.readVarint(in);
+                ByteBuffer keyframe = in.slice();
+                keyframe.limit(length);
+                in.position(in.position() + length);
+                while (keyframes.size() < first)
+                {
+                    keyframes.add(keyframes.get(keyframes.size() - 1));
+                }
+                keyframes.add(keyframe);
+            }
+            while (keyframes.size() < ticks)
+            {
+                keyframes.add(keyframes.get(keyframes.size() - 1));
+            }
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException e)
+        {
+            throw new IllegalArgumentException("replay keyframes are cut off", e);
+        }
+    }
+
+    /**
+     * Constructs a player for a replay.
+     *
+     * @param data  the replay
+     */
+    public ReplayPlayer(byte[] data)
+    {
+        this(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Reads a replay from a file.
+     *
+     * @param file  the file written by ReplayRecorder.save
+     *
+     * @return a player for the replay
+     *
+     * @throws IOException if the file cannot be read
+     */
+    public static ReplayPlayer load(Path file) throws IOException
+    {
+        return new ReplayPlayer(Files.readAllBytes(file));
+    }
+
+    /**
+     * Retrieves the seed of the recorded game's piece generator.
+     *
+     * @return the seed
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Retrieves the tick of the last event played.
+     *
+     * @return the tick
+     */
+    public long getTick()
+    {
+        return tick;
+    }
+
+    /**
+     * Retrieves the number of ticks between keyframes.
+     *
+     * @return the keyframe spacing
+     */
+    public int getSpacing()
+    {
+        return spacing;
+    }
+
+    /**
+     * Retrieves the number of keyframes read from the replay or made
+     * so far.
+     *
+     * @return the number of keyframes;  keyframe k is at tick k * spacing
+     */
+    public int getKeyframeCount()
+    {
+        return keyframes.size();
+    }
+
+    /**
+     * Tests whether every event has been played.
+     *
+     * @return true if the end of the replay was reached; otherwise,
+     *         false
+     */
+    public boolean isEnded()
+    {
+        return ended;
+    }
+
+    /**
+     * Constructs a game in the state the recorded game started in and
+     * moves back to the first event.
+     *
+     * @return the new game
+     */
+    public TetrisGame newGame()
+    {
+        replay.position(eventsStart);
+        tick = 0;
+        lastCode = -1;
+        ended = false;
+        return new TetrisGame(rows, cols, new PieceGenerator(seed, mode, previewSize));
+    }
+
+    /**
+     * Plays the next event on a game.
+     *
+     * @param game  the game made by newGame, with every earlier
+     *              event played on it
+     *
+     * @return true if an event was played; false if the replay has ended
+     *
+     * @throws IllegalArgumentException if the replay is cut off or has
+     *         an unknown event
+     */
+    public boolean advance(TetrisGame game)
+    {
+        if (ended)
+        {
+            return false;
+        }
+        try
+        {
+            int position = replay.position();
+            long event = Replay.readVarint(replay);
+            long next = tick + (event >>> Replay.CODE_BITS);
+            ByteBuffer keyframe = null;
+            while ((long) keyframes.size() * spacing < next)
+            {
+                // every event up to the keyframe's tick has been played
+                if (keyframe == null)
+                {
+                    keyframe = keyframe(game, position);
+                }
+                keyframes.add(keyframe);
+            }
+            tick = next;
+            int code = (int) (event & ((1 << Replay.CODE_BITS) - 1));
+            if (code <= Replay.STEP)
+            {
+                apply(code, game);
+                lastCode = code;
+            }
+            else if (code == Replay.REPEAT)
+            {
+                long count = Replay.readVarint(replay);
+                if (lastCode < 0)
+                {
+                    throw new IllegalArgumentException("nothing to repeat");
+                }
+                for (long i = 0; i < count; i++)
+                {
+                    apply(lastCode, game);
+                }
+            }
+            else if (code == Replay.STEP_ROWS)
+            {
+                game.step((int) Replay.readVarint(replay));
+                lastCode = -1;
+            }
+            else if (code == Replay.END)
+            {
+                finalPoints = Replay.readVarint(replay);
+                finalRows = Replay.readVarint(replay);
+                finalHash = replay.getLong();
+                ended = true;
+                return false;
+            }
+            else
+            {
+                throw new IllegalArgumentException("unknown replay event " + code);
+            }
+            return true;
+        }
+        catch (BufferUnderflowException e)
+        {
+            throw new IllegalArgumentException("replay is cut off", e);
+        }
+    }
+
+    /**
+     * Moves a game to a tick of the replay:  every event up to and
+     * including that tick is played on it, and no later event.  The
+     * game is returned to the nearest keyframe first unless it is
+     * already between that keyframe and the tick.  Seeking past the
+     * last keyframe made plays on from it, making keyframes on the way.
+     *
+     * @param game    the game made by newGame
+     * @param target  the tick to move to;  target >= 0
+     *
+     * @throws IllegalArgumentException if the replay is cut off or has
+     *         an unknown event
+     */
+    public void seek(TetrisGame game, long target)
+    {
+        int k = (int) Math.min(target / spacing, keyframes.size() - 1);
+        if (k >= 0 && (tick > target || tick < (long) k * spacing))
+        {
+            ByteBuffer keyframe = keyframes.get(k).duplicate();
+            replay.position((int) Replay.readVarint(keyframe));
+            tick = Replay.readVarint(keyframe);
+            lastCode = keyframe.get();
+            ended = false;
+            byte[] snapshot = new byte[keyframe.remaining()];
+            keyframe.get(snapshot);
+            game.restore(snapshot);
+        }
+        while (!ended && !isAfter(target))
+        {
+            advance(game);
+        }
+    }
+
+    /**
+     * Tests whether the next event comes after a tick, without
+     * playing it.
+     *
+     * @param target  the tick
+     *
+     * @return true if the replay has ended or its next event is later
+     *         than target; otherwise,
+     *         false
+     */
+    private boolean isAfter(long target)
+    {
+        if (ended)
+        {
+            return true;
+        }
+        int position = replay.position();
+        try
+        {
+            return tick + (Replay.readVarint(replay) >>> Replay.CODE_BITS) > target;
+        }
+        catch (BufferUnderflowException e)
+        {
+            throw new IllegalArgumentException("replay is cut off", e);
+        }
+        finally
+        {
+            replay.position(position);
+        }
+    }
+
+    /**
+     * Makes a keyframe of a game at the current place in the replay.
+     *
+     * @param game      the game
+     * @param position  the position of the next event
+     *
+     * @return the keyframe
+     */
+    private ByteBuffer keyframe(TetrisGame game, int position)
+    {
+        return ByteBuffer.wrap(Replay.keyframe(game, position, tick, lastCode));
+    }
+
+    /**
+     * Applies an arrow key or a one-row STEP to a game.
+     *
+     * @param code  the code of the event
+     * @param game  the game
+     */
+    private static void apply(int code, TetrisGame game)
+    {
+        if (code == Replay.STEP)
+        {
+            game.step(1);
+        }
+        else
+        {
+            CommandQueue.apply(code, game);
+        }
+    }
+
+    /**
+     * Plays the whole replay on a new game.
+     *
+     * @return the game at the end of the replay
+     */
+    public TetrisGame play()
+    {
+        TetrisGame game = newGame();
+        while (advance(game))
+        {
+            // nothing else to do
+        }
+        return game;
+    }
+
+    /**
+     * Checks that a game that has played the whole replay ended like
+     * the recorded one.
+     *
+     * @param game  the game
+     *
+     * @return true if the points, rows cleared, and grid match the
+     *         end of the replay; otherwise,
+     *         false
+     */
+    public boolean verify(TetrisGame game)
+    {
+        return ended && game.getPoints() == finalPoints
+            && game.getRowsCleared() == finalRows
+            && game.getGrid().getHash() == finalHash;
+    }
+
+    /**
+     * Plays a replay and reports whether it verifies.
+     *
+     * @param args  a replay file, or the directory of a ReplayArchive
+     *              and the id of a replay in it
+     *
+     * @throws IOException if the replay cannot be read
+     */
+    public static void main(String[] args) throws IOException
+    {
+        ReplayPlayer player;
+        if (args.length > 1)
+        {
+            try (ReplayArchive archive = new ReplayArchive(Paths.get(args[0])))
+            {
+                player = new ReplayPlayer(archive.get(Long.parseLong(args[1])));
+            }
+        }
+        else
+        {
+            player = load(Paths.get(args[0]));
+        }
+        long start = System.nanoTime();
+        TetrisGame game = player.play();
+        System.out.println((player.verify(game) ? "verified" : "MISMATCH") + ": "
+                           + game.getPoints() + " points, " + game.getRowsCleared()
+                           + " rows, " + player.getTick() + " ticks in "
+                           + (System.nanoTime() - start) / 1000 + " us");
+    }
+}
@@ -0,0 +1,283 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * ReplayRecorder records a game as a replay (see Replay for the format).
+ * It sits between the input and the game: the arrow keys and gravity
+ * steps are passed to the recorder, which writes them down and then
+ * applies them to the game.  Since the shapes come from a seeded
+ * PieceGenerator, the seed and the events are enough to play the game
+ * again exactly.  The recorder must be created before anything happens
+ * in the game, and it must only be used from the thread that runs it.
+ *
+ * The recorder also stores the keyframes that ReplayPlayer seeks from.
+ * When it writes the first event after a keyframe's tick, it takes a
+ * snapshot of the game, which at that moment has had every earlier
+ * event applied to it.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class ReplayRecorder implements ArrowListener
+{
+    private TetrisGame game;
+    private ByteBuffer buffer;
+    private long tick;
+    private long lastTick;
+    private int lastCode;
+    private int repeats;
+    private byte[] finished;
+    private int spacing;
+    private long keyframeTicks;
+    private int keyframeCount;
+    private ByteBuffer keyframes;
+
+    /**
+     * Constructs a recorder for a game that has just started, with a
+     * keyframe every Replay.DEFAULT_SPACING ticks.
+     *
+     * @param gm  the game to record
+     */
+    public ReplayRecorder(TetrisGame gm)
+    {
+        this(gm, Replay.DEFAULT_SPACING);
+    }
+
+    /**
+     * Constructs a recorder for a game that has just started.
+     *
+     * @param gm      the game to record
+     * @param spcing  the number of ticks between keyframes;  spcing > 0
+     *
+     * @throws IllegalArgumentException if spcing is not positive
+     */
+    public ReplayRecorder(TetrisGame gm, int spcing)
+    {
+        if (spcing <= 0)
+        {
+            throw new IllegalArgumentException("invalid keyframe spacing " + spcing);
+        }
+        game = gm;
+        spacing = spcing;
+        // keyframe 0 is the start of the game, which the player makes
+        keyframeTicks = 1;
+        keyframes = ByteBuffer.allocate(256);
+        buffer = ByteBuffer.allocate(256);
+        buffer.put(Replay.MAGIC);
+        buffer.put((byte) Replay.VERSION);
+        MyBoundedGrid<Block> grid = game.getGrid();
+        Replay.writeVarint(buffer, grid.getNumRows());
+        Replay.writeVarint(buffer, grid.getNumCols());
+        PieceGenerator pieces = game.getPieceGenerator();
+        buffer.put((byte) pieces.getMode());
+        Replay.writeVarint(buffer, pieces.getPreviewSize());
+        buffer.putLong(pieces.getSeed());
+        lastCode = -1;
+    }
+
+    /**
+     * Retrieves the game being recorded.
+     *
+     * @return the game
+     */
+    public TetrisGame getGame()
+    {
+        return game;
+    }
+
+    /**
+     * Retrieves the current tick.
+     *
+     * @return the number of times tick has been called
+     */
+    public long getTick()
+    {
+        return tick;
+    }
+
+    /**
+     * Moves the recorder's clock on by one tick.  The loop that runs the
+     * game calls this once per tick, whether or not anything happens.
+     */
+    public void tick()
+    {
+        tick++;
+    }
+
+    /**
+     * Records the up arrow and rotates the active tetrad.
+     */
+    public void upPressed()
+    {
+        record(CommandQueue.UP);
+        game.upPressed();
+    }
+
+    /**
+     * Records the down arrow and moves the active tetrad down.
+     */
+    public void downPressed()
+    {
+        record(CommandQueue.DOWN);
+        game.downPressed();
+    }
+
+    /**
+     * Records the left arrow and moves the active tetrad to the left.
+     */
+    public void leftPressed()
+    {
+        record(CommandQueue.LEFT);
+        game.leftPressed();
+    }
+
+    /**
+     * Records the right arrow and moves the active tetrad to the right.
+     */
+    public void rightPressed()
+    {
+        record(CommandQueue.RIGHT);
+        game.rightPressed();
+    }
+
+    /**
+     * Records a gravity step and moves the game on by it.
+     *
+     * @param rows  the most rows the tetrad may fall;  rows >= 1
+     *
+     * @return the number of rows cleared in this step
+     */
+    public int step(int rows)
+    {
+        if (rows == 1)
+        {
+            record(Replay.STEP);
+        }
+        else
+        {
+            record(Replay.STEP_ROWS);
+            Replay.writeVarint(buffer, rows);
+            // the rows make this event different from the next one
+            lastCode = -1;
+        }
+        return game.step(rows);
+    }
+
+    /**
+     * Ends the recording with the game's final points, rows cleared,
+     * and grid hash, which the player checks, followed by the
+     * keyframes.  Nothing is recorded after this.
+     *
+     * @return the replay
+     */
+    public byte[] finish()
+    {
+        if (finished == null)
+        {
+            record(Replay.END);
+            Replay.writeVarint(buffer, game.getPoints());
+            Replay.writeVarint(buffer, game.getRowsCleared());
+            buffer.putLong(game.getGrid().getHash());
+            int section = buffer.position();
+            buffer = ensure(buffer, keyframes.position() + 40);
+            Replay.writeVarint(buffer, spacing);
+            Replay.writeVarint(buffer, keyframeTicks);
+            Replay.writeVarint(buffer, keyframeCount);
+            keyframes.flip();
+            buffer.put(keyframes);
+            buffer.putInt(section);
+            finished = Arrays.copyOf(buffer.array(), buffer.position());
+        }
+        return finished;
+    }
+
+    /**
+     * Ends the recording and writes the replay to a file.
+     *
+     * @param file  the file to write
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException
+    {
+        Files.write(file, finish());
+    }
+
+    /**
+     * Writes an event, or counts it if it repeats the previous event
+     * in the same tick.
+     *
+     * @param code  the code of the event
+     */
+    private void record(int code)
+    {
+        if (finished != null)
+        {
+            throw new IllegalStateException("the replay is finished");
+        }
+        if (code == lastCode && tick == lastTick)
+        {
+            repeats++;
+            return;
+        }
+        if (repeats > 0)
+        {
+            // the repeats happened in the tick of the event they repeat
+            write(Replay.REPEAT, lastTick);
+            Replay.writeVarint(buffer, repeats);
+            repeats = 0;
+        }
+        write(code, tick);
+        lastCode = code;
+    }
+
+    /**
+     * Writes an event, making sure the buffer has room for it and
+     * anything that follows it.  If the event comes after the tick of
+     * the next keyframe, the keyframe is stored first.
+     *
+     * @param code  the code of the event
+     * @param at    the tick of the event
+     */
+    private void write(int code, long at)
+    {
+        if (keyframeTicks * spacing < at)
+        {
+            // the same keyframe serves every keyframe tick before this event
+            byte[] keyframe = Replay.keyframe(game, buffer.position(), lastTick, lastCode);
+            keyframes = ensure(keyframes, keyframe.length + 20);
+            Replay.writeVarint(keyframes, keyframeTicks);
+            Replay.writeVarint(keyframes, keyframe.length);
+            keyframes.put(keyframe);
+            keyframeCount++;
+            keyframeTicks = (at + spacing - 1) / spacing;
+        }
+        buffer = ensure(buffer, 32);
+        Replay.writeVarint(buffer, (at - lastTick) << Replay.CODE_BITS | code);
+        lastTick = at;
+    }
+
+    /**
+     * Makes sure a buffer has room for a number of bytes.
+     *
+     * @param out     the buffer
+     * @param needed  the number of bytes
+     *
+     * @return the buffer, or a bigger copy of it
+     */
+    private static ByteBuffer ensure(ByteBuffer out, int needed)
+    {
+        if (out.remaining() >= needed)
+        {
+            return out;
+        }
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(out.capacity() * 2,
+                                                         out.position() + needed));
+        out.flip();
+        bigger.put(out);
+        return bigger;
+    }
+}
@@ -0,0 +1,239 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The test class ReplayTest checks that a recorded game plays back to
+ * the same end, that replays are small, that seeking through keyframes
+ * reaches the same game as playing, and that a damaged replay is caught.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class ReplayTest
+{
+    /**
+     * Records a game played by an AutoPlayer with gravity every
+     * few ticks, like a game at level 1.
+     *
+     * @param seed   the seed of the piece generator
+     * @param ticks  the most ticks to play
+     *
+     * @return the recorder of the game
+     */
+    private static ReplayRecorder record(long seed, int ticks)
+    {
+        return record(seed, ticks, null, Replay.DEFAULT_SPACING);
+    }
+
+    /**
+     * Records a game played by an AutoPlayer with gravity every
+     * few ticks, like a game at level 1.
+     *
+     * @param seed    the seed of the piece generator
+     * @param ticks   the most ticks to play
+     * @param hashes   if not null, filled with the hash of the active
+     *                 tetrad and grid after each tick, from tick 0 on
+     * @param spacing  the number of ticks between keyframes
+     *
+     * @return the recorder of the game
+     */
+    private static ReplayRecorder record(long seed, int ticks, long[] hashes, int spacing)
+    {
+        TetrisGame game = new TetrisGame(20, 10,
+            new PieceGenerator(seed, PieceGenerator.BAG, 1));
+        ReplayRecorder recorder = new ReplayRecorder(game, spacing);
+        AutoPlayer player = new AutoPlayer(new Heuristic());
+        if (hashes != null)
+        {
+            hashes[0] = game.getActiveTetrad().getHash();
+        }
+        for (int i = 0; i < ticks && !game.isGameOver(); i++)
+        {
+            recorder.tick();
+            player.move(game, recorder);
+            if (i % 12 == 0)
+            {
+                recorder.step(i % 48 == 0 ? 2 : 1);
+            }
+            if (hashes != null)
+            {
+                hashes[i + 1] = game.getActiveTetrad().getHash();
+            }
+        }
+        return recorder;
+    }
+
+    /**
+     * Tests that varints round trip.
+     */
+    @Test
+    public void varints()
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        long[] values = {0, 1, 127, 128, 300, Long.MAX_VALUE, -1};
+        for (int i = 0; i < values.length; i++)
+        {
+            Replay.writeVarint(buffer, values[i]);
+        }
+        assertEquals("writeVarint fails", 1 + 1 + 1 + 2 + 2 + 9 + 10, buffer.position());
+        buffer.flip();
+        for (int i = 0; i < values.length; i++)
+        {
+            assertEquals("readVarint fails", values[i], Replay.readVarint(buffer));
+        }
+    }
+
+    /**
+     * Tests that a replay plays back to the recorded end.
+     */
+    @Test
+    public void playBack()
+    {
+        ReplayRecorder recorder = record(11L, 60 * 60);
+        TetrisGame recorded = recorder.getGame();
+        byte[] replay = recorder.finish();
+        // the events end where the keyframes start
+        int events = ByteBuffer.wrap(replay).getInt(replay.length - 4);
+        // the keys that move a tetrad into place take a few bytes
+        long pieces = recorded.getPieceGenerator().getCount();
+        assertTrue("finish fails: " + events, events < 12 * pieces);
+        // and a keyframe takes about a snapshot
+        assertTrue("finish fails: " + replay.length, replay.length - events
+            < 60 * 60 / Replay.DEFAULT_SPACING * (recorded.snapshot().length + 40));
+
+        ReplayPlayer player = new ReplayPlayer(replay);
+        assertEquals("getSeed fails", 11L, player.getSeed());
+        TetrisGame game = player.play();
+        assertTrue("play fails", player.isEnded());
+        assertEquals("play fails", recorder.getTick(), player.getTick());
+        assertTrue("verify fails", player.verify(game));
+        assertEquals("play fails", recorded.getPoints(), game.getPoints());
+        assertEquals("play fails", recorded.getGrid().getHash(), game.getGrid().getHash());
+    }
+
+    /**
+     * Seeks back and forth through a replay and checks each seek
+     * against the recorded game.
+     *
+     * @param player  the player of the replay
+     * @param hashes  the hash of the recorded game after each tick
+     */
+    private static void checkSeeks(ReplayPlayer player, long[] hashes)
+    {
+        TetrisGame game = player.newGame();
+        int[] targets = {3000, 10, 1999, 2000, 2001, 4999, 0, 700, 5000, 251};
+        for (int i = 0; i < targets.length; i++)
+        {
+            player.seek(game, targets[i]);
+            assertEquals("seek fails at " + targets[i], hashes[targets[i]],
+                         game.getActiveTetrad().getHash());
+        }
+        assertEquals("seek fails", 5000 / 250, player.getKeyframeCount());
+        player.seek(game, Long.MAX_VALUE);
+        assertTrue("verify fails", player.verify(game));
+    }
+
+    /**
+     * Tests that seeking back and forth reaches the same game as the
+     * recorded one, with the keyframes stored in the replay and with
+     * them made by the player for a replay without them, and that a
+     * snapshot restores a game.
+     */
+    @Test
+    public void seek()
+    {
+        long[] hashes = new long[5001];
+        byte[] replay = record(13L, hashes.length - 1, hashes, 250).finish();
+        ReplayPlayer player = new ReplayPlayer(ByteBuffer.wrap(replay));
+        assertEquals("ReplayPlayer fails", 250, player.getSpacing());
+        assertEquals("ReplayPlayer fails", 5000 / 250, player.getKeyframeCount());
+        checkSeeks(player, hashes);
+
+        // the same replay in the format from before keyframes were stored
+        byte[] old = Arrays.copyOf(replay, ByteBuffer.wrap(replay).getInt(replay.length - 4));
+        old[Replay.MAGIC.length] = Replay.VERSION_WITHOUT_KEYFRAMES;
+        player = new ReplayPlayer(ByteBuffer.wrap(old), 250);
+        assertEquals("ReplayPlayer fails", 0, player.getKeyframeCount());
+        checkSeeks(player, hashes);
+
+        TetrisGame game = player.newGame();
+        player.seek(game, Long.MAX_VALUE);
+
+        TetrisGame copy = new TetrisGame(20, 10);
+        copy.restore(game.snapshot());
+        assertEquals("restore fails", game.getGrid().getHash(), copy.getGrid().getHash());
+        assertEquals("restore fails", game.getRowsCleared(), copy.getRowsCleared());
+        assertEquals("restore fails", game.getPieceGenerator().peek(0),
+                     copy.getPieceGenerator().peek(0));
+        assertArrayEquals("snapshot fails", game.snapshot(), copy.snapshot());
+    }
+
+    /**
+     * Tests that the first seek of a new player to half an hour into a
+     * replay takes less than 5 ms, since it starts from a stored
+     * keyframe.  The best of a few new players is taken, so that a
+     * pause of the machine does not fail the test.
+     */
+    @Test
+    public void longSeek()
+    {
+        int target = 30 * 60 * GameLoop.TICKS_PER_SECOND;
+        TetrisGame recorded = new TetrisGame(20, 10,
+            new PieceGenerator(14L, PieceGenerator.BAG, 1));
+        ReplayRecorder recorder = new ReplayRecorder(recorded);
+        AutoPlayer auto = new AutoPlayer(new Heuristic());
+        long hash = 0;
+        // gravity once a second, like a game at level 1
+        for (int i = 0; i < target && !recorded.isGameOver(); i++)
+        {
+            recorder.tick();
+            auto.move(recorded, recorder);
+            if (i % GameLoop.TICKS_PER_SECOND == 0)
+            {
+                recorder.step(1);
+            }
+            if (i == target - 2)
+            {
+                hash = recorded.getActiveTetrad().getHash();
+            }
+        }
+        assertEquals("record fails", target, recorder.getTick());
+        byte[] replay = recorder.finish();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++)
+        {
+            long start = System.nanoTime();
+            ReplayPlayer player = new ReplayPlayer(replay);
+            TetrisGame game = player.newGame();
+            player.seek(game, target - 1);
+            best = Math.min(best, System.nanoTime() - start);
+            assertEquals("seek fails", hash, game.getActiveTetrad().getHash());
+        }
+        assertTrue("seek fails: " + best / 1000 + " us", best < 5000000L);
+    }
+
+    /**
+     * Tests that a replay with a changed event does not verify.
+     */
+    @Test
+    public void damagedReplay()
+    {
+        byte[] replay = record(12L, 600).finish();
+        // the first event after the 16-byte header
+        replay[16] ^= 1;
+        ReplayPlayer player = new ReplayPlayer(replay);
+        assertFalse("verify fails", player.verify(player.play()));
+
+        try
+        {
+            new ReplayPlayer(new byte[] {'T', 'R', 'X', 1});
+            fail("ReplayPlayer accepts a bad header");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+}
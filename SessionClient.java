@@ -0,0 +1,234 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SessionClient plays a game on a SessionServer.  The arrow keys are
+ * sent to the server as they are pressed, and readFrame applies the
+ * frames the server sends to a RemoteBoard.  It uses a blocking
+ * channel, so it is meant for tests, tools, and one client per thread.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class SessionClient implements ArrowListener, Closeable
+{
+    private SocketChannel channel;
+    private ByteBuffer in;
+    private ByteBuffer key;
+    private RemoteBoard board;
+
+    /**
+     * Connects to a server.
+     *
+     * @param host  the server's host
+     * @param port  the server's port
+     *
+     * @throws IOException if the connection fails
+     */
+    public SessionClient(String host, int port) throws IOException
+    {
+        channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        in = ByteBuffer.allocate(1 << 16);
+        in.flip();
+        key = ByteBuffer.allocate(1);
+        board = new RemoteBoard();
+    }
+
+    /**
+     * Retrieves the board the frames are applied to.
+     *
+     * @return the board
+     */
+    public RemoteBoard getBoard()
+    {
+        return board;
+    }
+
+    /**
+     * Waits for the next frame from the server and applies it to the
+     * board.
+     *
+     * @return true if a frame was applied; false if the server closed
+     *         the connection
+     *
+     * @throws IOException if the connection fails
+     */
+    public boolean readFrame() throws IOException
+    {
+        if (!fill(2))
+        {
+            return false;
+        }
+        int length = in.getShort(in.position()) & 0xFFFF;
+        if (!fill(2 + length))
+        {
+            return false;
+        }
+        ByteBuffer frame = in.duplicate();
+        frame.position(in.position() + 2);
+        frame.limit(in.position() + 2 + length);
+        board.apply(frame);
+        in.position(in.position() + 2 + length);
+        return true;
+    }
+
+    /**
+     * Reads from the server until a number of bytes are waiting.
+     *
+     * @param bytes  the number of bytes needed
+     *
+     * @return true if they are waiting; false if the server closed the
+     *         connection first
+     *
+     * @throws IOException if the connection fails
+     */
+    private boolean fill(int bytes) throws IOException
+    {
+        while (in.remaining() < bytes)
+        {
+            in.compact();
+            int read = channel.read(in);
+            in.flip();
+            if (read < 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sends a key to the server.
+     *
+     * @param k  the key, as returned by GameSession.keyFor, or
+     *           GameSession.QUIT
+     *
+     * @throws IOException if the connection fails
+     */
+    public void send(int k) throws IOException
+    {
+        key.clear();
+        key.put((byte) k);
+        key.flip();
+        while (key.hasRemaining())
+        {
+            channel.write(key);
+        }
+    }
+
+    /**
+     * Sends an arrow key to the server.
+     *
+     * @param command  a CommandQueue code
+     */
+    private void press(int command)
+    {
+        try
+        {
+            send(GameSession.keyFor(command));
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sends the up arrow.
+     */
+    public void upPressed()
+    {
+        press(CommandQueue.UP);
+    }
+
+    /**
+     * Sends the down arrow.
+     */
+    public void downPressed()
+    {
+        press(CommandQueue.DOWN);
+    }
+
+    /**
+     * Sends the left arrow.
+     */
+    public void leftPressed()
+    {
+        press(CommandQueue.LEFT);
+    }
+
+    /**
+     * Sends the right arrow.
+     */
+    public void rightPressed()
+    {
+        press(CommandQueue.RIGHT);
+    }
+
+    /**
+     * Closes the connection, which ends the game.
+     *
+     * @throws IOException if the connection cannot be closed
+     */
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+
+    /**
+     * Connects clients that press random arrows to a server on this
+     * machine and reports how many frames they receive.
+     *
+     * @param args  the port (default 7070), the number of clients
+     *              (default 100), and the number of seconds (default 10)
+     *
+     * @throws Exception if a client cannot connect
+     */
+    public static void main(String[] args) throws Exception
+    {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        long seconds = args.length > 2 ? Long.parseLong(args[2]) : 10;
+        final AtomicLong frames = new AtomicLong();
+        final long end = System.nanoTime() + seconds * 1000000000L;
+        Thread[] threads = new Thread[clients];
+        for (int i = 0; i < clients; i++)
+        {
+            final SessionClient client = new SessionClient("localhost", port);
+            threads[i] = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        while (System.nanoTime() < end && client.readFrame())
+                        {
+                            frames.incrementAndGet();
+                            CommandQueue.apply(ThreadLocalRandom.current().nextInt(8), client);
+                        }
+                        client.close();
+                    }
+                    catch (IOException e)
+                    {
+                        System.err.println("client failed: " + e.getMessage());
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (int i = 0; i < clients; i++)
+        {
+            threads[i].join();
+        }
+        System.out.println(clients + " clients received " + frames.get() / seconds
+                           + " frames a second");
+    }
+}
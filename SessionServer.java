@@ -0,0 +1,356 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SessionServer hosts many headless games in one JVM, one GameSession
+ * for each client that connects.  Giving every game a thread of its own
+ * would not scale to thousands of games, so the games share a few
+ * threads instead:  one thread does all the I/O through a Selector, and
+ * the games are dealt out to shards that a scheduled thread pool ticks
+ * GameLoop.TICKS_PER_SECOND times a second, each tick of a shard
+ * ticking every game in it.  The server only listens on the loopback
+ * address.
+ *
+ * The protocol is simple.  A client sends one byte per key:  'U', 'D',
+ * 'L', and 'R' for the arrows (see GameSession.keyFor) and 'Q' to end
+ * its game.  The server sends frames, each preceded by its length as two
+ * bytes:  a START frame with the size of the board, then a BOARD frame
+ * with the rows that changed whenever the game changes, and a GAME_OVER
+ * frame when the game ends, after which it closes the connection.  The
+ * frames are described in FrameEncoder, and RemoteBoard applies them.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class SessionServer implements Closeable
+{
+    /**
+     * The number of shards per thread, so that the games are spread
+     * evenly over the threads.
+     */
+    public static final int SHARDS_PER_THREAD = 4;
+
+    private int rows;
+    private int cols;
+    private ServerSocketChannel server;
+    private Selector selector;
+    private ScheduledExecutorService scheduler;
+    private Shard[] shards;
+    private int nextShard;
+    private AtomicInteger sessionCount;
+    private Thread io;
+    private volatile boolean running;
+
+    /**
+     * Constructs a server for games with 20 rows and 10 columns.
+     *
+     * @param port     the port to listen on, or 0 for any free port
+     * @param threads  the number of threads that tick the games;
+     *                 threads > 0
+     *
+     * @throws IOException if the port cannot be bound
+     */
+    public SessionServer(int port, int threads) throws IOException
+    {
+        this(port, threads, 20, 10);
+    }
+
+    /**
+     * Constructs a server.
+     *
+     * @param port     the port to listen on, or 0 for any free port
+     * @param threads  the number of threads that tick the games;
+     *                 threads > 0
+     * @param rws      the number of rows of each game's grid
+     * @param cls      the number of columns of each game's grid;
+     *                 cls <= 64
+     *
+     * @throws IOException if the port cannot be bound
+     */
+    public SessionServer(int port, int threads, int rws, int cls) throws IOException
+    {
+        if (threads <= 0)
+        {
+            throw new IllegalArgumentException("invalid number of threads " + threads);
+        }
+        rows = rws;
+        cols = cls;
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        server.configureBlocking(false);
+        selector = Selector.open();
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        scheduler = Executors.newScheduledThreadPool(threads);
+        shards = new Shard[threads * SHARDS_PER_THREAD];
+        for (int i = 0; i < shards.length; i++)
+        {
+            shards[i] = new Shard();
+        }
+        sessionCount = new AtomicInteger();
+    }
+
+    /**
+     * Retrieves the port the server listens on.
+     *
+     * @return the port
+     *
+     * @throws IOException if the server is closed
+     */
+    public int getPort() throws IOException
+    {
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Retrieves the number of games being played.
+     *
+     * @return the number of open sessions
+     */
+    public int getSessionCount()
+    {
+        return sessionCount.get();
+    }
+
+    /**
+     * Starts accepting clients and ticking their games.
+     */
+    public void start()
+    {
+        running = true;
+        for (int i = 0; i < shards.length; i++)
+        {
+            // the shards tick at the same rate but not all at once
+            long offset = GameLoop.TICK_NANOS * i / shards.length;
+            scheduler.scheduleAtFixedRate(shards[i], offset, GameLoop.TICK_NANOS,
+                                          TimeUnit.NANOSECONDS);
+        }
+        io = new Thread(new Runnable()
+        {
+            public void run()
+            {
+                serve();
+            }
+        }, "SessionServer I/O");
+        io.start();
+    }
+
+    /**
+     * Stops the server and closes every session.
+     *
+     * @throws IOException if the server cannot be closed
+     */
+    public void close() throws IOException
+    {
+        running = false;
+        scheduler.shutdown();
+        selector.wakeup();
+        if (io != null)
+        {
+            try
+            {
+                io.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (SelectionKey key : selector.keys())
+        {
+            if (key.attachment() != null)
+            {
+                ((GameSession) key.attachment()).close();
+            }
+        }
+        selector.close();
+        server.close();
+    }
+
+    /**
+     * Accepts clients and reads their keys until the server is closed.
+     */
+    private void serve()
+    {
+        ByteBuffer keys = ByteBuffer.allocateDirect(4096);
+        while (running)
+        {
+            try
+            {
+                selector.select();
+            }
+            catch (IOException e)
+            {
+                System.err.println("session server stopped: " + e.getMessage());
+                return;
+            }
+            Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+            while (selected.hasNext())
+            {
+                SelectionKey key = selected.next();
+                selected.remove();
+                if (!key.isValid())
+                {
+                    continue;
+                }
+                if (key.isAcceptable())
+                {
+                    accept();
+                }
+                else if (key.isReadable())
+                {
+                    read(key, keys);
+                }
+            }
+        }
+    }
+
+    /**
+     * Accepts the clients that are waiting and starts a game for each.
+     */
+    private void accept()
+    {
+        try
+        {
+            SocketChannel channel = server.accept();
+            while (channel != null)
+            {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                GameSession session = new GameSession(new TetrisGame(rows, cols), channel);
+                channel.register(selector, SelectionKey.OP_READ, session);
+                sessionCount.incrementAndGet();
+                shards[nextShard].joining.add(session);
+                nextShard = (nextShard + 1) % shards.length;
+                channel = server.accept();
+            }
+        }
+        catch (IOException e)
+        {
+            System.err.println("could not accept a client: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the keys a client has sent and passes them to its session.
+     *
+     * @param key   the client's key
+     * @param keys  a buffer to read into
+     */
+    private void read(SelectionKey key, ByteBuffer keys)
+    {
+        GameSession session = (GameSession) key.attachment();
+        keys.clear();
+        int read;
+        try
+        {
+            read = ((SocketChannel) key.channel()).read(keys);
+        }
+        catch (IOException e)
+        {
+            read = -1;
+        }
+        if (read < 0)
+        {
+            key.cancel();
+            session.close();
+            return;
+        }
+        keys.flip();
+        while (keys.hasRemaining())
+        {
+            session.receive(keys.get());
+        }
+    }
+
+    /**
+     * A Shard is a group of sessions that are ticked together by one
+     * scheduled task.  New sessions are handed to it through a
+     * concurrent queue, and everything else is only touched by the
+     * thread running the task.
+     */
+    private class Shard implements Runnable
+    {
+        private ConcurrentLinkedQueue<GameSession> joining;
+        private ArrayList<GameSession> sessions;
+
+        /**
+         * Constructs an empty shard.
+         */
+        Shard()
+        {
+            joining = new ConcurrentLinkedQueue<GameSession>();
+            sessions = new ArrayList<GameSession>();
+        }
+
+        /**
+         * Ticks every session in the shard and drops the closed ones.
+         */
+        public void run()
+        {
+            GameSession session = joining.poll();
+            while (session != null)
+            {
+                sessions.add(session);
+                session = joining.poll();
+            }
+            int i = 0;
+            while (i < sessions.size())
+            {
+                boolean open;
+                try
+                {
+                    open = sessions.get(i).tick();
+                }
+                catch (RuntimeException e)
+                {
+                    // a broken game must not stop the others
+                    sessions.get(i).close();
+                    open = false;
+                }
+                if (open)
+                {
+                    i++;
+                }
+                else
+                {
+                    sessions.set(i, sessions.get(sessions.size() - 1));
+                    sessions.remove(sessions.size() - 1);
+                    sessionCount.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a server until it is stopped.
+     *
+     * @param args  the port (default 7070) and the number of threads
+     *              (default the number of processors)
+     *
+     * @throws IOException if the server cannot be started
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+        int threads = args.length > 1 ? Integer.parseInt(args[1])
+                                      : Runtime.getRuntime().availableProcessors();
+        SessionServer server = new SessionServer(port, threads);
+        server.start();
+        System.out.println("listening on port " + server.getPort());
+    }
+}
@@ -0,0 +1,107 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.nio.ByteBuffer;
+
+/**
+ * The test class SessionServerTest checks that the frames of a
+ * GameSession keep a RemoteBoard the same as the game, and that clients
+ * can play on a SessionServer over the loopback address.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class SessionServerTest
+{
+    /**
+     * Tests that the frames keep a board the same as the game, including
+     * through cleared rows and the end of the game.
+     */
+    @Test
+    public void frames()
+    {
+        TetrisGame game = new TetrisGame(20, 10, new PieceGenerator(3L, PieceGenerator.BAG, 1));
+        GameSession session = new GameSession(game, null);
+        RemoteBoard board = new RemoteBoard();
+        AutoPlayer player = new AutoPlayer(new Heuristic());
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (int i = 0; i < 3000 && !board.isGameOver(); i++)
+        {
+            if (i < 2000)
+            {
+                player.move(game, game);
+            }
+            if (i % 3 == 0)
+            {
+                game.step();
+            }
+            buffer.clear();
+            boolean wrote = session.writeFrames(buffer);
+            buffer.flip();
+            assertEquals("writeFrames fails", wrote, buffer.hasRemaining());
+            board.applyAll(buffer);
+            assertEquals("writeFrames fails", game.getGrid().getHash(), board.getBoard().getHash());
+            assertEquals("writeFrames fails", game.getPoints(), board.getPoints());
+        }
+        assertTrue("writeFrames fails", game.getRowsCleared() > 0);
+        assertTrue("writeFrames fails", board.isGameOver());
+        Location loc = game.getGrid().getOccupiedLocations().get(0);
+        assertEquals("writeFrames fails", game.getGrid().get(loc).getColor(),
+                     board.getBoard().getColor(loc.getRow(), loc.getCol()));
+
+        buffer.clear();
+        assertFalse("writeFrames fails", session.writeFrames(buffer));
+    }
+
+    /**
+     * Tests that clients get their own games and that games end when
+     * their clients leave.
+     *
+     * @throws Exception if a connection fails
+     */
+    @Test
+    public void loopback() throws Exception
+    {
+        SessionServer server = new SessionServer(0, 1);
+        server.start();
+        try
+        {
+            SessionClient[] clients = new SessionClient[3];
+            for (int i = 0; i < clients.length; i++)
+            {
+                clients[i] = new SessionClient("localhost", server.getPort());
+                assertTrue("readFrame fails", clients[i].readFrame());
+                assertTrue("readFrame fails", clients[i].readFrame());
+                BitBoard board = clients[i].getBoard().getBoard();
+                assertEquals("readFrame fails", 20, board.getNumRows());
+                assertEquals("readFrame fails", 4, board.getOccupiedLocations().size());
+            }
+            assertEquals("getSessionCount fails", 3, server.getSessionCount());
+
+            long before = clients[0].getBoard().getBoard().getHash();
+            clients[0].leftPressed();
+            while (clients[0].getBoard().getBoard().getHash() == before)
+            {
+                assertTrue("leftPressed fails", clients[0].readFrame());
+            }
+
+            clients[1].close();
+            clients[2].send(GameSession.QUIT);
+            while (clients[2].readFrame())
+            {
+                // the server closes the connection
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (server.getSessionCount() > 1 && System.currentTimeMillis() < deadline)
+            {
+                Thread.sleep(10);
+            }
+            assertEquals("getSessionCount fails", 1, server.getSessionCount());
+            clients[0].close();
+            clients[2].close();
+        }
+        finally
+        {
+            server.close();
+        }
+    }
+}
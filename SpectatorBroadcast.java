@@ -0,0 +1,231 @@
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * SpectatorBroadcast streams a live game to any number of spectators.
+ * It observes the game, and each time the game changes it encodes the
+ * change once, with a FrameEncoder, into a buffer that every spectator
+ * then reads:  a BOARD frame with only the rows whose masks or colors
+ * changed, and every so often a KEYFRAME with the whole board, from which
+ * new spectators and spectators that fell behind start.
+ *
+ * The buffers are kept in a ring that only the game thread writes.
+ * Spectators read it at their own pace without locks, so the game
+ * thread's work does not depend on how many spectators there are or how
+ * slow they are;  a spectator that falls a whole ring behind skips ahead
+ * to the latest keyframe.  The buffers are never changed once they are
+ * published, so the same bytes can be written to every spectator's
+ * channel as they are.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class SpectatorBroadcast implements GameObserver
+{
+    /**
+     * The default number of frames between keyframes.
+     */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 60;
+
+    private FrameEncoder encoder;
+    private ByteBuffer scratch;
+    private int interval;
+    private int sinceKeyframe;
+    private boolean ended;
+    private AtomicReferenceArray<ByteBuffer> ring;
+    private int mask;
+    private AtomicLong published;
+    private volatile long lastKeyframe;
+
+    /**
+     * Constructs a broadcast of a game with the default keyframe interval
+     * and room for four intervals of frames.
+     *
+     * @param game  the game, which must have at most 64 columns
+     */
+    public SpectatorBroadcast(TetrisGame game)
+    {
+        this(game, DEFAULT_KEYFRAME_INTERVAL, 4 * DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Constructs a broadcast of a game and adds it as an observer of the
+     * game.  The current board is published as the first keyframe.
+     *
+     * @param game      the game, which must have at most 64 columns
+     * @param interval  the number of frames between keyframes;
+     *                  interval > 0
+     * @param capacity  the number of frames kept for the spectators;  it
+     *                  is raised to at least twice the interval and
+     *                  rounded up to a power of two
+     */
+    public SpectatorBroadcast(TetrisGame game, int interval, int capacity)
+    {
+        if (interval <= 0)
+        {
+            throw new IllegalArgumentException("invalid keyframe interval " + interval);
+        }
+        MyBoundedGrid<Block> grid = game.getGrid();
+        this.interval = interval;
+        encoder = new FrameEncoder(grid.getNumRows(), grid.getNumCols());
+        scratch = ByteBuffer.allocate(FrameEncoder.maxFramesSize(grid.getNumRows(),
+                                                                 grid.getNumCols()));
+        int size = Integer.highestOneBit(Math.max(Math.max(capacity, 2 * interval) - 1, 1)) << 1;
+        ring = new AtomicReferenceArray<ByteBuffer>(size);
+        mask = size - 1;
+        published = new AtomicLong();
+        publish(game);
+        game.addObserver(this);
+    }
+
+    /**
+     * Publishes what changed in the game.  This is called on the game's
+     * thread.
+     *
+     * @param game  the game that changed
+     */
+    public void gameChanged(TetrisGame game)
+    {
+        publish(game);
+    }
+
+    /**
+     * Retrieves the number of frames published.
+     *
+     * @return the number of buffers published, counting keyframes
+     */
+    public long getFrameCount()
+    {
+        return published.get();
+    }
+
+    /**
+     * Adds a spectator, which starts at the latest keyframe.  This may be
+     * called from any thread.
+     *
+     * @return the new spectator
+     */
+    public Spectator subscribe()
+    {
+        return new Spectator();
+    }
+
+    /**
+     * Encodes what changed since the last frame and publishes it, as a
+     * keyframe if one is due.  Nothing is published if nothing changed.
+     *
+     * @param game  the game
+     */
+    private void publish(TetrisGame game)
+    {
+        scratch.clear();
+        boolean keyframe = sinceKeyframe == 0;
+        if (keyframe)
+        {
+            encoder.writeKeyframe(scratch, game);
+        }
+        else
+        {
+            encoder.writeDelta(scratch, game);
+        }
+        if (game.isGameOver() && !ended)
+        {
+            encoder.writeGameOver(scratch, game);
+        }
+        ended = game.isGameOver();
+        if (scratch.position() == 0)
+        {
+            return;
+        }
+        scratch.flip();
+        ByteBuffer frame = ByteBuffer.allocate(scratch.remaining());
+        frame.put(scratch);
+        frame.flip();
+
+        long sequence = published.get();
+        ring.set((int) (sequence & mask), frame.asReadOnlyBuffer());
+        if (keyframe)
+        {
+            lastKeyframe = sequence;
+        }
+        published.set(sequence + 1);
+        sinceKeyframe = (sinceKeyframe + 1) % interval;
+    }
+
+    /**
+     * A Spectator reads the frames of a broadcast in order.  Each
+     * spectator must only be used by one thread at a time.
+     */
+    public class Spectator
+    {
+        private long cursor;
+        private long resyncs;
+
+        /**
+         * Constructs a spectator at the latest keyframe.
+         */
+        Spectator()
+        {
+            cursor = lastKeyframe;
+        }
+
+        /**
+         * Retrieves the number of times the spectator fell behind and
+         * skipped to a keyframe.
+         *
+         * @return the number of skips
+         */
+        public long getResyncs()
+        {
+            return resyncs;
+        }
+
+        /**
+         * Takes the next frames.
+         *
+         * @return a buffer with one or more frames, each preceded by its
+         *         length, or null if there are no new frames;  the buffer
+         *         is a view of its own that may be read and moved freely
+         */
+        public ByteBuffer poll()
+        {
+            while (true)
+            {
+                if (cursor >= published.get())
+                {
+                    return null;
+                }
+                ByteBuffer frame = ring.get((int) (cursor & mask));
+                // the slot may have been reused while it was being read
+                if (published.get() - cursor < ring.length())
+                {
+                    cursor++;
+                    return frame.duplicate();
+                }
+                cursor = lastKeyframe;
+                resyncs++;
+            }
+        }
+
+        /**
+         * Applies every new frame to a board.
+         *
+         * @param board  the board this spectator keeps up to date
+         *
+         * @return the number of buffers applied
+         */
+        public int applyTo(RemoteBoard board)
+        {
+            int count = 0;
+            ByteBuffer frames = poll();
+            while (frames != null)
+            {
+                board.applyAll(frames);
+                count++;
+                frames = poll();
+            }
+            return count;
+        }
+    }
+}
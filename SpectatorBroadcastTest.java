@@ -0,0 +1,110 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.nio.ByteBuffer;
+
+/**
+ * The test class SpectatorBroadcastTest checks that the spectators of a
+ * SpectatorBroadcast end up with the game's board, whether they keep up,
+ * join late, or fall behind.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class SpectatorBroadcastTest
+{
+    /**
+     * Tests that a thousand spectators read on another thread while the
+     * game is played all end up with the game's board.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void manySpectators() throws InterruptedException
+    {
+        final TetrisGame game = new TetrisGame(20, 10,
+                                               new PieceGenerator(5L, PieceGenerator.BAG, 1));
+        SpectatorBroadcast broadcast = new SpectatorBroadcast(game);
+        final SpectatorBroadcast.Spectator[] spectators = new SpectatorBroadcast.Spectator[1000];
+        final RemoteBoard[] boards = new RemoteBoard[spectators.length];
+        for (int i = 0; i < spectators.length; i++)
+        {
+            spectators[i] = broadcast.subscribe();
+            boards[i] = new RemoteBoard();
+        }
+        Thread reader = new Thread(new Runnable()
+        {
+            public void run()
+            {
+                while (!boards[boards.length - 1].isGameOver())
+                {
+                    for (int i = 0; i < spectators.length; i++)
+                    {
+                        spectators[i].applyTo(boards[i]);
+                    }
+                }
+            }
+        });
+        reader.start();
+
+        AutoPlayer player = new AutoPlayer(new Heuristic());
+        for (int i = 0; i < 3000 && !game.isGameOver(); i++)
+        {
+            if (i < 2000)
+            {
+                player.move(game, game);
+            }
+            game.step();
+        }
+        while (!game.isGameOver())
+        {
+            game.step();
+        }
+        reader.join(30000);
+        assertFalse("applyTo fails", reader.isAlive());
+        for (int i = 0; i < spectators.length; i++)
+        {
+            spectators[i].applyTo(boards[i]);
+            assertEquals("applyTo fails", game.getGrid().getHash(), boards[i].getBoard().getHash());
+            assertEquals("applyTo fails", game.getPoints(), boards[i].getPoints());
+            assertTrue("applyTo fails", boards[i].isGameOver());
+        }
+        assertTrue("publish fails", game.getRowsCleared() > 0);
+
+        RemoteBoard late = new RemoteBoard();
+        broadcast.subscribe().applyTo(late);
+        assertEquals("subscribe fails", game.getGrid().getHash(), late.getBoard().getHash());
+    }
+
+    /**
+     * Tests that a spectator that falls a whole ring behind skips to a
+     * keyframe, and that frames only hold what changed.
+     */
+    @Test
+    public void fallingBehind()
+    {
+        TetrisGame game = new TetrisGame(20, 10, new PieceGenerator(9L, PieceGenerator.BAG, 1));
+        SpectatorBroadcast broadcast = new SpectatorBroadcast(game, 4, 8);
+        SpectatorBroadcast.Spectator spectator = broadcast.subscribe();
+        RemoteBoard board = new RemoteBoard();
+        assertEquals("applyTo fails", 1, spectator.applyTo(board));
+        assertNull("poll fails", spectator.poll());
+
+        game.leftPressed();
+        ByteBuffer frames = spectator.poll();
+        assertEquals("poll fails", FrameEncoder.BOARD, frames.get(2));
+        // the points, the level, the row count, and one row of 4 columns
+        assertTrue("poll fails", frames.remaining() < 20);
+        board.applyAll(frames);
+        assertEquals("poll fails", game.getGrid().getHash(), board.getBoard().getHash());
+
+        for (int i = 0; i < 40; i++)
+        {
+            game.step();
+        }
+        assertTrue("getFrameCount fails", broadcast.getFrameCount() > 40);
+        spectator.applyTo(board);
+        assertEquals("applyTo fails", 1, spectator.getResyncs());
+        assertEquals("applyTo fails", game.getGrid().getHash(), board.getBoard().getHash());
+        assertEquals("applyTo fails", game.getPoints(), board.getPoints());
+    }
+}
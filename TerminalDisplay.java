@@ -0,0 +1,609 @@
+import java.awt.Color;
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * TerminalDisplay shows the game board in a text terminal with ANSI
+ * escape codes, so the game can be played where there is no screen for
+ * a window, such as over SSH.  Each cell is two spaces wide with the
+ * color of its block as the background, picked from the 256 colors most
+ * terminals have.  Like BoardCanvas, it remembers the colors it last
+ * drew, and each showBlocks only sends the cells that changed, moving
+ * the cursor only where the next cell is not right after the last one
+ * and changing the color only when it differs from the last one; the
+ * whole frame is then sent in one write.
+ *
+ * The arrow keys are read from the terminal on a thread of its own.
+ * When it reads the program's own terminal, the terminal is put in
+ * raw mode with stty, so that keys arrive as soon as they are pressed
+ * without being echoed, and close puts it back.  If the program ends
+ * without calling close, for example on Ctrl-C, a shutdown hook puts
+ * the terminal back instead.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class TerminalDisplay implements GameDisplay, Closeable
+{
+    /**
+     * The escape character that starts every ANSI code.
+     */
+    private static final byte ESC = 27;
+
+    /**
+     * The terminal row of the board's top row;  the title is above it.
+     */
+    private static final int TOP = 2;
+
+    /**
+     * The terminal column of the board's left column;  the border is
+     * before it.
+     */
+    private static final int LEFT = 2;
+
+    /**
+     * The levels of red, green, and blue in the 6x6x6 color cube of a
+     * 256-color terminal.
+     */
+    private static final int[] CUBE = {0, 95, 135, 175, 215, 255};
+
+    private MyBoundedGrid<Block> board;
+    private InputStream in;
+    private OutputStream out;
+    private boolean rawMode;
+    private String savedMode;
+    private Color[] shown;
+    private boolean started;
+    private String title;
+    private byte[] buffer;
+    private int length;
+    private int cursorRow;
+    private int cursorCol;
+    private int background;
+    private volatile ArrowListener listener;
+    private Thread reader;
+    private Thread restorer;
+    private boolean closed;
+
+    /**
+     * Constructs a display on the program's own terminal, which is put
+     * in raw mode until close is called or the program ends.
+     *
+     * @param brd  the grid on which the game is to be played
+     *
+     * @throws IOException if the terminal cannot be put in raw mode
+     */
+    public TerminalDisplay(MyBoundedGrid<Block> brd) throws IOException
+    {
+        this(brd, System.in, new FileOutputStream(FileDescriptor.out));
+        savedMode = stty("-g");
+        stty("-icanon -echo min 1");
+        rawMode = true;
+        restorer = new Thread(new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    close();
+                }
+                catch (IOException e)
+                {
+                    System.err.println("could not restore the terminal: " + e.getMessage());
+                }
+            }
+        }, "TerminalDisplay restorer");
+        Runtime.getRuntime().addShutdownHook(restorer);
+    }
+
+    /**
+     * Constructs a display that writes to a stream and reads keys from
+     * another.  The streams are used as they are.
+     *
+     * @param brd  the grid on which the game is to be played
+     * @param is   where to read the keys from, or null for no keys
+     * @param os   where to write the frames;  each frame is written with
+     *             one call of write
+     */
+    public TerminalDisplay(MyBoundedGrid<Block> brd, InputStream is, OutputStream os)
+    {
+        board = brd;
+        in = is;
+        out = os;
+        shown = new Color[board.getNumRows() * board.getNumCols()];
+        title = "";
+        buffer = new byte[4096];
+        background = -1;
+    }
+
+    /**
+     * Runs stty on the terminal.
+     *
+     * @param args  the arguments
+     *
+     * @return what stty printed, without the last line break
+     *
+     * @throws IOException if stty fails
+     */
+    private static String stty(String args) throws IOException
+    {
+        Process process = new ProcessBuilder("sh", "-c", "stty " + args + " < /dev/tty")
+            .redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(),
+                                   StandardCharsets.US_ASCII).trim();
+        try
+        {
+            if (process.waitFor() != 0)
+            {
+                throw new IOException("stty " + args + " failed: " + output);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while running stty", e);
+        }
+        return output;
+    }
+
+    /**
+     * Finds the color of a 256-color terminal that is closest to a
+     * color, from its 6x6x6 cube and its ramp of grays.
+     *
+     * @param color  the color
+     *
+     * @return the index of the terminal color, from 16 to 255
+     */
+    static int colorIndex(Color color)
+    {
+        int r = nearestLevel(color.getRed());
+        int g = nearestLevel(color.getGreen());
+        int b = nearestLevel(color.getBlue());
+        int cube = 16 + 36 * r + 6 * g + b;
+        int cubeDistance = distance(color, CUBE[r], CUBE[g], CUBE[b]);
+
+        int average = (color.getRed() + color.getGreen() + color.getBlue()) / 3;
+        int step = Math.max(0, Math.min(23, (average - 3) / 10));
+        int level = 8 + 10 * step;
+        if (distance(color, level, level, level) < cubeDistance)
+        {
+            return 232 + step;
+        }
+        return cube;
+    }
+
+    /**
+     * Finds the level of the color cube closest to a value.
+     *
+     * @param value  a red, green, or blue value from 0 to 255
+     *
+     * @return the index of the level in CUBE
+     */
+    private static int nearestLevel(int value)
+    {
+        int best = 0;
+        for (int i = 1; i < CUBE.length; i++)
+        {
+            if (Math.abs(CUBE[i] - value) < Math.abs(CUBE[best] - value))
+            {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Calculates the squared distance between two colors.
+     *
+     * @param color  the first color
+     * @param r      the red of the second color
+     * @param g      the green of the second color
+     * @param b      the blue of the second color
+     *
+     * @return the sum of the squared differences
+     */
+    private static int distance(Color color, int r, int g, int b)
+    {
+        int dr = color.getRed() - r;
+        int dg = color.getGreen() - g;
+        int db = color.getBlue() - b;
+        return dr * dr + dg * dg + db * db;
+    }
+
+    /**
+     * Redraws the cells of the board that changed since the last time.
+     * Like BlockDisplay.showBlocks, each redraw is timed in GameMetrics
+     * and recorded as a Frame event.
+     */
+    public synchronized void showBlocks()
+    {
+        long begin = GameMetrics.ENABLED ? System.nanoTime() : 0;
+        GameEvents.Frame event = GameEvents.beginFrame();
+        int cells = 0;
+        length = 0;
+        if (!started)
+        {
+            start();
+        }
+        int cols = board.getNumCols();
+        for (int r = 0; r < board.getNumRows(); r++)
+        {
+            for (int c = 0; c < cols; c++)
+            {
+                Block square = board.get(r, c);
+                Color color = null;
+                if (square != null)
+                {
+                    color = square.getColor();
+                }
+                int i = r * cols + c;
+                if (color == null ? shown[i] != null : !color.equals(shown[i]))
+                {
+                    shown[i] = color;
+                    drawCell(r, c, color);
+                    cells++;
+                }
+            }
+        }
+        flush();
+        if (GameMetrics.ENABLED)
+        {
+            GameMetrics.GLOBAL.recordRender(System.nanoTime() - begin);
+        }
+        GameEvents.endFrame(event, cells, "terminal");
+    }
+
+    /**
+     * Redraws the board when the game it shows changes.
+     *
+     * @param game  the game that changed
+     */
+    public void gameChanged(TetrisGame game)
+    {
+        showBlocks();
+    }
+
+    /**
+     * Sets the title shown above the board.  Nothing is written if it
+     * has not changed.
+     *
+     * @param ttl  the information to be placed above the board
+     */
+    public synchronized void setTitle(String ttl)
+    {
+        // a tab or line break would move the cursor
+        String text = ttl.replace('\t', ' ').replace('\n', ' ');
+        if (text.equals(title))
+        {
+            return;
+        }
+        title = text;
+        if (started)
+        {
+            length = 0;
+            writeTitle();
+            flush();
+        }
+    }
+
+    /**
+     * Establishes the class that is told about the arrow keys, and
+     * starts reading them.
+     *
+     * @param lstener  the class that is assigned the task of
+     *                 being the ArrowListener
+     */
+    public synchronized void setArrowListener(ArrowListener lstener)
+    {
+        listener = lstener;
+        if (reader == null && in != null)
+        {
+            reader = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    readKeys();
+                }
+            }, "TerminalDisplay keys");
+            reader.setDaemon(true);
+            reader.start();
+        }
+    }
+
+    /**
+     * Puts the terminal back the way it was:  the colors are reset, the
+     * cursor is shown below the board, and the terminal leaves raw mode.
+     * Closing the display again does nothing.
+     *
+     * @throws IOException if the terminal cannot be restored
+     */
+    public synchronized void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+        closed = true;
+        if (restorer != null && Thread.currentThread() != restorer)
+        {
+            try
+            {
+                Runtime.getRuntime().removeShutdownHook(restorer);
+            }
+            catch (IllegalStateException e)
+            {
+                // the program is already ending, and the hook closes nothing
+            }
+        }
+        length = 0;
+        setBackground(-1);
+        moveTo(TOP + board.getNumRows() + 1, 1);
+        putCode("?25h");
+        put("\n");
+        flush();
+        if (rawMode)
+        {
+            rawMode = false;
+            stty(savedMode);
+        }
+    }
+
+    /**
+     * Clears the screen, hides the cursor, and draws the title and the
+     * border around the board.
+     */
+    private void start()
+    {
+        started = true;
+        putCode("0m");
+        putCode("2J");
+        putCode("?25l");
+        cursorRow = -1;
+        writeTitle();
+        int rows = board.getNumRows();
+        int width = 2 * board.getNumCols();
+        for (int r = 0; r < rows; r++)
+        {
+            moveTo(TOP + r, LEFT - 1);
+            put("|");
+            moveTo(TOP + r, LEFT + width);
+            put("|");
+        }
+        moveTo(TOP + rows, LEFT - 1);
+        put("+");
+        for (int c = 0; c < width; c++)
+        {
+            put("-");
+        }
+        put("+");
+        // the border is not followed, so the cursor's place is unknown
+        cursorRow = -1;
+    }
+
+    /**
+     * Writes the title on its line, clearing the rest of the line.
+     */
+    private void writeTitle()
+    {
+        setBackground(-1);
+        moveTo(1, 1);
+        put(title);
+        putCode("K");
+        cursorRow = -1;
+    }
+
+    /**
+     * Draws one cell.
+     *
+     * @param row    the row of the cell in the board
+     * @param col    the column of the cell in the board
+     * @param color  the color of the block in it, or null if it is empty
+     */
+    private void drawCell(int row, int col, Color color)
+    {
+        moveTo(TOP + row, LEFT + 2 * col);
+        setBackground(color == null ? -1 : colorIndex(color));
+        put("  ");
+        cursorCol += 2;
+    }
+
+    /**
+     * Moves the cursor, unless it is already there.
+     *
+     * @param row  the terminal row, counting from 1
+     * @param col  the terminal column, counting from 1
+     */
+    private void moveTo(int row, int col)
+    {
+        if (row == cursorRow && col == cursorCol)
+        {
+            return;
+        }
+        putCode("");
+        putNumber(row);
+        put(";");
+        putNumber(col);
+        put("H");
+        cursorRow = row;
+        cursorCol = col;
+    }
+
+    /**
+     * Changes the background color, unless it is already that color.
+     *
+     * @param index  the index of a 256-color terminal color, or -1 for
+     *               the terminal's own background
+     */
+    private void setBackground(int index)
+    {
+        if (index == background)
+        {
+            return;
+        }
+        if (index < 0)
+        {
+            putCode("0m");
+        }
+        else
+        {
+            putCode("48;5;");
+            putNumber(index);
+            put("m");
+        }
+        background = index;
+    }
+
+    /**
+     * Adds an ANSI control sequence to the frame.
+     *
+     * @param code  what comes after the escape character and [
+     */
+    private void putCode(String code)
+    {
+        ensure(2 + code.length());
+        buffer[length] = ESC;
+        buffer[length + 1] = '[';
+        length += 2;
+        put(code);
+    }
+
+    /**
+     * Adds text to the frame.
+     *
+     * @param text  the text
+     */
+    private void put(String text)
+    {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    /**
+     * Adds a number to the frame in decimal.
+     *
+     * @param number  the number;  number >= 0
+     */
+    private void putNumber(int number)
+    {
+        if (number >= 10)
+        {
+            putNumber(number / 10);
+        }
+        ensure(1);
+        buffer[length] = (byte) ('0' + number % 10);
+        length++;
+    }
+
+    /**
+     * Makes room in the frame's buffer.
+     *
+     * @param count  the number of bytes to make room for
+     */
+    private void ensure(int count)
+    {
+        if (length + count > buffer.length)
+        {
+            byte[] bigger = new byte[Math.max(2 * buffer.length, length + count)];
+            System.arraycopy(buffer, 0, bigger, 0, length);
+            buffer = bigger;
+        }
+    }
+
+    /**
+     * Writes the frame, if there is anything in it, in one write.
+     */
+    private void flush()
+    {
+        if (length == 0)
+        {
+            return;
+        }
+        try
+        {
+            out.write(buffer, 0, length);
+            out.flush();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        length = 0;
+    }
+
+    /**
+     * Reads keys until the input ends, telling the listener about the
+     * arrow keys:  ESC [ A to D, or ESC O A to D in the mode some
+     * terminals switch the arrows to.  Other keys are ignored.
+     */
+    private void readKeys()
+    {
+        int state = 0;
+        try
+        {
+            int key = in.read();
+            while (key >= 0)
+            {
+                if (key == ESC)
+                {
+                    state = 1;
+                }
+                else if (state == 1 && (key == '[' || key == 'O'))
+                {
+                    state = 2;
+                }
+                else if (state == 2)
+                {
+                    arrow(key);
+                    state = 0;
+                }
+                else
+                {
+                    state = 0;
+                }
+                key = in.read();
+            }
+        }
+        catch (IOException e)
+        {
+            // the keys stop when the terminal goes away
+        }
+    }
+
+    /**
+     * Tells the listener about an arrow key.
+     *
+     * @param key  the last character of the arrow's escape sequence
+     */
+    private void arrow(int key)
+    {
+        ArrowListener current = listener;
+        if (current == null)
+        {
+            return;
+        }
+        if (key == 'A')
+        {
+            current.upPressed();
+        }
+        else if (key == 'B')
+        {
+            current.downPressed();
+        }
+        else if (key == 'C')
+        {
+            current.rightPressed();
+        }
+        else if (key == 'D')
+        {
+            current.leftPressed();
+        }
+    }
+}
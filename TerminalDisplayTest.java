@@ -0,0 +1,240 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The test class TerminalDisplayTest checks that the frames of a
+ * TerminalDisplay keep a terminal showing the same board as the game
+ * while only sending what changed, and that it reads the arrow keys.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class TerminalDisplayTest
+{
+    /**
+     * Applies ANSI output to a screen of background colors, the way a
+     * terminal would, following only the codes TerminalDisplay uses.
+     *
+     * @param text    the output
+     * @param screen  the background color index of each cell of the
+     *                screen, -1 for none, by row and column from 1
+     */
+    private static void apply(String text, int[][] screen)
+    {
+        int row = 1;
+        int col = 1;
+        int background = -1;
+        int i = 0;
+        while (i < text.length())
+        {
+            char ch = text.charAt(i);
+            if (ch == 27)
+            {
+                int end = i + 2;
+                while (!Character.isLetter(text.charAt(end)))
+                {
+                    end++;
+                }
+                String args = text.substring(i + 2, end);
+                char code = text.charAt(end);
+                if (code == 'H')
+                {
+                    String[] parts = args.split(";");
+                    row = Integer.parseInt(parts[0]);
+                    col = Integer.parseInt(parts[1]);
+                }
+                else if (code == 'm')
+                {
+                    background = args.startsWith("48;5;")
+                        ? Integer.parseInt(args.substring(5)) : -1;
+                }
+                else if (code == 'J')
+                {
+                    for (int r = 0; r < screen.length; r++)
+                    {
+                        Arrays.fill(screen[r], -1);
+                    }
+                }
+                i = end + 1;
+            }
+            else
+            {
+                if (row < screen.length && col < screen[row].length)
+                {
+                    screen[row][col] = ch == ' ' ? background : -2;
+                }
+                col++;
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Tests that the screen matches the board after every frame of a
+     * game.
+     */
+    @Test
+    public void frames()
+    {
+        TetrisGame game = new TetrisGame(20, 10, new PieceGenerator(7L, PieceGenerator.BAG, 1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TerminalDisplay display = new TerminalDisplay(game.getGrid(), null, out);
+        display.setTitle("Tetris");
+        game.addObserver(display);
+        display.showBlocks();
+        int[][] screen = new int[30][30];
+        AutoPlayer player = new AutoPlayer(new Heuristic());
+        for (int i = 0; i < 1000 && !game.isGameOver(); i++)
+        {
+            apply(new String(out.toByteArray(), StandardCharsets.UTF_8), screen);
+            out.reset();
+            MyBoundedGrid<Block> grid = game.getGrid();
+            for (int r = 0; r < grid.getNumRows(); r++)
+            {
+                for (int c = 0; c < grid.getNumCols(); c++)
+                {
+                    Block block = grid.get(r, c);
+                    int expected = block == null ? -1
+                        : TerminalDisplay.colorIndex(block.getColor());
+                    assertEquals("showBlocks fails", expected, screen[2 + r][2 + 2 * c]);
+                    assertEquals("showBlocks fails", expected, screen[2 + r][3 + 2 * c]);
+                }
+            }
+            player.move(game, game);
+            game.step();
+        }
+        assertTrue("showBlocks fails", game.getRowsCleared() > 0);
+    }
+
+    /**
+     * Tests that each frame is sent in one write, that a tetrad falling
+     * a row sends only the cells it left and entered, and that a frame
+     * or title with no change sends nothing.
+     */
+    @Test
+    public void changesOnly()
+    {
+        TetrisGame game = new TetrisGame(20, 10, new PieceGenerator(7L, PieceGenerator.BAG, 1));
+        final int[] writes = new int[1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream()
+        {
+            public void write(byte[] b, int off, int len)
+            {
+                writes[0]++;
+                super.write(b, off, len);
+            }
+        };
+        TerminalDisplay display = new TerminalDisplay(game.getGrid(), null, out);
+        display.setTitle("Tetris");
+        game.addObserver(display);
+        display.showBlocks();
+        assertEquals("showBlocks fails", 1, writes[0]);
+        int first = out.size();
+        game.step();
+        for (int i = 0; i < 5; i++)
+        {
+            writes[0] = 0;
+            out.reset();
+            game.step();
+            assertEquals("showBlocks fails", 1, writes[0]);
+            assertTrue("showBlocks fails", out.size() < 64);
+            assertTrue("showBlocks fails", out.size() < first / 4);
+        }
+
+        writes[0] = 0;
+        out.reset();
+        display.showBlocks();
+        display.setTitle("Tetris");
+        assertEquals("showBlocks fails", 0, writes[0]);
+        assertEquals("showBlocks fails", 0, out.size());
+        display.setTitle("Level: 2\tPoints: 40");
+        assertTrue("setTitle fails", out.toString().contains("Level: 2 Points: 40"));
+    }
+
+    /**
+     * Tests that close shows the cursor again and that closing twice
+     * sends nothing more.
+     *
+     * @throws IOException if the display cannot be closed
+     */
+    @Test
+    public void close() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TerminalDisplay display = new TerminalDisplay(new MyBoundedGrid<Block>(4, 3), null, out);
+        display.showBlocks();
+        assertTrue("showBlocks fails", out.toString().contains("\u001b[?25l"));
+        out.reset();
+        display.close();
+        assertTrue("close fails", out.toString().contains("\u001b[?25h"));
+        out.reset();
+        display.close();
+        assertEquals("close fails", 0, out.size());
+    }
+
+    /**
+     * Tests the colors given to the colors of the tetrads.
+     */
+    @Test
+    public void colors()
+    {
+        assertEquals("colorIndex fails", 196, TerminalDisplay.colorIndex(Color.RED));
+        assertEquals("colorIndex fails", 21, TerminalDisplay.colorIndex(Color.BLUE));
+        assertEquals("colorIndex fails", 16, TerminalDisplay.colorIndex(Color.BLACK));
+        assertEquals("colorIndex fails", 244, TerminalDisplay.colorIndex(Color.GRAY));
+    }
+
+    /**
+     * Tests that the arrow keys are read in both of their forms and
+     * that other keys are ignored.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void keys() throws InterruptedException
+    {
+        byte[] keys = "\033[Dx\033[A\033OB\033\033[Cq".getBytes(StandardCharsets.US_ASCII);
+        final List<String> pressed = Collections.synchronizedList(new ArrayList<String>());
+        TerminalDisplay display = new TerminalDisplay(new MyBoundedGrid<Block>(20, 10),
+                                                      new ByteArrayInputStream(keys),
+                                                      new ByteArrayOutputStream());
+        display.setArrowListener(new ArrowListener()
+        {
+            public void upPressed()
+            {
+                pressed.add("up");
+            }
+
+            public void downPressed()
+            {
+                pressed.add("down");
+            }
+
+            public void leftPressed()
+            {
+                pressed.add("left");
+            }
+
+            public void rightPressed()
+            {
+                pressed.add("right");
+            }
+        });
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pressed.size() < 4 && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        assertEquals("setArrowListener fails", "[left, up, down, right]", pressed.toString());
+    }
+}
@@ -1,4 +1,5 @@
 import java.awt.Color;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Creates a Tetrad of blocks for the tetrid game and
@@ -13,102 +14,198 @@ public class Tetrad
     private MyBoundedGrid<Block> grid;
     private String shape;
     private Color color;
+    private boolean blocked;
+    private int shapeIndex;
+    private int rotation;
+    private int pivotRow;
+    private int pivotCol;
 
     /**
-     * Constructor for objects of class Tetrad.
+     * Constructor for objects of class Tetrad.  The shape is picked
+     * at random; games pick it with a PieceGenerator instead.
      * 
      * @param gr    the grid that the Tetrad will be placed in
      */
     public Tetrad(MyBoundedGrid<Block> gr)
+    {
+        this(gr, ThreadLocalRandom.current().nextInt(TetradTable.SHAPES.length));
+    }
+
+    /**
+     * Constructs a Tetrad with a given shape.
+     * 
+     * @param gr    the grid that the Tetrad will be placed in
+     * @param shp   the shape of the Tetrad, one of TetradTable.SHAPES
+     */
+    public Tetrad(MyBoundedGrid<Block> gr, String shp)
+    {
+        this(gr, TetradTable.indexOf(shp));
+    }
+
+    /**
+     * Constructs a Tetrad with the shape at an index of TetradTable.SHAPES,
+     * as returned by PieceGenerator.next.
+     * 
+     * @param gr    the grid that the Tetrad will be placed in
+     * @param shp   the index of the shape;  0 <= shp < TetradTable.SHAPES.length
+     */
+    public Tetrad(MyBoundedGrid<Block> gr, int shp)
+    {
+        this(gr, shp, 0, TetradTable.getStartRow(shp),
+             TetradTable.getStartCol(shp, gr.getNumCols()));
+    }
+
+    /**
+     * Constructs a Tetrad with a given shape that is already somewhere
+     * in the grid, such as a tetrad restored from a snapshot of a game.
+     * 
+     * @param gr    the grid that the Tetrad will be placed in
+     * @param shp   the index of the shape;  0 <= shp < TetradTable.SHAPES.length
+     * @param rot   the rotation;  0 <= rot < TetradTable.ROTATIONS
+     * @param row   the row of the first block
+     * @param col   the column of the first block
+     */
+    public Tetrad(MyBoundedGrid<Block> gr, int shp, int rot, int row, int col)
+    {
+        this(gr, shp, rot, row, col, new Block[TetradTable.CELLS]);
+    }
+
+    /**
+     * Constructs a Tetrad with a given shape at its starting position
+     * out of Blocks that already exist, such as the Blocks of rows a
+     * game has cleared, so that starting a tetrad need not make new ones.
+     * 
+     * @param gr    the grid that the Tetrad will be placed in
+     * @param shp   the index of the shape;  0 <= shp < TetradTable.SHAPES.length
+     * @param blks  the tetrad's blocks, which are not in any grid and are
+     *              given the shape's color;  a null element is replaced by
+     *              a new Block
+     */
+    Tetrad(MyBoundedGrid<Block> gr, int shp, Block[] blks)
+    {
+        this(gr, shp, 0, TetradTable.getStartRow(shp),
+             TetradTable.getStartCol(shp, gr.getNumCols()), blks);
+    }
+
+    /**
+     * Constructs a Tetrad with a given shape and position out of Blocks
+     * that already exist.
+     * 
+     * @param gr    the grid that the Tetrad will be placed in
+     * @param shp   the index of the shape;  0 <= shp < TetradTable.SHAPES.length
+     * @param rot   the rotation;  0 <= rot < TetradTable.ROTATIONS
+     * @param row   the row of the first block
+     * @param col   the column of the first block
+     * @param blks  the tetrad's blocks, which are not in any grid and are
+     *              given the shape's color;  a null element is replaced by
+     *              a new Block
+     */
+    Tetrad(MyBoundedGrid<Block> gr, int shp, int rot, int row, int col, Block[] blks)
     {
         grid = gr;
-        blocks = new Block[4];
-        String [] shapes = {"I", "T", "O", "L", "J", "S", "Z"};
-        Color [] colors = {new Color(255, 220, 210), new Color(250, 250, 250), 
-                           new Color(130, 255, 230), new Color(255, 218, 185), 
-                           new Color(238, 130, 238), new Color(135, 206, 235),
-                           new Color(200, 250, 100)};
-        int index = (int)(Math.random()*shapes.length);
-        color = colors[index];
+        blocks = blks;
+        shapeIndex = shp;
+        shape = TetradTable.SHAPES[shapeIndex];
+        color = Palette.DEFAULT.getColor(shapeIndex);
         for (int i = 0; i < blocks.length; i++)
         {
-            blocks[i] = new Block();
+            if (blocks[i] == null)
+            {
+                blocks[i] = new Block();
+            }
             blocks[i].setColor(color);
         }
-        shape = shapes[index];
-        Location [] locs = new Location[4];
-        int rows = grid.getNumRows();
-        int cols = grid.getNumCols();
         
-        //places the blocks in their locations in the grid
-        if (shape.equals("I"))
-        {
-            locs[0] = new Location (1,(cols/2)-1);
-            locs[1] = new Location (0,(cols/2)-1);
-            locs[2] = new Location (2,(cols/2)-1);
-            locs[3] = new Location (3,(cols/2)-1);
-        }
-        else if (shape.equals("T"))
-        {
-            locs[0] = new Location(0, ((cols/2) - 2 + 1));
-            locs[1] = new Location(0, ((cols/2) - 2 + 0));
-            locs[2] = new Location(0, ((cols/2) - 2 + 2));
-            locs[3] = new Location(1, (cols/2)-1);
-        }
-        else if (shape.equals("O"))
-        {
-            locs[0] = new Location(1, (cols/2));
-            locs[1] = new Location(0, (cols/2));
-            locs[2] = new Location(0, (cols/2)-1);
-            locs[3] = new Location(1, (cols/2)-1);
-        }
-        else if (shape.equals("L"))
-        {
-            locs[0] = new Location(1, ((cols/2) - 1));
-            locs[1] = new Location(0, ((cols/2) - 1));
-            locs[2] = new Location(2, ((cols/2) - 1));
-            locs[3] = new Location(2, (cols/2));
-        }
-        else if (shape.equals("J"))
-        {
-            locs[0] = new Location(1, ((cols/2)));
-            locs[1] = new Location(0, ((cols/2)));
-            locs[2] = new Location(2, ((cols/2)));
-            locs[3] = new Location(2, ((cols/2)-1));
-        }
-        else if (shape.equals("S"))
-        {
-            locs[0] = new Location(0, (cols/2)-1);
-            locs[1] = new Location(1, (cols/2)-1);
-            locs[2] = new Location(0, (cols/2));
-            locs[3] = new Location(1, (cols/2)-2);
-        }
-        else if (shape.equals("Z"))
+        //places the blocks in their starting locations in the grid
+        rotation = rot;
+        pivotRow = row;
+        pivotCol = col;
+        blocked = !fits(pivotRow, pivotCol, rotation);
+        int[] rowOffsets = TetradTable.getRowOffsets(shapeIndex, rotation);
+        int[] colOffsets = TetradTable.getColOffsets(shapeIndex, rotation);
+        for (int i = 0; i < blocks.length; i++)
         {
-            locs[0] = new Location(0, (cols/2)-1);
-            locs[1] = new Location(0, (cols/2)-2);
-            locs[2] = new Location(1, (cols/2)-1);
-            locs[3] = new Location(1, (cols/2));
+            blocks[i].putSelfInGrid(gr, grid.getLocation(pivotRow + rowOffsets[i],
+                                                         pivotCol + colOffsets[i]));
         }
-        addToLocations(gr, locs);
     }
 
     /**
-     * Puts the tetrad blocks at the locations given in the locs array.
+     * Checks if the tetrad was placed on top of blocks that were
+     * already in the grid when it was constructed, which means
+     * there was no room to start it.
+     *
+     * @return true if the starting locations were not all empty;
+     *         otherwise, false
+     */
+    public boolean wasBlocked()
+    {
+        return blocked;
+    }
+
+    /**
+     * Retrieves the shape of the tetrad.
      * 
-     * @param gr    the grid in which the blocks are to be located in
-     * @param locs  the locations on which the blocks are to be located
+     * @return the shape, one of TetradTable.SHAPES
+     */
+    public String getShape()
+    {
+        return shape;
+    }
+
+    /**
+     * Retrieves the index of the tetrad's shape in TetradTable.SHAPES.
      * 
-     * @precondition the tetrad blocks are not in any grid.
+     * @return the index of the shape
      */
-    private void addToLocations(MyBoundedGrid<Block> gr, Location[] locs)
+    public int getShapeIndex()
     {
-        for (int loc = 0; loc < locs.length; loc++)
-        {
-            blocks[loc].putSelfInGrid(gr, locs[loc]);
-        }
+        return shapeIndex;
     }
-    
+
+    /**
+     * Retrieves the rotation of the tetrad.
+     * 
+     * @return the number of clockwise turns from the starting
+     *         position;  0 <= rotation < TetradTable.ROTATIONS
+     */
+    public int getRotation()
+    {
+        return rotation;
+    }
+
+    /**
+     * Retrieves the row of the block the tetrad rotates around.
+     * 
+     * @return the row of the first block
+     */
+    public int getPivotRow()
+    {
+        return pivotRow;
+    }
+
+    /**
+     * Retrieves the column of the block the tetrad rotates around.
+     * 
+     * @return the column of the first block
+     */
+    public int getPivotCol()
+    {
+        return pivotCol;
+    }
+
+    /**
+     * Retrieves a hash of the grid together with this tetrad's shape
+     * and rotation, so that positions that cover the same cells with
+     * different tetrads hash differently.
+     * 
+     * @return the Zobrist hash of the grid and the tetrad
+     */
+    public long getHash()
+    {
+        return Zobrist.withPiece(grid.getHash(), shapeIndex, rotation);
+    }
+
     /**
      * Retrieves the array of blocks for the tetrad.
      * 
@@ -161,6 +258,89 @@ public class Tetrad
         return true;
     }
 
+    /**
+     * Tests whether the tetrad would fit with its first block at
+     * (row, col) in a given rotation, that is whether all of its
+     * blocks would be in valid locations that are empty or
+     * already hold one of its own blocks.  Nothing in the grid is
+     * changed.
+     * 
+     * @param row    the row of the first block
+     * @param col    the column of the first block
+     * @param rot    the rotation;  0 <= rot < TetradTable.ROTATIONS
+     * 
+     * @return true if the tetrad fits there; otherwise,
+     *         false
+     */
+    private boolean fits(int row, int col, int rot)
+    {
+        int[] rowOffsets = TetradTable.getRowOffsets(shapeIndex, rot);
+        int[] colOffsets = TetradTable.getColOffsets(shapeIndex, rot);
+        for (int i = 0; i < rowOffsets.length; i++)
+        {
+            int r = row + rowOffsets[i];
+            int c = col + colOffsets[i];
+            if (!grid.isValid(r, c))
+            {
+                return false;
+            }
+            Block occupant = grid.get(r, c);
+            if (occupant != null && !isOwnBlock(occupant))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a block is one of the blocks of this tetrad.
+     * 
+     * @param block  the block to check
+     * 
+     * @return true if the block belongs to this tetrad; otherwise,
+     *         false
+     */
+    public boolean isOwnBlock(Block block)
+    {
+        for (int i = 0; i < blocks.length; i++)
+        {
+            if (blocks[i] == block)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves the tetrad so its first block is at (row, col) in a
+     * given rotation.
+     * 
+     * @precondition fits(row, col, rot)
+     * 
+     * @param row    the row of the first block
+     * @param col    the column of the first block
+     * @param rot    the rotation;  0 <= rot < TetradTable.ROTATIONS
+     */
+    private void moveTo(int row, int col, int rot)
+    {
+        for (int i = 0; i < blocks.length; i++)
+        {
+            blocks[i].removeSelfFromGrid();
+        }
+        int[] rowOffsets = TetradTable.getRowOffsets(shapeIndex, rot);
+        int[] colOffsets = TetradTable.getColOffsets(shapeIndex, rot);
+        for (int i = 0; i < blocks.length; i++)
+        {
+            blocks[i].putSelfInGrid(grid, grid.getLocation(row + rowOffsets[i],
+                                                           col + colOffsets[i]));
+        }
+        pivotRow = row;
+        pivotCol = col;
+        rotation = rot;
+    }
+
     /**
      * Moves the tetrad deltaRow down and deltaCol columns to the right,
      * as long as the new positions are valid and empty.
@@ -173,20 +353,12 @@ public class Tetrad
      */
     public boolean translate(int deltaRow, int deltaCol)
     {
-        Location [] locs = removeBlocks();
-        Location [] newLocs = new Location [blocks.length];
-        for (int i = 0; i < locs.length; i++)
-        {
-            newLocs[i] = new Location(locs[i].getRow() + deltaRow, 
-                locs[i].getCol() + deltaCol);
-        }
-        if (areEmpty(grid, newLocs))
+        if (!fits(pivotRow + deltaRow, pivotCol + deltaCol, rotation))
         {
-            addToLocations(grid, newLocs);
-            return true;
+            return false;
         }
-        addToLocations(grid, locs);
-        return false;
+        moveTo(pivotRow + deltaRow, pivotCol + deltaCol, rotation);
+        return true;
     }
     
     /**
@@ -197,27 +369,13 @@ public class Tetrad
      */
     public boolean rotate()
     {
-        int rowZero = blocks[0].getLocation().getRow();
-        int colZero = blocks[0].getLocation().getCol();
-        Location [] locs = removeBlocks();
-        Location [] newLocs = new Location [blocks.length];
-        for (int i = 0; i < locs.length; i++)
-        {
-            newLocs[i] = new Location(rowZero - colZero + locs[i].getCol(),
-                                      rowZero + colZero - locs[i].getRow());
-        }
-        if (shape.equals("O"))
-        {
-            addToLocations(grid,locs);
-            return true;
-        }
-        if (areEmpty(grid, newLocs))
+        int next = (rotation + 1) % TetradTable.ROTATIONS;
+        if (!fits(pivotRow, pivotCol, next))
         {
-            addToLocations(grid, newLocs);
-            return true;
+            return false;
         }
-        addToLocations(grid, locs);
-        return false;
+        moveTo(pivotRow, pivotCol, next);
+        return true;
     }
     
     /**
@@ -351,18 +509,7 @@ public class Tetrad
      */
     public boolean canMoveLeft()
     {
-        Location leftmost = getLeftmostBlock().getLocation();
-        Block [] lftmst = getBlocksByCol(leftmost.getCol());
-        for (int i = 0; i < lftmst.length; i++)
-        {
-            if (leftmost.getCol() == 0 ||
-                    grid.get(new Location(lftmst[i].getLocation().getRow(), 
-                        leftmost.getCol() - 1)) != null)
-            {
-                return false;
-            }
-        }
-        return true;
+        return fits(pivotRow, pivotCol - 1, rotation);
     }
 
     /**
@@ -373,18 +520,7 @@ public class Tetrad
      */
     public boolean canMoveRight()
     {
-        Location rightmost = getRightmostBlock().getLocation();
-        Block [] rghtmst = getBlocksByCol(rightmost.getCol());
-        for (int i = 0; i < rghtmst.length; i++)
-        {
-            if (rightmost.getCol() == grid.getNumCols()-1 ||
-                    grid.get(new Location(rghtmst[i].getLocation().getRow(), 
-                        rightmost.getCol() + 1)) != null)
-            {
-                return false;
-            }
-        }
-        return true;
+        return fits(pivotRow, pivotCol + 1, rotation);
     }
 
     /**
@@ -395,17 +531,6 @@ public class Tetrad
      */
     public boolean canMoveDown()
     {
-        Location lowest = getLowestBlock().getLocation();
-        Block [] lwst = getBlocksByRow(lowest.getRow());
-        for (int i = 0; i < lwst.length; i++)
-        {
-            if (lowest.getRow() == grid.getNumRows()-1 ||
-                    grid.get(new Location(lowest.getRow() - 1,
-                        lwst[i].getLocation().getCol())) != null)
-            {
-                return false;
-            }
-        }
-        return true;
+        return fits(pivotRow + 1, pivotCol, rotation);
     }
 }
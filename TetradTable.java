@@ -0,0 +1,161 @@
+/**
+ * TetradTable holds the definition of every tetrad shape: where it
+ * starts in the grid and the cells it covers in each of its four
+ * rotations, as row and column offsets from its first block (the
+ * block it rotates around).  The tables are built once, so moving
+ * and rotating a tetrad only needs to look up its new cells.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class TetradTable
+{
+    /**
+     * The shapes that a tetrad can have.
+     */
+    public static final String[] SHAPES = {"I", "T", "O", "L", "J", "S", "Z"};
+
+    /**
+     * The number of rotations each shape has.
+     */
+    public static final int ROTATIONS = 4;
+
+    /**
+     * The number of blocks in every tetrad.
+     */
+    public static final int CELLS = 4;
+
+    /**
+     * The row of the first block when each shape starts.
+     */
+    private static final int[] START_ROW = {1, 0, 1, 1, 1, 0, 0};
+
+    /**
+     * The column of the first block when each shape starts,
+     * relative to the middle column (cols / 2).
+     */
+    private static final int[] START_COL = {-1, -1, 0, -1, 0, -1, -1};
+
+    /**
+     * The row and column offsets of each shape's blocks when it starts,
+     * in the order of the tetrad's blocks.
+     */
+    private static final int[][][] START_OFFSETS = {
+        {{0, 0}, {-1, 0}, {1, 0}, {2, 0}},     // I
+        {{0, 0}, {0, -1}, {0, 1}, {1, 0}},     // T
+        {{0, 0}, {-1, 0}, {-1, -1}, {0, -1}},  // O
+        {{0, 0}, {-1, 0}, {1, 0}, {1, 1}},     // L
+        {{0, 0}, {-1, 0}, {1, 0}, {1, -1}},    // J
+        {{0, 0}, {1, 0}, {0, 1}, {1, -1}},     // S
+        {{0, 0}, {0, -1}, {1, 0}, {1, 1}}      // Z
+    };
+
+    /**
+     * ROW_OFFSETS[shape][rotation][block] is the row of a block
+     * relative to the first block.
+     */
+    private static final int[][][] ROW_OFFSETS = new int[SHAPES.length][ROTATIONS][CELLS];
+
+    /**
+     * COL_OFFSETS[shape][rotation][block] is the column of a block
+     * relative to the first block.
+     */
+    private static final int[][][] COL_OFFSETS = new int[SHAPES.length][ROTATIONS][CELLS];
+
+    static
+    {
+        for (int s = 0; s < SHAPES.length; s++)
+        {
+            for (int i = 0; i < CELLS; i++)
+            {
+                int dRow = START_OFFSETS[s][i][0];
+                int dCol = START_OFFSETS[s][i][1];
+                for (int r = 0; r < ROTATIONS; r++)
+                {
+                    ROW_OFFSETS[s][r][i] = dRow;
+                    COL_OFFSETS[s][r][i] = dCol;
+                    // the O looks the same after a rotation, so it keeps its cells
+                    if (!SHAPES[s].equals("O"))
+                    {
+                        // 90 degrees clockwise takes (dRow, dCol) to (dCol, -dRow)
+                        int temp = dRow;
+                        dRow = dCol;
+                        dCol = -temp;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the index of a shape.
+     *
+     * @param shape  one of SHAPES
+     *
+     * @return the index of shape in SHAPES
+     */
+    public static int indexOf(String shape)
+    {
+        for (int s = 0; s < SHAPES.length; s++)
+        {
+            if (SHAPES[s].equals(shape))
+            {
+                return s;
+            }
+        }
+        throw new IllegalArgumentException("unknown shape " + shape);
+    }
+
+    /**
+     * Retrieves the row that a shape's first block starts in.
+     *
+     * @param shape  the index of the shape
+     *
+     * @return the starting row of the first block
+     */
+    public static int getStartRow(int shape)
+    {
+        return START_ROW[shape];
+    }
+
+    /**
+     * Retrieves the column that a shape's first block starts in.
+     *
+     * @param shape  the index of the shape
+     * @param cols   the number of columns in the grid
+     *
+     * @return the starting column of the first block
+     */
+    public static int getStartCol(int shape, int cols)
+    {
+        return cols / 2 + START_COL[shape];
+    }
+
+    /**
+     * Retrieves the row offsets of a shape's blocks in a rotation.
+     *
+     * @param shape     the index of the shape
+     * @param rotation  the rotation;  0 <= rotation < ROTATIONS
+     *
+     * @return the row of each block relative to the first block;
+     *         the array must not be changed
+     */
+    public static int[] getRowOffsets(int shape, int rotation)
+    {
+        return ROW_OFFSETS[shape][rotation];
+    }
+
+    /**
+     * Retrieves the column offsets of a shape's blocks in a rotation.
+     *
+     * @param shape     the index of the shape
+     * @param rotation  the rotation;  0 <= rotation < ROTATIONS
+     *
+     * @return the column of each block relative to the first block;
+     *         the array must not be changed
+     */
+    public static int[] getColOffsets(int shape, int rotation)
+    {
+        return COL_OFFSETS[shape][rotation];
+    }
+}
@@ -0,0 +1,98 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * The test class TetradTest checks that tetrads start, move,
+ * and rotate into the right locations.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class TetradTest
+{
+    /**
+     * Tests that each shape starts in the same locations
+     * it always has.
+     */
+    @Test
+    public void startingLocations()
+    {
+        MyBoundedGrid<Block> grid = new MyBoundedGrid<Block>(20, 10);
+        Tetrad t = new Tetrad(grid, "T");
+        assertEquals("T fails", new Location(0, 4), t.getBlocks()[0].getLocation());
+        assertEquals("T fails", new Location(0, 3), t.getBlocks()[1].getLocation());
+        assertEquals("T fails", new Location(0, 5), t.getBlocks()[2].getLocation());
+        assertEquals("T fails", new Location(1, 4), t.getBlocks()[3].getLocation());
+        assertFalse("wasBlocked fails", t.wasBlocked());
+
+        Tetrad s = new Tetrad(grid, "S");
+        assertTrue("wasBlocked fails", s.wasBlocked());
+    }
+
+    /**
+     * Tests that rotating turns the blocks 90 degrees clockwise
+     * around the first block, and that four rotations bring the
+     * tetrad back to where it started.
+     */
+    @Test
+    public void rotate()
+    {
+        MyBoundedGrid<Block> grid = new MyBoundedGrid<Block>(20, 10);
+        Tetrad l = new Tetrad(grid, "L");
+        l.translate(5, 0);
+        Location[] before = new Location[4];
+        for (int i = 0; i < 4; i++)
+        {
+            before[i] = l.getBlocks()[i].getLocation();
+        }
+        assertTrue("rotate fails", l.rotate());
+        Location pivot = before[0];
+        for (int i = 0; i < 4; i++)
+        {
+            Location expected = new Location(
+                pivot.getRow() - pivot.getCol() + before[i].getCol(),
+                pivot.getRow() + pivot.getCol() - before[i].getRow());
+            assertEquals("rotate fails", expected, l.getBlocks()[i].getLocation());
+            assertSame("rotate fails", l.getBlocks()[i], grid.get(expected));
+        }
+        assertEquals("rotate fails", 4, grid.getOccupiedLocations().size());
+        l.rotate();
+        l.rotate();
+        l.rotate();
+        assertEquals("getRotation fails", 0, l.getRotation());
+        for (int i = 0; i < 4; i++)
+        {
+            assertEquals("rotate fails", before[i], l.getBlocks()[i].getLocation());
+        }
+    }
+
+    /**
+     * Tests that a move that does not fit leaves the grid unchanged.
+     */
+    @Test
+    public void blockedMoves()
+    {
+        MyBoundedGrid<Block> grid = new MyBoundedGrid<Block>(20, 10);
+        Tetrad i = new Tetrad(grid, "I");
+        Block wall = new Block();
+        wall.putSelfInGrid(grid, new Location(1, 3));
+        assertFalse("canMoveLeft fails", i.canMoveLeft());
+        assertFalse("translate fails", i.translate(0, -1));
+        assertFalse("rotate fails", i.rotate());
+        assertSame("translate fails", wall, grid.get(1, 3));
+        assertEquals("translate fails", new Location(1, 4),
+                     i.getBlocks()[0].getLocation());
+        assertTrue("canMoveDown fails", i.canMoveDown());
+        while (i.translate(1, 0))
+        {
+        }
+        assertEquals("translate fails", new Location(19, 4),
+                     i.getBlocks()[3].getLocation());
+        assertFalse("canMoveDown fails", i.canMoveDown());
+
+        Tetrad o = new Tetrad(grid, "O");
+        assertTrue("rotate fails for O", o.rotate());
+        assertEquals("rotate fails for O", new Location(1, 5),
+                     o.getBlocks()[0].getLocation());
+    }
+}
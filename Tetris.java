@@ -1,30 +1,58 @@
 import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Displays a grid with 20 rows and 10 columns
- * and manages the Tetris game.
+ * and plays a TetrisGame on it.  The arrow keys only
+ * go into a CommandQueue, which the game loop applies
+ * at the start of its next tick and shows with its
+ * next render.
  * 
  * @author Julia Biswas
  * @version January 2, 2018
  */
 public class Tetris implements ArrowListener
 {
+    private TetrisGame game;
     private MyBoundedGrid<Block> grid;
-    private BlockDisplay display;
-    private Tetrad activeTetrad;
+    private GameDisplay display;
+    private ReplayRecorder recorder;
+    private CommandQueue commands;
 
     /**
      * Constructor for objects of class Tetris.
      */
     public Tetris()
     {
-        grid = new MyBoundedGrid<Block>(20,10);
-        display = new BlockDisplay(grid);
+        this(new TetrisGame(20, 10), null);
+    }
+
+    /**
+     * Constructs a Tetris that plays a game on a display.
+     * 
+     * @param gm   the game to play
+     * @param dsp  the display of the game's grid, or null for
+     *             a window
+     */
+    public Tetris(TetrisGame gm, GameDisplay dsp)
+    {
+        game = gm;
+        grid = game.getGrid();
+        recorder = new ReplayRecorder(game);
+        commands = new CommandQueue(64);
+        display = dsp;
+        if (display == null)
+        {
+            display = new BlockDisplay(grid, true);
+        }
         display.setArrowListener(this);
         display.setTitle("Tetris");
         display.showBlocks();
-        activeTetrad = new Tetrad(grid);
-        display.showBlocks();
     }
 
     /**
@@ -32,8 +60,7 @@ public class Tetris implements ArrowListener
      */
     public void upPressed()
     {
-        activeTetrad.rotate();
-        display.showBlocks();
+        commands.upPressed();
     }
 
     /**
@@ -41,8 +68,7 @@ public class Tetris implements ArrowListener
      */
     public void downPressed()
     {
-        activeTetrad.translate(1,0);
-        display.showBlocks();
+        commands.downPressed();
     }
 
     /**
@@ -50,8 +76,7 @@ public class Tetris implements ArrowListener
      */
     public void leftPressed()
     {
-        activeTetrad.translate(0, -1);
-        display.showBlocks();
+        commands.leftPressed();
     }
 
     /**
@@ -59,8 +84,7 @@ public class Tetris implements ArrowListener
      */
     public void rightPressed()
     {
-        activeTetrad.translate(0, 1);
-        display.showBlocks();
+        commands.rightPressed();
     }
     
     /**
@@ -68,70 +92,41 @@ public class Tetris implements ArrowListener
      * 
      * @return  the tetris game display
      */
-    public BlockDisplay getDisplay()
+    public GameDisplay getDisplay()
     {
         return display;
     }
 
     /**
-     * Tests if a specified row is completely filled.
+     * Retrieves the queue that the arrow keys are added to, for the
+     * game loop to drain.
      * 
-     * @param row   the row to check if it is filled
-     * 
-     * @return true if the row is filled; otherwise,
-     *         false
+     * @return  the queue of arrow keys
      */
-    private boolean isCompletedRow(int row)
+    public CommandQueue getCommands()
     {
-        for (int c = 0; c < grid.getNumCols(); c++)
-        {
-            if (grid.get(new Location (row, c)) == null)
-            {
-                return false;
-            }
-        }
-        return true;
+        return commands;
     }
 
     /**
-     * Clears a specified row.
+     * Retrieves the recorder that the keys and gravity steps
+     * go through on their way to the game.
      * 
-     * @param row   the row to clear
+     * @return  the replay recorder of the game
      */
-    private void clearRow(int row)
+    public ReplayRecorder getRecorder()
     {
-        int cols = grid.getNumCols();
-        for (int c = 0; c < cols; c++)
-        {
-            grid.remove(new Location (row, c));
-        }
-        for (int r = row-1; r >= 0; r--)
-        {
-            for (int c = 0; c < cols; c++)
-            {
-                if (grid.get(new Location(r, c)) != null)
-                {
-                    grid.get(new Location(r, c)).moveTo(new Location(r+1, c));
-                }
-            }
-        }
+        return recorder;
     }
 
     /**
-     * Clears all the completed rows.
+     * Retrieves the headless game that this Tetris displays.
+     * 
+     * @return  the tetris game core
      */
-    private int clearCompletedRows()
+    public TetrisGame getGame()
     {
-        int count = 0;
-        for (int r = 0; r < grid.getNumRows(); r++)
-        {
-            if (isCompletedRow(r))
-            {
-                clearRow(r);
-                count++;
-            }
-        }
-        return count;
+        return game;
     }
 
     /**
@@ -142,20 +137,7 @@ public class Tetris implements ArrowListener
      */
     public boolean isGameOver()
     {
-        if (!activeTetrad.canMoveLeft() && 
-                !activeTetrad.canMoveRight() &&
-                !activeTetrad.canMoveDown())
-        {
-            Block [] blocks = activeTetrad.getBlocks();
-            for (int i = 0; i < blocks.length; i++)
-            {
-                if (blocks[i].getLocation().getRow() == 0)
-                {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return game.isGameOver();
     }
 
     /**
@@ -165,10 +147,13 @@ public class Tetris implements ArrowListener
      *              each time this method is called
      * 
      * @return  the number of rows cleared in this play
+     * 
+     * @deprecated  the game is run by a GameLoop, which keeps time
+     *              without sleeping and renders at its own rate
      */
+    @Deprecated
     public int play(int sleep)
     {
-        int cleared = 0;
         try
         {
             //Pause for 1000 milliseconds.
@@ -178,10 +163,13 @@ public class Tetris implements ArrowListener
         {
             //ignore
         }
-        if (!activeTetrad.translate(1,0))
+        long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
+        commands.drainTo(recorder);
+        recorder.tick();
+        int cleared = recorder.step(1);
+        if (GameMetrics.ENABLED)
         {
-            cleared = clearCompletedRows();
-            activeTetrad = new Tetrad(grid);
+            GameMetrics.GLOBAL.recordTick(System.nanoTime() - start);
         }
         display.showBlocks();
         return cleared;
@@ -196,10 +184,10 @@ public class Tetris implements ArrowListener
         {
             for (int c = 0; c < grid.getNumCols(); c++)
             {
-                grid.remove(new Location (r, c));
+                grid.remove(r, c);
             }
         }
-        Block [] blocks = activeTetrad.getBlocks();
+        Block [] blocks = game.getActiveTetrad().getBlocks();
         for (int i = 0; i < blocks.length; i++)
         {
             blocks[i].setColor(Color.BLACK);
@@ -241,56 +229,93 @@ public class Tetris implements ArrowListener
     /**
      * Oversees the tetris game.
      * 
-     * @param args  arguments from the command line
+     * @param args  arguments from the command line:  "auto" to
+     *              let the computer play, and "terminal" to play
+     *              in the terminal instead of a window
+     * 
+     * @throws InterruptedException if the game is interrupted
+     * @throws IOException if the terminal cannot be used
      */
-    public static void main(String [] args)
+    public static void main(String [] args) throws InterruptedException, IOException
     {
-        Tetris tetris = new Tetris();
-        boolean done = false;
+        List<String> options = Arrays.asList(args);
+        TerminalDisplay terminal = null;
+        final TetrisGame game = new TetrisGame(20, 10);
+        if (options.contains("terminal"))
+        {
+            terminal = new TerminalDisplay(game.getGrid());
+        }
+        final Tetris tetris;
+        try
+        {
+            tetris = new Tetris(game, terminal);
         
-        //variables to increase level, points, and speed
-        int cleared = 0;
-        int level = 1;
-        int points = 0;
-        int sleep = 1000;
+            //sets the title to keep track of the points and level
+            tetris.getDisplay().setTitle("Level: 1" + "Points: 0");
         
-        //sets the title to keep track of the points and level
-        tetris.getDisplay().setTitle("Level: 1" + "Points: 0");
-        while (!done)
-        {
-            //gets the cleared number of rows
-            int rowsCleared = tetris.play(sleep);
-            cleared += rowsCleared;
-            
-            //adds points based on rows cleared
-            if (rowsCleared == 1)
-            {
-                points += 40*level;
-            }
-            else if (rowsCleared == 2)
+            //with -Dtetris.metrics=true, the metrics are printed every 10 seconds
+            if (GameMetrics.ENABLED)
             {
-                points += 100*level;
+                GameMetrics.GLOBAL.startLogging(System.err, 10, TimeUnit.SECONDS);
             }
-            else if (rowsCleared == 3)
+        
+            //the keys are queued and applied by the loop, on the game's thread
+            final CommandQueue commands = tetris.getCommands();
+        
+            //with "auto", the computer plays by pressing keys for each new tetrad
+            if (options.contains("auto"))
             {
-                points += 300*level;
+                final AutoPlayer player = new ExpectimaxPlayer(new Heuristic(),
+                    ForkJoinPool.commonPool(), 2, new TranspositionTable(1 << 16));
+                game.addObserver(new GameObserver()
+                {
+                    public void gameChanged(TetrisGame changed)
+                    {
+                        player.move(changed, commands);
+                    }
+                });
             }
-            else if (rowsCleared > 3)
+            GameLoop loop = new GameLoop(game, commands, new Runnable()
             {
-                points += 1200*level;
-            }
-            if (cleared >= 10)
+                public void run()
+                {
+                    tetris.getDisplay().showBlocks();
+                    tetris.getDisplay().setTitle("Level: " + game.getLevel() + "\t"
+                                                    + "Points: " + game.getPoints());
+                }
+            }, 60);
+            loop.setRecorder(tetris.getRecorder());
+            loop.start();
+            loop.awaitGameOver();
+            
+            //the loop has stopped rendering, so the end screen is not drawn over
+            tetris.clearScreen();
+            tetris.drawSadFace();
+            tetris.getDisplay().setTitle("Game Over");
+        }
+        finally
+        {
+            //the terminal is put back even if the game fails
+            if (terminal != null)
             {
-                level++;
-                sleep -= 100;
-                cleared -= 10;
+                terminal.close();
             }
-            tetris.getDisplay().setTitle("Level: " + level + "\t"
-                                            + "Points: " + points);
-            done = tetris.isGameOver();
         }
-        tetris.clearScreen();
-        tetris.drawSadFace();
-        tetris.getDisplay().setTitle("Game Over");
+        
+        //every game is kept as a replay in the archive
+        try (ReplayArchive archive = new ReplayArchive(Paths.get("replays")))
+        {
+            long id = archive.append(tetris.getRecorder().finish(), game.getPoints(),
+                                     game.getRowsCleared());
+            System.out.println("saved replay " + id);
+        }
+        catch (IOException e)
+        {
+            System.err.println("could not save the replay: " + e.getMessage());
+        }
+        if (GameMetrics.ENABLED)
+        {
+            System.err.println(GameMetrics.GLOBAL.snapshot());
+        }
     }
 }
@@ -0,0 +1,693 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * TetrisGame is the headless core of the Tetris game.  It holds the
+ * grid, the active tetrad, the score, and the level, and it advances
+ * one gravity step at a time with step(), so it can be run without
+ * a display and as fast as the caller wants.
+ *
+ * Besides the grid of Blocks that the displays show, the game keeps
+ * the locked cells in a BitBoard of palette indices, which the players
+ * search from without reading a Block.  The Blocks of cleared rows are
+ * kept and reused for the next tetrads, so a game that clears rows
+ * about as fast as it fills them makes no new Blocks.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class TetrisGame implements ArrowListener
+{
+    /**
+     * The points for clearing 0, 1, 2, 3, and 4 rows at once,
+     * which are multiplied by the level.
+     */
+    private static final int[] POINTS = {0, 40, 100, 300, 1200};
+
+    /**
+     * The number of rows that must be cleared to go up a level.
+     */
+    public static final int ROWS_PER_LEVEL = 10;
+
+    private MyBoundedGrid<Block> grid;
+    private BitBoard board;
+    private ArrayList<Block> spares;
+    private Tetrad activeTetrad;
+    private PieceGenerator pieces;
+    private ArrayList<GameObserver> observers;
+    private int level;
+    private int points;
+    private int cleared;
+    private int totalCleared;
+    private long ticks;
+    private boolean gameOver;
+
+    /**
+     * Constructs a game on a grid with 20 rows and 10 columns.
+     */
+    public TetrisGame()
+    {
+        this(20, 10);
+    }
+
+    /**
+     * Constructs a game on a grid with the given dimensions, with
+     * shapes picked uniformly from a random seed.
+     *
+     * @param rows  the grid's number of rows
+     * @param cols  the grid's number of columns
+     */
+    public TetrisGame(int rows, int cols)
+    {
+        this(rows, cols, new PieceGenerator(ThreadLocalRandom.current().nextLong(),
+                                            PieceGenerator.UNIFORM, 1));
+    }
+
+    /**
+     * Constructs a game on a grid with the given dimensions whose
+     * shapes come from a generator.
+     *
+     * @param rows  the grid's number of rows
+     * @param cols  the grid's number of columns
+     * @param gen   the generator that picks the shapes of the tetrads
+     *
+     * @throws IllegalArgumentException if there are more than
+     *         BitBoard.MAX_COLS columns
+     */
+    public TetrisGame(int rows, int cols, PieceGenerator gen)
+    {
+        grid = new MyBoundedGrid<Block>(rows, cols);
+        board = new BitBoard(rows, cols);
+        spares = new ArrayList<Block>();
+        observers = new ArrayList<GameObserver>();
+        level = 1;
+        pieces = gen;
+        activeTetrad = spawnTetrad();
+    }
+
+    /**
+     * Calculates the points for clearing rows at once.
+     *
+     * @param rowsCleared  the number of rows cleared by one tetrad
+     * @param level        the level when the rows were cleared
+     *
+     * @return the points earned
+     */
+    public static int pointsFor(int rowsCleared, int level)
+    {
+        return POINTS[Math.min(rowsCleared, POINTS.length - 1)] * level;
+    }
+
+    /**
+     * Retrieves the generator that picks the shapes of the tetrads,
+     * which can be used to preview the next shapes.
+     *
+     * @return the piece generator
+     */
+    public PieceGenerator getPieceGenerator()
+    {
+        return pieces;
+    }
+
+    /**
+     * Adds an observer that is told about every change to the game.
+     *
+     * @param observer  the observer to add
+     */
+    public void addObserver(GameObserver observer)
+    {
+        observers.add(observer);
+    }
+
+    /**
+     * Removes an observer.
+     *
+     * @param observer  the observer to remove
+     */
+    public void removeObserver(GameObserver observer)
+    {
+        observers.remove(observer);
+    }
+
+    /**
+     * Tells every observer that the game changed.
+     */
+    private void notifyObservers()
+    {
+        for (int i = 0; i < observers.size(); i++)
+        {
+            observers.get(i).gameChanged(this);
+        }
+    }
+
+    /**
+     * Retrieves the grid.
+     *
+     * @return the grid the game is played on
+     */
+    public MyBoundedGrid<Block> getGrid()
+    {
+        return grid;
+    }
+
+    /**
+     * Retrieves the locked cells of the grid, that is all of them but
+     * the active tetrad's, with the index of each one's color in
+     * Palette.DEFAULT.  The board is kept up to date as tetrads lock and
+     * rows are cleared.  If the grid has been changed some other way, so
+     * that the cells it holds differ, the board is first made again from
+     * the grid;  a change to the color of a locked Block alone is not
+     * noticed.
+     *
+     * @return the board of locked cells;  the caller must not change it
+     */
+    public BitBoard getBoard()
+    {
+        if (board.getHash() != lockedHash())
+        {
+            rebuildBoard();
+        }
+        return board;
+    }
+
+    /**
+     * Calculates the hash the board of locked cells has when it holds
+     * the same cells as the grid without the active tetrad.
+     *
+     * @return the hash of the grid without the active tetrad's cells
+     */
+    private long lockedHash()
+    {
+        long hash = grid.getHash();
+        Block[] blocks = activeTetrad.getBlocks();
+        for (int i = 0; i < blocks.length; i++)
+        {
+            Location loc = blocks[i].getLocation();
+            if (loc == null || grid.get(loc) != blocks[i])
+            {
+                continue;
+            }
+            int row = loc.getRow();
+            // the row's cells as they are once the earlier blocks are taken out
+            long mask = grid.getRowMask(row);
+            for (int j = 0; j < i; j++)
+            {
+                Location other = blocks[j].getLocation();
+                if (other != null && other.getRow() == row && grid.get(other) == blocks[j])
+                {
+                    mask &= ~(1L << other.getCol());
+                }
+            }
+            hash ^= Zobrist.rowKey(row, mask) ^ Zobrist.rowKey(row, mask & ~(1L << loc.getCol()));
+        }
+        return hash;
+    }
+
+    /**
+     * Makes the board of locked cells again from the grid.
+     */
+    private void rebuildBoard()
+    {
+        board = new BitBoard(grid);
+        Block[] blocks = activeTetrad.getBlocks();
+        for (int i = 0; i < blocks.length; i++)
+        {
+            Location loc = blocks[i].getLocation();
+            if (loc != null && grid.get(loc) == blocks[i])
+            {
+                board.remove(loc);
+            }
+        }
+    }
+
+    /**
+     * Takes a Block for a cell, reusing one from a cleared row if
+     * there is one.
+     *
+     * @return a Block that is not in any grid
+     */
+    private Block takeBlock()
+    {
+        if (spares.isEmpty())
+        {
+            return new Block();
+        }
+        return spares.remove(spares.size() - 1);
+    }
+
+    /**
+     * Keeps a Block that has been taken out of the grid for reuse,
+     * unless enough are kept already to fill the grid.
+     *
+     * @param block  the Block, which is no longer in the grid
+     */
+    private void keepBlock(Block block)
+    {
+        block.setLocation(null, null);
+        if (spares.size() < grid.getNumRows() * grid.getNumCols())
+        {
+            spares.add(block);
+        }
+    }
+
+    /**
+     * Retrieves the active tetrad.
+     *
+     * @return the tetrad that is currently falling
+     */
+    public Tetrad getActiveTetrad()
+    {
+        return activeTetrad;
+    }
+
+    /**
+     * Retrieves the level.
+     *
+     * @return the current level, starting at 1
+     */
+    public int getLevel()
+    {
+        return level;
+    }
+
+    /**
+     * Retrieves the points.
+     *
+     * @return the points earned so far
+     */
+    public int getPoints()
+    {
+        return points;
+    }
+
+    /**
+     * Retrieves the total number of rows cleared.
+     *
+     * @return the rows cleared since the game started
+     */
+    public int getRowsCleared()
+    {
+        return totalCleared;
+    }
+
+    /**
+     * Retrieves the number of steps taken.
+     *
+     * @return the number of times step() has moved the game on
+     */
+    public long getTicks()
+    {
+        return ticks;
+    }
+
+    /**
+     * Checks if the game is over or not.
+     *
+     * @return true if the game is over; otherwise,
+     *         false
+     */
+    public boolean isGameOver()
+    {
+        return gameOver;
+    }
+
+    /**
+     * Takes a compact snapshot of the game, which restore can return
+     * this or another game to.  For each row the snapshot holds a
+     * bitmask of the occupied cells, not counting the active tetrad, as
+     * a varint, followed by a byte for each of those cells with the
+     * index of its color in Palette.DEFAULT (or -1 for any other color).
+     * After the rows come the active tetrad's shape, rotation, and
+     * position, the level, points, and rows cleared, and the piece
+     * generator's seed, mode, preview size, and number of shapes drawn.
+     * The observers are not part of the snapshot.
+     *
+     * @return the snapshot
+     *
+     * @throws IllegalArgumentException if the grid has more than 64 columns
+     */
+    public byte[] snapshot()
+    {
+        int rows = grid.getNumRows();
+        int cols = grid.getNumCols();
+        if (cols > 64)
+        {
+            throw new IllegalArgumentException("too many columns for a snapshot: " + cols);
+        }
+        ByteBuffer out = ByteBuffer.allocate(rows * (10 + cols) + 80);
+        Replay.writeVarint(out, rows);
+        Replay.writeVarint(out, cols);
+        for (int r = 0; r < rows; r++)
+        {
+            long mask = 0;
+            if (grid.getRowCount(r) > 0)
+            {
+                for (int c = 0; c < cols; c++)
+                {
+                    Block block = grid.get(r, c);
+                    if (block != null && !activeTetrad.isOwnBlock(block))
+                    {
+                        mask |= 1L << c;
+                    }
+                }
+            }
+            Replay.writeVarint(out, mask);
+            for (long bits = mask; bits != 0; bits &= bits - 1)
+            {
+                int c = Long.numberOfTrailingZeros(bits);
+                out.put((byte) Palette.DEFAULT.indexOf(grid.get(r, c).getColor()));
+            }
+        }
+        out.put((byte) activeTetrad.getShapeIndex());
+        out.put((byte) activeTetrad.getRotation());
+        Replay.writeVarint(out, activeTetrad.getPivotRow());
+        Replay.writeVarint(out, activeTetrad.getPivotCol());
+        Replay.writeVarint(out, level);
+        Replay.writeVarint(out, points);
+        Replay.writeVarint(out, cleared);
+        Replay.writeVarint(out, totalCleared);
+        Replay.writeVarint(out, ticks);
+        out.put((byte) (gameOver ? 1 : 0));
+        out.putLong(pieces.getSeed());
+        out.put((byte) pieces.getMode());
+        Replay.writeVarint(out, pieces.getPreviewSize());
+        Replay.writeVarint(out, pieces.getCount());
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    /**
+     * Returns the game to a snapshot taken by snapshot.  The grid is
+     * refilled with Blocks, and the piece generator is replaced by
+     * one that will draw the same shapes as the one in the snapshot.
+     * The observers are kept but not told.
+     *
+     * @param snapshot  the snapshot of a game with a grid of the same size
+     *
+     * @throws IllegalArgumentException if the snapshot is of a grid of
+     *         another size
+     */
+    public void restore(byte[] snapshot)
+    {
+        ByteBuffer in = ByteBuffer.wrap(snapshot);
+        int rows = grid.getNumRows();
+        int cols = grid.getNumCols();
+        if (Replay.readVarint(in) != rows || Replay.readVarint(in) != cols)
+        {
+            throw new IllegalArgumentException("snapshot is of another size of grid");
+        }
+        for (int r = 0; r < rows; r++)
+        {
+            long mask = Replay.readVarint(in);
+            if (grid.getRowCount(r) == 0 && mask == 0)
+            {
+                continue;
+            }
+            for (int c = 0; c < cols; c++)
+            {
+                Block removed = grid.remove(r, c);
+                if (removed != null)
+                {
+                    keepBlock(removed);
+                }
+            }
+            for (long bits = mask; bits != 0; bits &= bits - 1)
+            {
+                int color = in.get();
+                Block block = takeBlock();
+                block.setColor(Palette.DEFAULT.getColor(color >= 0 ? color : Palette.BLOCK));
+                block.putSelfInGrid(grid, grid.getLocation(r, Long.numberOfTrailingZeros(bits)));
+            }
+        }
+        int shape = in.get();
+        int rotation = in.get();
+        int row = (int) Replay.readVarint(in);
+        int col = (int) Replay.readVarint(in);
+        activeTetrad = new Tetrad(grid, shape, rotation, row, col, takeBlocks());
+        rebuildBoard();
+        level = (int) Replay.readVarint(in);
+        points = (int) Replay.readVarint(in);
+        cleared = (int) Replay.readVarint(in);
+        totalCleared = (int) Replay.readVarint(in);
+        ticks = Replay.readVarint(in);
+        gameOver = in.get() != 0;
+        long seed = in.getLong();
+        int mode = in.get();
+        int previewSize = (int) Replay.readVarint(in);
+        long count = Replay.readVarint(in);
+        pieces = new PieceGenerator(seed, mode, previewSize);
+        for (long i = 0; i < count; i++)
+        {
+            pieces.next();
+        }
+    }
+
+    /**
+     * Rotates the active tetrad.
+     */
+    public void upPressed()
+    {
+        if (!gameOver && activeTetrad.rotate())
+        {
+            notifyObservers();
+        }
+    }
+
+    /**
+     * Moves the active tetrad down.
+     */
+    public void downPressed()
+    {
+        if (!gameOver && activeTetrad.translate(1, 0))
+        {
+            notifyObservers();
+        }
+    }
+
+    /**
+     * Moves the active tetrad to the left.
+     */
+    public void leftPressed()
+    {
+        if (!gameOver && activeTetrad.translate(0, -1))
+        {
+            notifyObservers();
+        }
+    }
+
+    /**
+     * Moves the active tetrad to the right.
+     */
+    public void rightPressed()
+    {
+        if (!gameOver && activeTetrad.translate(0, 1))
+        {
+            notifyObservers();
+        }
+    }
+
+    /**
+     * Moves the game on by one gravity step.  The active tetrad moves
+     * down a row; if it cannot, it is locked in place, the completed
+     * rows are cleared and scored, and a new tetrad is started.
+     *
+     * @return the number of rows cleared in this step
+     */
+    public int step()
+    {
+        return step(1);
+    }
+
+    /**
+     * Moves the game on by one gravity step in which the active
+     * tetrad falls up to rows rows.  If it cannot move down at all,
+     * it is locked in place, the completed rows are cleared and
+     * scored, and a new tetrad is started.
+     *
+     * @param rows  the most rows the tetrad may fall;  rows >= 1
+     *
+     * @return the number of rows cleared in this step
+     */
+    public int step(int rows)
+    {
+        if (gameOver)
+        {
+            return 0;
+        }
+        ticks++;
+        int rowsCleared = 0;
+        if (!activeTetrad.translate(1, 0))
+        {
+            rowsCleared = lockActiveTetrad();
+        }
+        else
+        {
+            int fallen = 1;
+            while (fallen < rows && activeTetrad.translate(1, 0))
+            {
+                fallen++;
+            }
+        }
+        notifyObservers();
+        return rowsCleared;
+    }
+
+    /**
+     * Locks the active tetrad where it is, clears and scores the
+     * completed rows, and starts the next tetrad.  The game is over
+     * when the locked tetrad reaches the top row or the next one
+     * cannot be started.
+     *
+     * @return the number of rows cleared
+     */
+    private int lockActiveTetrad()
+    {
+        Block[] blocks = activeTetrad.getBlocks();
+        int top = grid.getNumRows();
+        int bottom = -1;
+        for (int i = 0; i < blocks.length; i++)
+        {
+            int row = blocks[i].getLocation().getRow();
+            top = Math.min(top, row);
+            bottom = Math.max(bottom, row);
+        }
+        if (top == 0)
+        {
+            gameOver = true;
+        }
+        // the board follows the grid only if nothing else has changed the grid
+        boolean follow = board.getHash() == lockedHash();
+        if (follow)
+        {
+            board.place(activeTetrad.getShapeIndex(), activeTetrad.getRotation(),
+                        activeTetrad.getPivotRow(), activeTetrad.getPivotCol(),
+                        activeTetrad.getShapeIndex());
+        }
+        GameEvents.lock(activeTetrad);
+        long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
+        GameEvents.Clear clear = GameEvents.beginClear();
+        int rowsCleared = clearCompletedRows(top, bottom);
+        if (follow && rowsCleared > 0)
+        {
+            board.clearFullRows();
+        }
+        if (GameMetrics.ENABLED)
+        {
+            GameMetrics.GLOBAL.recordClear(System.nanoTime() - start);
+            GameMetrics.GLOBAL.countLines(rowsCleared);
+        }
+        GameEvents.endClear(clear, rowsCleared, top, bottom);
+        points += pointsFor(rowsCleared, level);
+        totalCleared += rowsCleared;
+        cleared += rowsCleared;
+        if (cleared >= ROWS_PER_LEVEL)
+        {
+            level++;
+            cleared -= ROWS_PER_LEVEL;
+            if (GameMetrics.ENABLED)
+            {
+                GameMetrics.GLOBAL.countLevelUp();
+            }
+            GameEvents.levelChange(level, points);
+        }
+        if (!gameOver)
+        {
+            activeTetrad = spawnTetrad();
+            if (activeTetrad.wasBlocked())
+            {
+                gameOver = true;
+            }
+        }
+        return rowsCleared;
+    }
+
+    /**
+     * Starts a tetrad with the next shape from the piece generator.
+     *
+     * @return the new tetrad
+     */
+    private Tetrad spawnTetrad()
+    {
+        Tetrad tetrad = new Tetrad(grid, pieces.next(), takeBlocks());
+        if (GameMetrics.ENABLED)
+        {
+            GameMetrics.GLOBAL.countPiece();
+        }
+        GameEvents.spawn(tetrad);
+        return tetrad;
+    }
+
+    /**
+     * Takes the Blocks for a new tetrad.
+     *
+     * @return Blocks that are not in any grid
+     */
+    private Block[] takeBlocks()
+    {
+        Block[] blocks = new Block[TetradTable.CELLS];
+        for (int i = 0; i < blocks.length; i++)
+        {
+            blocks[i] = takeBlock();
+        }
+        return blocks;
+    }
+
+    /**
+     * Clears all the completed rows.
+     *
+     * @return the number of rows cleared
+     */
+    int clearCompletedRows()
+    {
+        return clearCompletedRows(0, grid.getNumRows() - 1);
+    }
+
+    /**
+     * Clears the completed rows between top and bottom, and moves
+     * the rows above them down.  Only the rows that the last tetrad
+     * was locked in need to be checked, since no other row can
+     * have been completed.  The Blocks of the cleared rows are kept
+     * for the next tetrads.
+     *
+     * @param top     the highest row to check
+     * @param bottom  the lowest row to check
+     *
+     * @return the number of rows cleared
+     */
+    private int clearCompletedRows(int top, int bottom)
+    {
+        int cols = grid.getNumCols();
+        for (int r = top; r <= bottom; r++)
+        {
+            if (grid.isRowFull(r))
+            {
+                for (int c = 0; c < cols; c++)
+                {
+                    keepBlock(grid.get(r, c));
+                }
+            }
+        }
+        int count = grid.removeFullRows(top, bottom);
+        if (count > 0)
+        {
+            // the blocks that moved down need to know where they are now
+            for (int r = bottom; r >= 0; r--)
+            {
+                if (grid.getRowCount(r) == 0)
+                {
+                    continue;
+                }
+                for (int c = 0; c < cols; c++)
+                {
+                    Block block = grid.get(r, c);
+                    if (block != null)
+                    {
+                        block.setLocation(grid.getLocation(r, c));
+                    }
+                }
+            }
+        }
+        return count;
+    }
+}
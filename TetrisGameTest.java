@@ -0,0 +1,90 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * The test class TetrisGameTest checks that a TetrisGame keeps its
+ * board of locked cells in step with its grid, and that it reuses the
+ * Blocks of cleared rows for new tetrads.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class TetrisGameTest
+{
+    /**
+     * Checks that a game's board of locked cells holds the cells and
+     * colors of its grid without the active tetrad.
+     *
+     * @param game  the game
+     */
+    private static void checkBoard(TetrisGame game)
+    {
+        MyBoundedGrid<Block> grid = game.getGrid();
+        BitBoard board = game.getBoard();
+        for (int r = 0; r < grid.getNumRows(); r++)
+        {
+            for (int c = 0; c < grid.getNumCols(); c++)
+            {
+                Block block = grid.get(r, c);
+                if (block == null || game.getActiveTetrad().isOwnBlock(block))
+                {
+                    assertFalse("getBoard fails", board.isOccupied(r, c));
+                }
+                else
+                {
+                    assertEquals("getBoard fails", block.getColor(), board.getColor(r, c));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that the board follows a long game, and that once rows are
+     * being cleared the game stops making new Blocks.
+     */
+    @Test
+    public void reusesBlocks()
+    {
+        TetrisGame game = new TetrisGame(20, 10, new PieceGenerator(5L, PieceGenerator.BAG, 1));
+        AutoPlayer player = new AutoPlayer(new Heuristic());
+        Set<Block> seen = Collections.newSetFromMap(new IdentityHashMap<Block, Boolean>());
+        for (int i = 0; i < 500 && !game.isGameOver(); i++)
+        {
+            Tetrad tetrad = game.getActiveTetrad();
+            Collections.addAll(seen, tetrad.getBlocks());
+            player.move(game, game);
+            while (!game.isGameOver() && game.getActiveTetrad() == tetrad)
+            {
+                game.step(20);
+            }
+            checkBoard(game);
+        }
+        assertFalse("step fails", game.isGameOver());
+        assertTrue("step fails", game.getRowsCleared() > 150);
+        assertTrue("step fails", seen.size() <= 20 * 10 + 4);
+    }
+
+    /**
+     * Tests that the board is made again when the grid is changed
+     * without the game, and when the game is restored.
+     */
+    @Test
+    public void rebuildsBoard()
+    {
+        TetrisGame game = new TetrisGame(20, 10, new PieceGenerator(5L, PieceGenerator.BAG, 1));
+        Block block = new Block();
+        block.setColor(Palette.DEFAULT.getColor(2));
+        block.putSelfInGrid(game.getGrid(), new Location(19, 4));
+        checkBoard(game);
+        assertEquals("getBoard fails", 2, game.getBoard().get(19, 4));
+
+        game.restore(new TetrisGame(20, 10).snapshot());
+        checkBoard(game);
+        // the block may have been reused, but only where it really is
+        assertTrue("restore fails", block.getGrid() == null
+                                    || game.getGrid().get(block.getLocation()) == block);
+    }
+}
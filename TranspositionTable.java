@@ -0,0 +1,143 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * TranspositionTable remembers the values a search has found for board
+ * positions, keyed by the board's Zobrist hash and the search depth, so
+ * that a position reached along different paths is only searched once.
+ * The table has a fixed number of slots and never allocates after it is
+ * constructed.  It can be shared by several threads without locks: each
+ * slot is two longs, the entry's data and its key exclusive ored with the
+ * data, so an entry that was torn by two threads writing at once fails
+ * the check and reads as a miss.
+ *
+ * When two positions want the same slot, the new entry replaces the old
+ * one if the old one is from an earlier generation (see nextGeneration)
+ * or was not searched deeper than the new one.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class TranspositionTable
+{
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final int DEPTH_BITS = 16;
+    private static final int GENERATION_BITS = 16;
+    private static final int FIELD_MASK = 0xFFFF;
+
+    private AtomicLongArray slots;
+    private int mask;
+    private AtomicInteger generation;
+
+    /**
+     * Constructs an empty table.
+     *
+     * @param capacity  the number of entries the table can hold; it is
+     *                  rounded up to a power of two
+     */
+    public TranspositionTable(int capacity)
+    {
+        int size = 1;
+        while (size < capacity)
+        {
+            size <<= 1;
+        }
+        slots = new AtomicLongArray(2 * size);
+        mask = size - 1;
+        generation = new AtomicInteger(1);
+    }
+
+    /**
+     * Retrieves the number of entries the table can hold.
+     *
+     * @return the capacity of the table
+     */
+    public int getCapacity()
+    {
+        return mask + 1;
+    }
+
+    /**
+     * Starts a new generation, so that the entries already in the table
+     * are replaced before the entries added from now on.  A player
+     * calls this once per move.
+     */
+    public void nextGeneration()
+    {
+        int next = (generation.get() + 1) & FIELD_MASK;
+        // generation 0 is never used, so that an empty slot never checks out
+        generation.set(next == 0 ? 1 : next);
+    }
+
+    /**
+     * Looks up the value of a position.
+     *
+     * @param hash   the Zobrist hash of the position
+     * @param depth  the depth the position was searched to;
+     *               0 <= depth < 65536
+     *
+     * @return the value, or Double.NaN if the table does not have it
+     */
+    public double get(long hash, int depth)
+    {
+        long key = key(hash, depth);
+        int slot = (int) (key & mask) << 1;
+        long check = slots.get(slot);
+        long data = slots.get(slot + 1);
+        if (data == 0 || (check ^ data) != key || (int) (data & FIELD_MASK) != depth)
+        {
+            return Double.NaN;
+        }
+        return Float.intBitsToFloat((int) (data >>> (DEPTH_BITS + GENERATION_BITS)));
+    }
+
+    /**
+     * Stores the value of a position, unless its slot holds an entry
+     * from this generation that was searched deeper.
+     *
+     * @param hash   the Zobrist hash of the position
+     * @param depth  the depth the position was searched to;
+     *               0 <= depth < 65536
+     * @param value  the value of the position
+     */
+    public void put(long hash, int depth, double value)
+    {
+        long key = key(hash, depth);
+        int slot = (int) (key & mask) << 1;
+        int current = generation.get();
+        long old = slots.get(slot + 1);
+        if (old != 0 && (int) ((old >>> DEPTH_BITS) & FIELD_MASK) == current
+                && (int) (old & FIELD_MASK) > depth)
+        {
+            return;
+        }
+        long data = ((long) Float.floatToIntBits((float) value) << (DEPTH_BITS + GENERATION_BITS))
+                    | ((long) current << DEPTH_BITS) | depth;
+        slots.set(slot, key ^ data);
+        slots.set(slot + 1, data);
+    }
+
+    /**
+     * Removes every entry from the table.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < slots.length(); i++)
+        {
+            slots.set(i, 0);
+        }
+    }
+
+    /**
+     * Combines a hash and a depth into the key of an entry.
+     *
+     * @param hash   the Zobrist hash of the position
+     * @param depth  the depth the position was searched to
+     *
+     * @return the key
+     */
+    private static long key(long hash, int depth)
+    {
+        return Zobrist.mix(hash + (depth + 1) * GOLDEN);
+    }
+}
@@ -0,0 +1,51 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * The test class TranspositionTableTest checks that a TranspositionTable
+ * finds the values put in it and follows its replacement policy.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class TranspositionTableTest
+{
+    /**
+     * Tests that values are found under their hash and depth only.
+     */
+    @Test
+    public void getAndPut()
+    {
+        TranspositionTable table = new TranspositionTable(1000);
+        assertEquals("getCapacity fails", 1024, table.getCapacity());
+        assertTrue("get fails", Double.isNaN(table.get(12345L, 2)));
+        table.put(12345L, 2, -3.5);
+        assertEquals("get fails", -3.5, table.get(12345L, 2), 0.0);
+        assertTrue("get fails", Double.isNaN(table.get(12345L, 1)));
+        assertTrue("get fails", Double.isNaN(table.get(54321L, 2)));
+        table.clear();
+        assertTrue("clear fails", Double.isNaN(table.get(12345L, 2)));
+    }
+
+    /**
+     * Tests that a deeper entry is kept within a generation and
+     * replaced in the next one.
+     */
+    @Test
+    public void replacement()
+    {
+        // with one slot, every entry competes for it
+        TranspositionTable table = new TranspositionTable(1);
+        table.put(1L, 3, 1.0);
+        table.put(2L, 1, 2.0);
+        assertEquals("put fails", 1.0, table.get(1L, 3), 0.0);
+        assertTrue("put fails", Double.isNaN(table.get(2L, 1)));
+        table.put(2L, 3, 2.0);
+        assertEquals("put fails", 2.0, table.get(2L, 3), 0.0);
+
+        table.nextGeneration();
+        table.put(1L, 1, 1.0);
+        assertEquals("nextGeneration fails", 1.0, table.get(1L, 1), 0.0);
+        assertTrue("nextGeneration fails", Double.isNaN(table.get(2L, 3)));
+    }
+}
@@ -0,0 +1,539 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tuner finds good weights for a Heuristic with a genetic algorithm.  It
+ * keeps a population of weight vectors and scores each one by the points
+ * an AutoPlayer using it earns in a number of headless TetrisGames, so
+ * the weights are tuned against the game's own rules.  The best vectors
+ * are kept, and the rest of the next generation is bred from vectors
+ * that win tournaments.
+ *
+ * Every vector in a generation plays the same seeded games, so the only
+ * difference between them is the weights, and a generation can be run
+ * again from its seed.  The games run in a work-stealing ForkJoinPool,
+ * one task per game, and the population is saved to a checkpoint file
+ * after every generation so that tuning can be stopped and resumed.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class Tuner
+{
+    /**
+     * The number of vectors copied unchanged into the next generation.
+     */
+    public static final int ELITE = 4;
+
+    /**
+     * The number of vectors that compete in each tournament.
+     */
+    public static final int TOURNAMENT = 4;
+
+    /**
+     * The chance that a child has one of its weights changed.
+     */
+    public static final double MUTATION_RATE = 0.3;
+
+    /**
+     * The standard deviation of a change to a weight.
+     */
+    public static final double MUTATION = 0.2;
+
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private double[][] population;
+    private long[] fitness;
+    private int generation;
+    private long seed;
+    private int games;
+    private int maxPieces;
+    private ForkJoinPool pool;
+    private double[] best;
+    private long bestFitness;
+
+    /**
+     * Constructs a tuner with a random population.
+     *
+     * @param size    the number of vectors in the population;  size > ELITE
+     * @param gms     the number of games each vector plays per generation
+     * @param pieces  the most tetrads a game may last
+     * @param sd      the seed the population and games are made from
+     * @param p       the pool the games are played in
+     */
+    public Tuner(int size, int gms, int pieces, long sd, ForkJoinPool p)
+    {
+        this(new double[size][], 0, gms, pieces, sd, p);
+        SplittableRandom random = new SplittableRandom(sd);
+        for (int i = 0; i < size; i++)
+        {
+            double[] weights = new double[Heuristic.WEIGHTS];
+            for (int w = 0; w < weights.length; w++)
+            {
+                weights[w] = random.nextDouble(-1.0, 1.0);
+            }
+            population[i] = normalize(weights);
+        }
+    }
+
+    /**
+     * Constructs a tuner with a given population.
+     *
+     * @param pop     the population
+     * @param gen     the number of the population's generation
+     * @param gms     the number of games each vector plays per generation
+     * @param pieces  the most tetrads a game may last
+     * @param sd      the seed the games are made from
+     * @param p       the pool the games are played in
+     */
+    private Tuner(double[][] pop, int gen, int gms, int pieces, long sd, ForkJoinPool p)
+    {
+        population = pop;
+        fitness = new long[pop.length];
+        generation = gen;
+        games = gms;
+        maxPieces = pieces;
+        seed = sd;
+        pool = p;
+        bestFitness = -1;
+    }
+
+    /**
+     * Retrieves the number of the current generation.
+     *
+     * @return the generation, counting from 0
+     */
+    public int getGeneration()
+    {
+        return generation;
+    }
+
+    /**
+     * Retrieves the current population.
+     *
+     * @return the weight vectors; the caller must not change them
+     */
+    public double[][] getPopulation()
+    {
+        return population;
+    }
+
+    /**
+     * Retrieves the best weights found so far.
+     *
+     * @return the best weights, or null if no generation has been run
+     */
+    public double[] getBest()
+    {
+        return best;
+    }
+
+    /**
+     * Retrieves the fitness of the best weights found so far.
+     *
+     * @return the total points the best weights earned in one
+     *         generation's games, or -1 if no generation has been run
+     */
+    public long getBestFitness()
+    {
+        return bestFitness;
+    }
+
+    /**
+     * Plays one headless TetrisGame with an AutoPlayer, so the points
+     * come from the game's own rules for clearing rows, levels, and the
+     * end of the game.  The player presses the keys for each tetrad
+     * straight into the game, which then drops it with one step.
+     *
+     * @param heuristic  the heuristic the player uses
+     * @param gameSeed   the seed the game's tetrads are drawn from
+     * @param pieces     the most tetrads the game may last
+     *
+     * @return the points earned in the game
+     */
+    public static long playGame(Heuristic heuristic, long gameSeed, int pieces)
+    {
+        AutoPlayer player = new AutoPlayer(heuristic);
+        TetrisGame game = new TetrisGame(20, 10,
+            new PieceGenerator(gameSeed, PieceGenerator.UNIFORM, 0));
+        int rows = game.getGrid().getNumRows();
+        for (int i = 0; i < pieces && !game.isGameOver(); i++)
+        {
+            Tetrad tetrad = game.getActiveTetrad();
+            if (!player.move(game, game))
+            {
+                break;
+            }
+            while (!game.isGameOver() && game.getActiveTetrad() == tetrad)
+            {
+                game.step(rows);
+            }
+        }
+        return game.getPoints();
+    }
+
+    /**
+     * Scores every vector of the current population, then replaces the
+     * population with the next generation.
+     */
+    public void runGeneration()
+    {
+        evaluate();
+        breed();
+        generation++;
+    }
+
+    /**
+     * Scores every vector of the current population by playing its
+     * games in the pool.
+     */
+    private void evaluate()
+    {
+        long[] points = new long[population.length * games];
+        pool.invoke(new GameTask(points, 0, points.length));
+        for (int i = 0; i < population.length; i++)
+        {
+            fitness[i] = 0;
+            for (int g = 0; g < games; g++)
+            {
+                fitness[i] += points[i * games + g];
+            }
+            if (fitness[i] > bestFitness)
+            {
+                bestFitness = fitness[i];
+                best = population[i].clone();
+            }
+        }
+    }
+
+    /**
+     * Replaces the population with the next generation: the ELITE best
+     * vectors unchanged, and children of tournament winners for the rest.
+     */
+    private void breed()
+    {
+        SplittableRandom random = new SplittableRandom(Zobrist.mix(seed + generation * GOLDEN));
+        Integer[] order = new Integer[population.length];
+        for (int i = 0; i < order.length; i++)
+        {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>()
+        {
+            public int compare(Integer a, Integer b)
+            {
+                return Long.compare(fitness[b], fitness[a]);
+            }
+        });
+
+        double[][] next = new double[population.length][];
+        for (int i = 0; i < ELITE; i++)
+        {
+            next[i] = population[order[i]];
+        }
+        for (int i = ELITE; i < next.length; i++)
+        {
+            int mother = tournament(random);
+            int father = tournament(random);
+            double[] child = new double[Heuristic.WEIGHTS];
+            // the fitter parent contributes more
+            double share = (fitness[mother] + 1.0) / (fitness[mother] + fitness[father] + 2.0);
+            for (int w = 0; w < child.length; w++)
+            {
+                child[w] = share * population[mother][w] + (1 - share) * population[father][w];
+            }
+            if (random.nextDouble() < MUTATION_RATE)
+            {
+                child[random.nextInt(child.length)] += random.nextGaussian() * MUTATION;
+            }
+            next[i] = normalize(child);
+        }
+        population = next;
+    }
+
+    /**
+     * Picks TOURNAMENT vectors at random and returns the fittest.
+     *
+     * @param random  the random numbers to pick with
+     *
+     * @return the index of the winner
+     */
+    private int tournament(SplittableRandom random)
+    {
+        int winner = random.nextInt(population.length);
+        for (int i = 1; i < TOURNAMENT; i++)
+        {
+            int other = random.nextInt(population.length);
+            if (fitness[other] > fitness[winner])
+            {
+                winner = other;
+            }
+        }
+        return winner;
+    }
+
+    /**
+     * Scales a vector to length 1.  Only the directions of the weights
+     * matter to a player, so this keeps them from growing.
+     *
+     * @param weights  the vector, which is changed
+     *
+     * @return the vector
+     */
+    private static double[] normalize(double[] weights)
+    {
+        double length = 0;
+        for (int w = 0; w < weights.length; w++)
+        {
+            length += weights[w] * weights[w];
+        }
+        length = Math.sqrt(length);
+        if (length > 0)
+        {
+            for (int w = 0; w < weights.length; w++)
+            {
+                weights[w] /= length;
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Retrieves the seed of one of the current generation's games.
+     *
+     * @param game  the number of the game
+     *
+     * @return the seed of the game
+     */
+    private long gameSeed(int game)
+    {
+        return Zobrist.mix(seed ^ ((long) generation * games + game + 1) * GOLDEN);
+    }
+
+    /**
+     * Saves the tuner to a checkpoint file.  The file is written next
+     * to the old one and then moved over it, so a crash while saving
+     * leaves the old checkpoint.
+     *
+     * @param file  the checkpoint file
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException
+    {
+        List<String> lines = new ArrayList<String>();
+        lines.add("seed " + seed);
+        lines.add("generation " + generation);
+        lines.add("games " + games);
+        lines.add("pieces " + maxPieces);
+        if (best != null)
+        {
+            lines.add("best " + bestFitness + " " + join(best));
+        }
+        for (int i = 0; i < population.length; i++)
+        {
+            lines.add(join(population[i]));
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, lines);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a tuner from a checkpoint file written by save.
+     *
+     * @param file  the checkpoint file
+     * @param p     the pool the games are played in
+     *
+     * @return the tuner, ready to run the saved generation
+     *
+     * @throws IOException if the file cannot be read or is not a checkpoint
+     */
+    public static Tuner load(Path file, ForkJoinPool p) throws IOException
+    {
+        List<String> lines = Files.readAllLines(file);
+        try
+        {
+            long sd = Long.parseLong(value(lines.get(0), "seed"));
+            int gen = Integer.parseInt(value(lines.get(1), "generation"));
+            int gms = Integer.parseInt(value(lines.get(2), "games"));
+            int pieces = Integer.parseInt(value(lines.get(3), "pieces"));
+            int first = 4;
+            double[] best = null;
+            long bestFitness = -1;
+            if (lines.get(first).startsWith("best "))
+            {
+                String[] parts = lines.get(first).split(" ", 3);
+                bestFitness = Long.parseLong(parts[1]);
+                best = split(parts[2]);
+                first++;
+            }
+            double[][] pop = new double[lines.size() - first][];
+            for (int i = 0; i < pop.length; i++)
+            {
+                pop[i] = split(lines.get(first + i));
+            }
+            Tuner tuner = new Tuner(pop, gen, gms, pieces, sd, p);
+            tuner.best = best;
+            tuner.bestFitness = bestFitness;
+            return tuner;
+        }
+        catch (RuntimeException e)
+        {
+            throw new IOException("not a tuner checkpoint: " + file, e);
+        }
+    }
+
+    /**
+     * Retrieves the value of a "name value" line.
+     *
+     * @param line  the line
+     * @param name  the name the line must start with
+     *
+     * @return the value
+     */
+    private static String value(String line, String name)
+    {
+        if (!line.startsWith(name + " "))
+        {
+            throw new IllegalArgumentException("expected " + name + ": " + line);
+        }
+        return line.substring(name.length() + 1);
+    }
+
+    /**
+     * Writes a vector as numbers separated by spaces.
+     *
+     * @param weights  the vector
+     *
+     * @return the numbers
+     */
+    private static String join(double[] weights)
+    {
+        StringBuilder line = new StringBuilder();
+        for (int w = 0; w < weights.length; w++)
+        {
+            if (w > 0)
+            {
+                line.append(' ');
+            }
+            line.append(weights[w]);
+        }
+        return line.toString();
+    }
+
+    /**
+     * Reads a vector written by join.
+     *
+     * @param line  the numbers separated by spaces
+     *
+     * @return the vector;  length == Heuristic.WEIGHTS
+     */
+    private static double[] split(String line)
+    {
+        String[] parts = line.trim().split(" ");
+        if (parts.length != Heuristic.WEIGHTS)
+        {
+            throw new IllegalArgumentException("expected " + Heuristic.WEIGHTS
+                                               + " weights: " + line);
+        }
+        double[] weights = new double[parts.length];
+        for (int w = 0; w < weights.length; w++)
+        {
+            weights[w] = Double.parseDouble(parts[w]);
+        }
+        return weights;
+    }
+
+    /**
+     * GameTask plays a range of the generation's games, splitting the
+     * range in two until each task has a single game, so that idle
+     * threads can steal games from busy ones.
+     */
+    private class GameTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private long[] points;
+        private int from;
+        private int to;
+
+        /**
+         * Constructs a task that plays games from through to - 1, where
+         * game i is game i % games of vector i / games.
+         *
+         * @param pts  the array the points of each game are stored in
+         * @param f    the first game
+         * @param t    one more than the last game
+         */
+        GameTask(long[] pts, int f, int t)
+        {
+            points = pts;
+            from = f;
+            to = t;
+        }
+
+        /**
+         * Plays the games.
+         */
+        protected void compute()
+        {
+            if (to - from > 1)
+            {
+                int middle = (from + to) / 2;
+                invokeAll(new GameTask(points, from, middle), new GameTask(points, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++)
+            {
+                points[i] = playGame(new Heuristic(population[i / games]),
+                                     gameSeed(i % games), maxPieces);
+            }
+        }
+    }
+
+    /**
+     * Tunes the weights, resuming from the checkpoint file if it exists.
+     *
+     * @param args  the checkpoint file (default tuner.txt) and the
+     *              number of generations to run (default 10)
+     *
+     * @throws IOException if the checkpoint cannot be read or written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        Path file = Paths.get(args.length > 0 ? args[0] : "tuner.txt");
+        int generations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        ForkJoinPool pool = new ForkJoinPool();
+        Tuner tuner;
+        if (Files.exists(file))
+        {
+            tuner = load(file, pool);
+        }
+        else
+        {
+            tuner = new Tuner(64, 8, 1000, System.nanoTime(), pool);
+        }
+        for (int i = 0; i < generations; i++)
+        {
+            long start = System.nanoTime();
+            tuner.runGeneration();
+            tuner.save(file);
+            System.out.println("generation " + tuner.getGeneration() + " best "
+                               + tuner.getBestFitness() + " " + join(tuner.getBest())
+                               + " (" + (System.nanoTime() - start) / 1000000 + " ms)");
+        }
+        pool.shutdown();
+    }
+}
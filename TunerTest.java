@@ -0,0 +1,61 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The test class TunerTest checks that Tuner games can be repeated
+ * from their seeds and that a checkpoint resumes the same tuning.
+ *
+ * @author  Julia Biswas
+ * @version October 18, 2026
+ */
+public class TunerTest
+{
+    /**
+     * Tests that a game played from the same seed earns the same points.
+     */
+    @Test
+    public void playGameIsRepeatable()
+    {
+        long first = Tuner.playGame(new Heuristic(), 42L, 300);
+        assertTrue("playGame fails", first > 0);
+        assertEquals("playGame fails", first, Tuner.playGame(new Heuristic(), 42L, 300));
+    }
+
+    /**
+     * Tests that a tuner loaded from a checkpoint carries on exactly
+     * as the tuner that saved it.
+     *
+     * @throws Exception if the checkpoint cannot be written or read
+     */
+    @Test
+    public void checkpoint() throws Exception
+    {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        Tuner tuner = new Tuner(Tuner.ELITE + 2, 2, 100, 7L, pool);
+        tuner.runGeneration();
+        Path file = Files.createTempFile("tuner", ".txt");
+        try
+        {
+            tuner.save(file);
+            Tuner loaded = Tuner.load(file, pool);
+            assertEquals("load fails", 1, loaded.getGeneration());
+            assertEquals("load fails", tuner.getBestFitness(), loaded.getBestFitness());
+            assertArrayEquals("load fails", tuner.getBest(), loaded.getBest(), 0.0);
+
+            tuner.runGeneration();
+            loaded.runGeneration();
+            for (int i = 0; i < tuner.getPopulation().length; i++)
+            {
+                assertArrayEquals("runGeneration fails", tuner.getPopulation()[i],
+                                  loaded.getPopulation()[i], 0.0);
+            }
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+}
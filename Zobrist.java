@@ -0,0 +1,103 @@
+/**
+ * Zobrist holds the keys that boards are hashed with.  Each row of a
+ * board is summarized by a signature, the exclusive or of the column
+ * keys of its occupied cells.  For the first 64 columns the key of
+ * column c is just the bit 1 << c, so the signature of a row is the
+ * same as its bit mask in a BitBoard.  The hash of a board is the
+ * exclusive or of rowKey(r, signature) over its rows, which lets a
+ * board update its hash in constant time when a cell changes and
+ * makes a MyBoundedGrid and a BitBoard with the same occupied cells
+ * hash the same.  Empty rows add nothing, so an empty board hashes to 0.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class Zobrist
+{
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final long PIECE_SALT = 0xD1B54A32D192ED03L;
+
+    /**
+     * Zobrist only has static methods, so it cannot be constructed.
+     */
+    private Zobrist()
+    {
+    }
+
+    /**
+     * Scrambles a value with the SplitMix64 finalizer.  Every input
+     * gives a different output.
+     *
+     * @param z  the value to scramble
+     *
+     * @return the scrambled value
+     */
+    public static long mix(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Retrieves the key of a column, which is exclusive ored into
+     * a row's signature when the column is occupied.
+     *
+     * @param col  a column;  col >= 0
+     *
+     * @return the key of the column
+     */
+    public static long colKey(int col)
+    {
+        if (col < 64)
+        {
+            return 1L << col;
+        }
+        return mix(col * GOLDEN);
+    }
+
+    /**
+     * Retrieves the part of a board's hash that comes from one row.
+     *
+     * @param row        the row
+     * @param signature  the signature of the row
+     *
+     * @return the hash of the row, or 0 if the row is empty
+     */
+    public static long rowKey(int row, long signature)
+    {
+        if (signature == 0)
+        {
+            return 0;
+        }
+        return mix(signature + (row + 1) * GOLDEN);
+    }
+
+    /**
+     * Retrieves the key of a tetrad's shape and rotation.
+     *
+     * @param shape     the index of the shape in TetradTable.SHAPES
+     * @param rotation  the rotation
+     *
+     * @return the key of the shape and rotation
+     */
+    public static long pieceKey(int shape, int rotation)
+    {
+        return mix((shape * TetradTable.ROTATIONS + rotation + 1) * GOLDEN + PIECE_SALT);
+    }
+
+    /**
+     * Combines a board's hash with a tetrad's shape and rotation, so
+     * that the same cells covered by different tetrads hash differently.
+     *
+     * @param boardHash  the hash of the board
+     * @param shape      the index of the shape in TetradTable.SHAPES
+     * @param rotation   the rotation
+     *
+     * @return the combined hash
+     */
+    public static long withPiece(long boardHash, int shape, int rotation)
+    {
+        return boardHash ^ pieceKey(shape, rotation);
+    }
+}
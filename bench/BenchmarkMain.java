@@ -0,0 +1,39 @@
+package bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so every result shows
+ * the allocation rate next to the operations per second.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class BenchmarkMain
+{
+    /**
+     * Runs the benchmarks whose names match the first argument,
+     * or all of them if there is no argument.
+     *
+     * @param args  arguments from the command line
+     *
+     * @throws RunnerException if a benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        String include = ".*Benchmark.*";
+        if (args.length > 0)
+        {
+            include = args[0];
+        }
+        Options options = new OptionsBuilder()
+            .include(include)
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,82 @@
+import java.awt.Color;
+import java.util.Random;
+
+/**
+ * BoardFixtures builds the boards that the benchmarks run on.
+ * Every board comes from a fixed seed, so each run measures
+ * exactly the same work.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class BoardFixtures
+{
+    /**
+     * The seed that every fixture is built from.
+     */
+    public static final long SEED = 20180102L;
+
+    /**
+     * The number of rows at the bottom of a fixture that hold blocks.
+     */
+    public static final int STACK_HEIGHT = 8;
+
+    /**
+     * Fills the bottom STACK_HEIGHT rows of a grid.  fullRows of them
+     * (chosen by the seed) are completely filled and the others each
+     * have a single hole, so they are never cleared.
+     *
+     * @precondition the grid has at least STACK_HEIGHT rows and is empty
+     *
+     * @param grid      the grid to fill
+     * @param fullRows  how many of the rows are completely filled
+     * @param seed      the seed that chooses the full rows and the holes
+     */
+    public static void fill(MyBoundedGrid<Block> grid, int fullRows, long seed)
+    {
+        Random random = new Random(seed);
+        int rows = grid.getNumRows();
+        int cols = grid.getNumCols();
+        boolean[] full = new boolean[STACK_HEIGHT];
+        int chosen = 0;
+        while (chosen < fullRows)
+        {
+            int i = random.nextInt(STACK_HEIGHT);
+            if (!full[i])
+            {
+                full[i] = true;
+                chosen++;
+            }
+        }
+        for (int i = 0; i < STACK_HEIGHT; i++)
+        {
+            int row = rows - 1 - i;
+            int hole = full[i] ? -1 : random.nextInt(cols);
+            for (int c = 0; c < cols; c++)
+            {
+                if (c != hole)
+                {
+                    Block block = new Block();
+                    block.setColor(new Color(random.nextInt(0x1000000)));
+                    block.putSelfInGrid(grid, new Location(row, c));
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every block from a grid.
+     *
+     * @param grid  the grid to empty
+     */
+    public static void empty(MyBoundedGrid<Block> grid)
+    {
+        for (int r = 0; r < grid.getNumRows(); r++)
+        {
+            for (int c = 0; c < grid.getNumCols(); c++)
+            {
+                grid.remove(new Location(r, c));
+            }
+        }
+    }
+}
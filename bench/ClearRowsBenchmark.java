@@ -0,0 +1,94 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures clearing the completed rows of a board that has
+ * 1 to 4 full rows.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ClearRowsBenchmark
+{
+    @Param({"1", "2", "3", "4"})
+    private int fullRows;
+
+    private Subject subject;
+
+    /**
+     * Builds a game whose grid has no tetrad in it.
+     */
+    @Setup
+    public void setUp()
+    {
+        subject = Subjects.load("ClearRowsSubject", Subject.class);
+        subject.setUp();
+    }
+
+    /**
+     * Puts the fixture back before every clear, since clearing
+     * changes the board.
+     */
+    @Setup(Level.Invocation)
+    public void resetBoard()
+    {
+        subject.resetBoard(fullRows);
+    }
+
+    /**
+     * Clears the completed rows of the fixture.
+     *
+     * @return the number of rows cleared
+     */
+    @Benchmark
+    public int clearCompletedRows()
+    {
+        return subject.clearCompletedRows();
+    }
+
+    /**
+     * Subject establishes what ClearRowsBenchmark measures, which
+     * ClearRowsSubject carries out on a TetrisGame.
+     */
+    public interface Subject
+    {
+        /**
+         * Builds a game whose grid has no tetrad in it.
+         */
+        void setUp();
+
+        /**
+         * Empties the grid and fills it with the fixture.
+         *
+         * @param fullRows  how many of the fixture's rows are full
+         */
+        void resetBoard(int fullRows);
+
+        /**
+         * Clears the completed rows of the grid.
+         *
+         * @return the number of rows cleared
+         */
+        int clearCompletedRows();
+    }
+}
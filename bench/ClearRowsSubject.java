@@ -0,0 +1,43 @@
+/**
+ * ClearRowsSubject carries out ClearRowsBenchmark on a TetrisGame.
+ * It is in the game's package, so it can call the package-private
+ * TetrisGame.clearCompletedRows.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class ClearRowsSubject implements bench.ClearRowsBenchmark.Subject
+{
+    private TetrisGame game;
+
+    /**
+     * Builds a game whose grid has no tetrad in it.
+     */
+    public void setUp()
+    {
+        game = new TetrisGame(20, 10);
+        game.getActiveTetrad().removeBlocks();
+    }
+
+    /**
+     * Empties the grid and fills it with the fixture.
+     *
+     * @param fullRows  how many of the fixture's rows are full
+     */
+    public void resetBoard(int fullRows)
+    {
+        MyBoundedGrid<Block> grid = game.getGrid();
+        BoardFixtures.empty(grid);
+        BoardFixtures.fill(grid, fullRows, BoardFixtures.SEED);
+    }
+
+    /**
+     * Clears the completed rows of the grid.
+     *
+     * @return the number of rows cleared
+     */
+    public int clearCompletedRows()
+    {
+        return game.clearCompletedRows();
+    }
+}
@@ -0,0 +1,99 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures redrawing the board with BlockDisplay.showBlocks, both
+ * with one panel per square and with a single BoardCanvas.
+ * This benchmark opens a window, so it needs a display.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DisplayBenchmark
+{
+    @Param({"false", "true"})
+    private boolean useCanvas;
+
+    private Subject subject;
+    private boolean flip;
+
+    /**
+     * Opens a display of a board with a stack of blocks at the bottom.
+     *
+     * @throws InterruptedException if the window does not open
+     */
+    @Setup
+    public void setUp() throws InterruptedException
+    {
+        subject = Subjects.load("DisplaySubject", Subject.class);
+        subject.setUp(useCanvas);
+    }
+
+    /**
+     * Redraws a board that has not changed since the last redraw.
+     */
+    @Benchmark
+    public void showBlocksUnchanged()
+    {
+        subject.showBlocks();
+    }
+
+    /**
+     * Redraws a board in which one block changed color.
+     */
+    @Benchmark
+    public void showBlocksChanged()
+    {
+        flip = !flip;
+        subject.changeBlock(flip);
+        subject.showBlocks();
+    }
+
+    /**
+     * Subject establishes what DisplayBenchmark measures, which
+     * DisplaySubject carries out on a BlockDisplay.
+     */
+    public interface Subject
+    {
+        /**
+         * Opens a display of a board with a stack of blocks at the
+         * bottom and one more block at the top.
+         *
+         * @param useCanvas  true if the board is drawn on a BoardCanvas
+         *
+         * @throws InterruptedException if the window does not open
+         */
+        void setUp(boolean useCanvas) throws InterruptedException;
+
+        /**
+         * Redraws the board.
+         */
+        void showBlocks();
+
+        /**
+         * Changes the color of the block at the top.
+         *
+         * @param red  true for red; otherwise, blue
+         */
+        void changeBlock(boolean red);
+    }
+}
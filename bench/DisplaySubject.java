@@ -0,0 +1,50 @@
+import java.awt.Color;
+
+/**
+ * DisplaySubject carries out DisplayBenchmark on a BlockDisplay.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class DisplaySubject implements bench.DisplayBenchmark.Subject
+{
+    private BlockDisplay display;
+    private Block changing;
+
+    /**
+     * Opens a display of a board with a stack of blocks at the
+     * bottom and one more block at the top.
+     *
+     * @param useCanvas  true if the board is drawn on a BoardCanvas
+     *
+     * @throws InterruptedException if the window does not open
+     */
+    public void setUp(boolean useCanvas) throws InterruptedException
+    {
+        MyBoundedGrid<Block> grid = new MyBoundedGrid<Block>(20, 10);
+        BoardFixtures.fill(grid, 0, BoardFixtures.SEED);
+        display = new BlockDisplay(grid, useCanvas);
+        display.awaitReady();
+        changing = new Block();
+        changing.putSelfInGrid(grid, new Location(0, 0));
+        display.showBlocks();
+    }
+
+    /**
+     * Redraws the board.
+     */
+    public void showBlocks()
+    {
+        display.showBlocks();
+    }
+
+    /**
+     * Changes the color of the block at the top.
+     *
+     * @param red  true for red; otherwise, blue
+     */
+    public void changeBlock(boolean red)
+    {
+        changing.setColor(red ? Color.RED : Color.BLUE);
+    }
+}
@@ -0,0 +1,72 @@
+package bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures finding the occupied locations of a board.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class GridBenchmark
+{
+    private Subject subject;
+
+    /**
+     * Builds a board with a stack of blocks at the bottom.
+     */
+    @Setup
+    public void setUp()
+    {
+        subject = Subjects.load("GridSubject", Subject.class);
+        subject.setUp();
+    }
+
+    /**
+     * Finds the occupied locations of the board.
+     *
+     * @return the occupied locations
+     */
+    @Benchmark
+    public List<?> getOccupiedLocations()
+    {
+        return subject.getOccupiedLocations();
+    }
+
+    /**
+     * Subject establishes what GridBenchmark measures, which
+     * GridSubject carries out on a MyBoundedGrid.
+     */
+    public interface Subject
+    {
+        /**
+         * Builds a board with a stack of blocks at the bottom.
+         */
+        void setUp();
+
+        /**
+         * Finds the occupied locations of the board.
+         *
+         * @return the occupied locations
+         */
+        List<?> getOccupiedLocations();
+    }
+}
@@ -0,0 +1,31 @@
+import java.util.ArrayList;
+
+/**
+ * GridSubject carries out GridBenchmark on a MyBoundedGrid.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class GridSubject implements bench.GridBenchmark.Subject
+{
+    private MyBoundedGrid<Block> grid;
+
+    /**
+     * Builds a board with a stack of blocks at the bottom.
+     */
+    public void setUp()
+    {
+        grid = new MyBoundedGrid<Block>(20, 10);
+        BoardFixtures.fill(grid, 0, BoardFixtures.SEED);
+    }
+
+    /**
+     * Finds the occupied locations of the board.
+     *
+     * @return the occupied locations
+     */
+    public ArrayList<Location> getOccupiedLocations()
+    {
+        return grid.getOccupiedLocations();
+    }
+}
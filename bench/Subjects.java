@@ -0,0 +1,47 @@
+package bench;
+
+/**
+ * Subjects loads the code that the benchmarks measure.  JMH only runs
+ * benchmarks that are in a package, and a class in a package cannot
+ * name the game's classes, which are in the default package.  So each
+ * benchmark declares a Subject interface with the operations it
+ * measures, and a default-package class next to it in the bench folder
+ * carries them out on the game and is loaded here by name.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public final class Subjects
+{
+    /**
+     * There are no Subjects, only the classes it loads.
+     */
+    private Subjects()
+    {
+    }
+
+    /**
+     * Makes an instance of a subject class.
+     *
+     * @param <T>   the benchmark's Subject interface
+     * @param name  the name of the default-package class
+     * @param type  the interface the class implements
+     *
+     * @return a new instance of the class
+     *
+     * @throws IllegalStateException if the class is missing or cannot
+     *         be made
+     */
+    public static <T> T load(String name, Class<T> type)
+    {
+        try
+        {
+            return Class.forName(name).asSubclass(type).getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new IllegalStateException("cannot load " + name
+                + "; compile the bench folder with the game on the classpath", e);
+        }
+    }
+}
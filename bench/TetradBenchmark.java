@@ -0,0 +1,106 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures moving and rotating a tetrad on a board that has
+ * a stack of blocks at the bottom.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TetradBenchmark
+{
+    @Param({"I", "T", "O", "L", "J", "S", "Z"})
+    private String shape;
+
+    private Subject subject;
+    private int direction;
+
+    /**
+     * Builds the board and puts a tetrad a few rows above the stack.
+     */
+    @Setup
+    public void setUp()
+    {
+        subject = Subjects.load("TetradSubject", Subject.class);
+        subject.setUp(shape);
+        direction = 1;
+    }
+
+    /**
+     * Moves the tetrad one column, turning around at the walls,
+     * so both successful and failed moves are measured.
+     *
+     * @return whether the move succeeded
+     */
+    @Benchmark
+    public boolean translate()
+    {
+        boolean moved = subject.translate(direction);
+        if (!moved)
+        {
+            direction = -direction;
+        }
+        return moved;
+    }
+
+    /**
+     * Rotates the tetrad 90 degrees.
+     *
+     * @return whether the rotation succeeded
+     */
+    @Benchmark
+    public boolean rotate()
+    {
+        return subject.rotate();
+    }
+
+    /**
+     * Subject establishes what TetradBenchmark measures, which
+     * TetradSubject carries out on a Tetrad.
+     */
+    public interface Subject
+    {
+        /**
+         * Builds the board and puts a tetrad a few rows above the stack.
+         *
+         * @param shape  the shape of the tetrad
+         */
+        void setUp(String shape);
+
+        /**
+         * Moves the tetrad one column.
+         *
+         * @param deltaCol  the column to move by, -1 or 1
+         *
+         * @return whether the move succeeded
+         */
+        boolean translate(int deltaCol);
+
+        /**
+         * Rotates the tetrad 90 degrees.
+         *
+         * @return whether the rotation succeeded
+         */
+        boolean rotate();
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * TetradSubject carries out TetradBenchmark on a Tetrad.
+ *
+ * @author Julia Biswas
+ * @version October 18, 2026
+ */
+public class TetradSubject implements bench.TetradBenchmark.Subject
+{
+    private Tetrad tetrad;
+
+    /**
+     * Builds the board and puts a tetrad a few rows above the stack.
+     *
+     * @param shape  the shape of the tetrad
+     */
+    public void setUp(String shape)
+    {
+        MyBoundedGrid<Block> grid = new MyBoundedGrid<Block>(20, 10);
+        BoardFixtures.fill(grid, 0, BoardFixtures.SEED);
+        tetrad = new Tetrad(grid, shape);
+        tetrad.translate(4, 0);
+    }
+
+    /**
+     * Moves the tetrad one column.
+     *
+     * @param deltaCol  the column to move by, -1 or 1
+     *
+     * @return whether the move succeeded
+     */
+    public boolean translate(int deltaCol)
+    {
+        return tetrad.translate(0, deltaCol);
+    }
+
+    /**
+     * Rotates the tetrad 90 degrees.
+     *
+     * @return whether the rotation succeeded
+     */
+    public boolean rotate()
+    {
+        return tetrad.rotate();
+    }
+}